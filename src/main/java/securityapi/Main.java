@@ -3,9 +3,12 @@ package securityapi;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.crypto.SecretKey;
 
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -19,6 +22,9 @@ import securityapi.api.TableDataHandler;
 import securityapi.authtoken.JwsGenerator;
 import securityapi.config.ConfigLoader;
 import securityapi.dbmanage.UserDAO;
+import securityapi.securityalgo.HightProvider;
+import securityapi.server.NioHttpServer;
+import securityapi.server.RequestExecutor;
 
 public class Main {
     private static final JwsGenerator jwsHandler = new JwsGenerator();
@@ -36,7 +42,8 @@ public class Main {
         String registerPath     = ConfigLoader.getProperty("server.register.path");
         String tableDataPath    = ConfigLoader.getProperty("server.tableData.path");
         
-        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        // Cipher.getInstance("HIGHT/...") 를 쓸 수 있도록 HIGHT 프로바이더 등록
+        HightProvider.install();
         
         String dbUrl  = ConfigLoader.getProperty("db.url");
         String dbUser = ConfigLoader.getProperty("db.user");
@@ -53,19 +60,37 @@ public class Main {
         RegisterHandler registerHandler         = new RegisterHandler(userDAO);
         TableDataHandler tableDataHandler       = new TableDataHandler(jwsHandler, serverSecretKey);
         
-        server.createContext(loginPath,     loginHandler);
-        server.createContext(apiPath,       processHandler);
-        server.createContext(refreshTokenPath, refreshTokenHandler);
-        server.createContext(logoutPath, logoutHandler);
+        Map<String, HttpHandler> routes = new LinkedHashMap<>();
+        routes.put(loginPath,     loginHandler);
+        routes.put(apiPath,       processHandler);
+        routes.put(refreshTokenPath, refreshTokenHandler);
+        routes.put(logoutPath, logoutHandler);
         
        //추후 삭제 가능성 높음
-        server.createContext(registerPath,  registerHandler);
-        server.createContext(tableDataPath, tableDataHandler);
+        routes.put(registerPath,  registerHandler);
+        routes.put(tableDataPath, tableDataHandler);
         
-        server.setExecutor(null);
-        server.start();
+        // 핸들러는 디스패처 스레드가 아니라 설정한 Executor 에서 실행 (server.executor)
+        RequestExecutor executor = RequestExecutor.fromConfig();
+        int backlog      = Integer.parseInt(ConfigLoader.getProperty("server.backlog", "0").trim());
+        String frontend;
 
-        System.out.println("✅ 서버가 시작되었습니다. http://localhost:" + port);
+        // 2. 프런트엔드 선택 (jdk: com.sun.net.httpserver, nio: NioHttpServer)
+        if ("nio".equalsIgnoreCase(ConfigLoader.getProperty("server.frontend", "jdk").trim())) {
+            NioHttpServer server = NioHttpServer.fromConfig(new InetSocketAddress(port), backlog);
+            routes.forEach(server::createContext);
+            server.setExecutor(executor);
+            server.start();
+            frontend = server.toString();
+        } else {
+            HttpServer server = HttpServer.create(new InetSocketAddress(port), backlog);
+            routes.forEach(server::createContext);
+            server.setExecutor(executor);
+            server.start();
+            frontend = "jdk";
+        }
+
+        System.out.println("✅ 서버가 시작되었습니다. http://localhost:" + port + " (" + frontend + ", 요청 처리: " + executor + ")");
 
         String base64UrlKey = Base64.getUrlEncoder().withoutPadding().encodeToString(serverSecretKey.getEncoded());
         System.out.println("---");
@@ -1,7 +1,6 @@
 package securityapi.api;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.HashMap;
@@ -16,6 +15,7 @@ import com.sun.net.httpserver.HttpHandler;
 import securityapi.authtoken.JwsGenerator;
 import securityapi.dbmanage.UserDAO;
 import securityapi.dto.LoginRequest; // DTO 임포트
+import securityapi.server.ResponseCompression;
 
 public class LoginHandler implements HttpHandler {
 
@@ -94,10 +94,6 @@ public class LoginHandler implements HttpHandler {
         exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
         exchange.getResponseHeaders().set("Access-Control-Expose-Headers", "Authorization");
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        ResponseCompression.send(exchange, statusCode, responseBytes);
     }
 }
@@ -7,10 +7,10 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import securityapi.authtoken.JwsGenerator;
 import securityapi.dbmanage.UserDAO;
+import securityapi.server.ResponseCompression;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
@@ -73,10 +73,6 @@ public class LogoutHandler implements HttpHandler {
         
         exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        ResponseCompression.send(exchange, statusCode, responseBytes);
     }
 }
\ No newline at end of file
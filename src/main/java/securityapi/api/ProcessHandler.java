@@ -1,7 +1,6 @@
 package securityapi.api;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Arrays;
@@ -23,6 +22,7 @@ import securityapi.dbmanage.UserDAO;
 import securityapi.dto.MainRequest;
 import securityapi.dto.ProcessRequest;
 import securityapi.dto.User;
+import securityapi.server.ResponseCompression;
 
 /**
  * HTTP 요청/응답 처리 및 인증을 담당하는 컨트롤러 클래스
@@ -154,10 +154,6 @@ public class ProcessHandler implements HttpHandler {
 
         exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        ResponseCompression.send(exchange, statusCode, responseBytes);
     }
 }
\ No newline at end of file
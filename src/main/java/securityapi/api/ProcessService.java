@@ -66,20 +66,26 @@ public class ProcessService {
                         throw new IllegalArgumentException("'new' 타입 요청에는 'data' 객체가 반드시 필요합니다.");
                     }
                     Map<String, String> dataToInsert = new HashMap<>();
-                    String iv                        = encryptionService.generateIv();
                     List<String> columnsToEncrypt    = (colsToProcessStr == null || colsToProcessStr.isBlank()) ? Collections.emptyList() : Arrays.asList(colsToProcessStr.split("\\s*,\\s*"));
                     
+                    List<String> encryptColumns = new ArrayList<>();
+                    List<String> encryptValues  = new ArrayList<>();
+                    
                     for (Map.Entry<String, String> entry : originalDataMap.entrySet()) {
                         String currentColumn = entry.getKey();
                         String currentValue = entry.getValue();
                         if (currentColumn.equals(passwordColumn)) {
                             dataToInsert.put(currentColumn, hashedPassword);
                         } else if (columnsToEncrypt.contains(currentColumn)) {
-                            dataToInsert.put(currentColumn, encryptionService.encrypt(currentValue, iv, algo));
+                            encryptColumns.add(currentColumn);
+                            encryptValues.add(currentValue);
                         } else {
                             dataToInsert.put(currentColumn, currentValue);
                         }
                     }
+                    // 암호화할 값이 있을 때만 algo 에 맞는 IV 를 만듭니다. (없으면 algo 없이 보낸 일반 저장 요청)
+                    String iv = encryptColumns.isEmpty() ? encryptionService.generateIv() : encryptionService.generateIv(algo);
+                    putAll(dataToInsert, encryptColumns, encryptionService.encryptBatch(encryptColumns, encryptValues, iv, algo));
                     
                     response.put("status", "success");
                     response.put("en_col", colsToProcessStr);
@@ -115,18 +121,12 @@ public class ProcessService {
 
                     if (!requestedColumns.isEmpty()) {
                         if ("en".equalsIgnoreCase(mode)) {
-                            ivToUse = encryptionService.generateIv();
                             String algoToUse = requestData.getAlgo();
                             if (algoToUse == null || algoToUse.isBlank()) {
                                 throw new IllegalArgumentException("암호화(en) 시에는 'algo' 파라미터가 반드시 필요합니다.");
                             }
-                            for (String col : requestedColumns) {
-                                String value = targetData.get(col.toLowerCase());
-                                if (value != null) {
-                                    String result = encryptionService.encrypt(value, ivToUse, algoToUse);
-                                    processedData.put(col, result);
-                                }
-                            }
+                            ivToUse = encryptionService.generateIv(algoToUse);
+                            encryptColumns(targetData, requestedColumns, ivToUse, algoToUse, processedData);
                             response.put("en_col", colsToProcessStr);
                         } else { // "de" mode
                             String originalEncryptedColsStr      = targetData.getOrDefault("en_col", "");
@@ -139,13 +139,7 @@ public class ProcessService {
                                 if (ivToUse == null || algoToUse == null) {
                                     throw new IllegalStateException("복호화를 위한 IV 또는 알고리즘 값이 DB에 없습니다.");
                                 }
-                                for (String col : columnsToProcess) {
-                                    String value = targetData.get(col.toLowerCase());
-                                    if (value != null) {
-                                        String result = encryptionService.decrypt(value, ivToUse, algoToUse);
-                                        processedData.put(col, result);
-                                    }
-                                }
+                                decryptColumns(targetData, columnsToProcess, ivToUse, algoToUse, processedData);
                             }
                         }
                     }
@@ -154,6 +148,19 @@ public class ProcessService {
                     response.put("iv", ivToUse);
                     response.put("result", processedData);
                     
+                } else if ("lookup".equals(infoType)) {
+                    // 암호화 컬럼 값으로 행 찾기: data 에 {컬럼: 평문} 하나를 받아 blind index 로 조회
+                    Map<String, String> criteria = requestData.getData();
+                    if (criteria == null || criteria.size() != 1) {
+                        throw new IllegalArgumentException("'lookup' 타입 요청에는 검색할 컬럼 하나와 값이 담긴 'data' 객체가 필요합니다.");
+                    }
+                    Map.Entry<String, String> criterion = criteria.entrySet().iterator().next();
+                    String blindIndex = encryptionService.blindIndex(criterion.getKey(), criterion.getValue());
+                    List<Map<String, String>> rows = dbManager.findByBlindIndex(conn, table, criterion.getKey(), blindIndex);
+                    
+                    response.put("status", "success");
+                    response.put("count", rows.size());
+                    response.put("result", rows);
                 }
             } else if ("proxy".equals(routeType)) {
                 String uuidStr    = requestData.getUuid();
@@ -171,25 +178,30 @@ public class ProcessService {
                         throw new IllegalArgumentException("'new' 타입 요청에는 'data' 객체가 반드시 필요합니다.");
                     }
                     Map<String, String> dataToInsert = new HashMap<>();
-                    String iv                        = encryptionService.generateIv();
                     List<String> columnsToEncrypt    = (colsToProcessStr == null || colsToProcessStr.isBlank()) ? Collections.emptyList() : Arrays.asList(colsToProcessStr.split("\\s*,\\s*"));
+                    List<String> encryptColumns = new ArrayList<>();
+                    List<String> encryptValues  = new ArrayList<>();
+                    
                     for (Map.Entry<String, String> entry : originalDataMap.entrySet()) {
                         String currentColumn = entry.getKey();
                         String currentValue  = entry.getValue();
                         if (currentColumn.equals(passwordColumn)) {
                             dataToInsert.put(currentColumn, hashedPassword);
                         } else if (columnsToEncrypt.contains(currentColumn)) {
-                            dataToInsert.put(currentColumn, encryptionService.encrypt(currentValue, iv, algo));
+                            encryptColumns.add(currentColumn);
+                            encryptValues.add(currentValue);
                         } else {
                             dataToInsert.put(currentColumn, currentValue);
                         }
                     }
+                    String iv = encryptColumns.isEmpty() ? encryptionService.generateIv() : encryptionService.generateIv(algo);
+                    putAll(dataToInsert, encryptColumns, encryptionService.encryptBatch(encryptColumns, encryptValues, iv, algo));
                     
                     if ("T".equals(updateFlag)) {
                         if (!dataToInsert.isEmpty()) {
                             boolean isEncryptMode = "en".equalsIgnoreCase(mode);
                             if (isEncryptMode) {
-                                dbManager.insertOldData(conn, table, uuid, dataToInsert, columnsToEncrypt, iv, algo);
+                                dbManager.insertOldData(conn, table, uuid, dataToInsert, columnsToEncrypt, iv, algo, blindIndexes(dbManager, encryptColumns, encryptValues));
                             }
                             response.put("message", "작업 완료 (DB 업데이트됨).");
                         } else {
@@ -232,22 +244,16 @@ public class ProcessService {
                             throw new IllegalArgumentException("'en' 모드에서는 'col' 파라미터가 반드시 필요합니다.");
                         }
 
-                        ivToUse = encryptionService.generateIv();
                         String algoToUse = requestData.getAlgo();
                         if (algoToUse == null || algoToUse.isBlank()) {
                             throw new IllegalArgumentException("암호화(en) 시에는 'algo' 파라미터가 반드시 필요합니다.");
                         }
-                        for (String col : requestedColumns) {
-                            String value = targetData.get(col.toLowerCase());
-                            if (value != null) {
-                                String result = encryptionService.encrypt(value, ivToUse, algoToUse);
-                                processedData.put(col, result);
-                            }
-                        }
+                        ivToUse = encryptionService.generateIv(algoToUse);
+                        encryptColumns(targetData, requestedColumns, ivToUse, algoToUse, processedData);
 
                         if ("T".equals(updateFlag)) {
                             if (!processedData.isEmpty()) {
-                                dbManager.insertOldData(conn, table, uuid, processedData, requestedColumns, ivToUse, algo);
+                                dbManager.insertOldData(conn, table, uuid, processedData, requestedColumns, ivToUse, algo, blindIndexes(dbManager, targetData, requestedColumns));
                                 response.put("message", "작업 완료 (DB 업데이트됨).");
                             } else {
                                 response.put("message", "업데이트할 데이터가 없습니다.");
@@ -290,13 +296,7 @@ public class ProcessService {
                                 if (ivToUse == null || algoToUse == null) {
                                     throw new IllegalStateException("복호화를 위한 IV 또는 알고리즘 값이 DB에 없습니다.");
                                 }
-                                for (String col : columnsToDecrypt) {
-                                    String value = targetData.get(col.toLowerCase());
-                                    if (value != null) {
-                                        String result = encryptionService.decrypt(value, ivToUse, algoToUse);
-                                        processedData.put(col, result);
-                                    }
-                                }
+                                decryptColumns(targetData, columnsToDecrypt, ivToUse, algoToUse, processedData);
                             }
 
                             // 5. DB 업데이트는 "T" 플래그일 때만 수행합니다.
@@ -330,4 +330,55 @@ public class ProcessService {
             return response;
         }
     }
-}
\ No newline at end of file
+
+    // DB 에서 읽은 행(컬럼명 소문자)의 컬럼들을 같은 IV/알고리즘으로 한 번에 암호화해서 target 에 넣습니다. 값이 없는 컬럼은 건너뜁니다.
+    private void encryptColumns(Map<String, String> row, List<String> columns, String iv, String algo, Map<String, String> target) {
+        List<String> present = new ArrayList<>();
+        List<String> values  = new ArrayList<>();
+        collectValues(row, columns, present, values);
+        putAll(target, present, encryptionService.encryptBatch(present, values, iv, algo));
+    }
+
+    // encryptColumns 의 복호화 버전
+    private void decryptColumns(Map<String, String> row, List<String> columns, String iv, String algo, Map<String, String> target) {
+        List<String> present = new ArrayList<>();
+        List<String> values  = new ArrayList<>();
+        collectValues(row, columns, present, values);
+        putAll(target, present, encryptionService.decryptBatch(present, values, iv, algo));
+    }
+
+    // blind.index.enabled 일 때 암호화한 컬럼들의 평문 blind index (컬럼명 → 인덱스 값)
+    private Map<String, String> blindIndexes(DatabaseManager dbManager, List<String> columns, List<String> plainValues) {
+        Map<String, String> indexes = new HashMap<>();
+        if (dbManager.isBlindIndexEnabled()) {
+            for (int i = 0; i < columns.size(); i++) {
+                indexes.put(columns.get(i), encryptionService.blindIndex(columns.get(i), plainValues.get(i)));
+            }
+        }
+        return indexes;
+    }
+
+    // DB 에서 읽은 행(컬럼명 소문자)의 평문으로 blind index 를 만듭니다.
+    private Map<String, String> blindIndexes(DatabaseManager dbManager, Map<String, String> row, List<String> columns) {
+        List<String> present = new ArrayList<>();
+        List<String> values  = new ArrayList<>();
+        collectValues(row, columns, present, values);
+        return blindIndexes(dbManager, present, values);
+    }
+
+    private static void collectValues(Map<String, String> row, List<String> columns, List<String> present, List<String> values) {
+        for (String col : columns) {
+            String value = row.get(col.toLowerCase(Locale.ROOT));
+            if (value != null) {
+                present.add(col);
+                values.add(value);
+            }
+        }
+    }
+
+    private static void putAll(Map<String, String> target, List<String> columns, List<String> results) {
+        for (int i = 0; i < columns.size(); i++) {
+            target.put(columns.get(i), results.get(i));
+        }
+    }
+}
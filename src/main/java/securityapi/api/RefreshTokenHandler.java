@@ -2,7 +2,6 @@ package securityapi.api;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
@@ -20,6 +19,7 @@ import io.jsonwebtoken.Jws;
 import securityapi.authtoken.JwsGenerator;
 import securityapi.dbmanage.UserDAO;
 import securityapi.pwdhash.Bcrypt;
+import securityapi.server.ResponseCompression;
 
 public class RefreshTokenHandler implements HttpHandler {
     private static final Gson GSON = new Gson();
@@ -92,9 +92,6 @@ public class RefreshTokenHandler implements HttpHandler {
         exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
         exchange.getResponseHeaders().add("Access-Control-Expose-Headers", "Authorization");
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        ResponseCompression.send(exchange, statusCode, responseBytes);
     }
 }
\ No newline at end of file
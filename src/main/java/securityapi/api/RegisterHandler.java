@@ -2,7 +2,6 @@ package securityapi.api;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 
@@ -10,6 +9,7 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
 import securityapi.dbmanage.UserDAO;
+import securityapi.server.ResponseCompression;
 
 public class RegisterHandler implements HttpHandler {
     private final UserDAO userDAO;
@@ -74,10 +74,7 @@ public class RegisterHandler implements HttpHandler {
     private void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
         exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
-        exchange.sendResponseHeaders(statusCode, response.getBytes(StandardCharsets.UTF_8).length);
-        OutputStream os = exchange.getResponseBody();
-        os.write(response.getBytes(StandardCharsets.UTF_8));
-        os.close();
+        ResponseCompression.send(exchange, statusCode, response.getBytes(StandardCharsets.UTF_8));
     }
     
     private String parseJsonField(String json, String fieldName) {
@@ -1,16 +1,21 @@
 package securityapi.api;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.util.List;
+import java.sql.SQLException;
 import java.util.Map;
 
 import javax.crypto.SecretKey;
 
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -18,10 +23,15 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import securityapi.authtoken.JwsGenerator;
 import securityapi.dbmanage.DatabaseManager;
+import securityapi.dbmanage.TableCursor;
 import securityapi.dto.TableRequest; // 이전 답변에서 만든 DTO
+import securityapi.server.ResponseCompression;
 
 public class TableDataHandler implements HttpHandler {
     private static final Gson GSON = new Gson();
+    private static final Type ROW_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+    // 스트리밍 응답을 청크로 내보내기 전에 모아 두는 크기
+    private static final int STREAM_BUFFER_BYTES = 16 * 1024;
     private final JwsGenerator jwsHandler;
     private final SecretKey serverSecretKey;
     
@@ -74,19 +84,67 @@ public class TableDataHandler implements HttpHandler {
             var dbConfig = request.getDbConfig();
             DatabaseManager dbManager = new DatabaseManager(dbConfig.getUrl(), dbConfig.getUser(), dbConfig.getPass());
 
-            List<Map<String, Object>> data;
-            try (Connection conn = dbManager.getConnection()) {
-                // 이 부분에서 tableName 유효성 검사를 수행하는 것이 안전합니다.
-                data = dbManager.getAllData(conn, request.getTableName());
+            // 컬럼/필터/after/limit 검증과 쿼리 실행은 모두 커서를 열 때 끝나므로,
+            // 요청 오류(400)와 테이블 오류(500)는 헤더를 보내기 전에 드러납니다.
+            try (Connection conn = dbManager.getConnection();
+                 TableCursor cursor = dbManager.openTableCursor(conn, request.getTableName(), request.getColumns(),
+                     request.getFilters(), request.getAfter(), request.getLimit())) {
+                streamRows(exchange, cursor, request.getLimit());
             }
 
-            sendJsonResponse(exchange, 200, Map.of("data", data));
-
+        } catch (IllegalArgumentException e) {
+            if (exchange.getResponseCode() != -1) {
+                // 행을 쓰는 중에 난 오류 (예: JSON 으로 쓸 수 없는 NaN 값). 요청 오류가 아닙니다.
+                abortStream(e);
+            }
+            // 없는 컬럼, 잘못된 uuid/limit 등 요청 오류
+            sendJsonResponse(exchange, 400, Map.of("error", e.getMessage()));
         } catch (Exception e) {
+            if (exchange.getResponseCode() != -1) {
+                abortStream(e);
+            }
             e.printStackTrace();
             sendJsonResponse(exchange, 500, Map.of("error", "서버 내부 오류: " + e.getMessage()));
         }
     }
+
+    /**
+     * 이미 200 헤더와 일부 행을 보낸 뒤라 상태 코드를 바꿀 수 없습니다.
+     * 오류를 기록하고, 마지막 청크 없이 연결을 끊도록 예외를 던져 클라이언트가 잘린 응답임을 알게 합니다.
+     */
+    private static void abortStream(Exception e) throws IOException {
+        e.printStackTrace();
+        throw new IOException("table-data 스트리밍 중 오류", e);
+    }
+
+    /**
+     * {"data":[...]} 응답을 커서에서 한 행씩 읽어 chunked 전송으로 씁니다.
+     * 행 목록이나 전체 JSON 문자열을 만들지 않으므로 테이블 크기와 관계없이 메모리 사용량이 일정합니다.
+     * limit 만큼 채워진 페이지에는 다음 요청의 after 로 쓸 "next"(마지막 행의 uuid) 를 덧붙입니다.
+     */
+    private void streamRows(HttpExchange exchange, TableCursor cursor, Integer limit) throws IOException, SQLException {
+        exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        // chunked 전송. Accept-Encoding 에 따라 gzip/deflate 로 압축됩니다.
+        OutputStream os   = new BufferedOutputStream(ResponseCompression.sendStreaming(exchange, 200), STREAM_BUFFER_BYTES);
+        JsonWriter writer = GSON.newJsonWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+        writer.beginObject();
+        writer.name("data");
+        writer.beginArray();
+        Map<String, Object> row;
+        Object lastKey = null;
+        while ((row = cursor.next()) != null) {
+            GSON.toJson(row, ROW_TYPE, writer);
+            lastKey = row.get(DatabaseManager.KEY_COLUMN);
+        }
+        writer.endArray();
+        if (limit != null && cursor.rowCount() == limit && lastKey != null) {
+            writer.name("next").value(lastKey.toString());
+        }
+        writer.endObject();
+        // 성공했을 때만 닫아 마지막 청크를 보냅니다. 중간에 실패하면 닫지 않고 예외로 연결을 끊습니다.
+        writer.close();
+    }
     
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Map<String, Object> responseMap) throws IOException {
         // ◀️ 중요: 실제 데이터 응답(POST, 에러 등)에 CORS 헤더를 반드시 포함해야 합니다.
@@ -97,10 +155,6 @@ public class TableDataHandler implements HttpHandler {
         byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
         
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        ResponseCompression.send(exchange, statusCode, responseBytes);
     }
 }
\ No newline at end of file
@@ -7,26 +7,66 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import securityapi.config.ConfigLoader;
+
 public class DatabaseManager {
 
     private final String dbUrl;
     private final String user;
     private final String pass;
+    // 암호화 컬럼과 iv_data 를 쓸 때의 형식. 읽을 때는 컬럼 타입으로 판단합니다.
+    private final StorageFormat storageFormat;
+
+    /** 암호화 컬럼 col 의 blind index 를 저장하는 컬럼은 col + BLIND_INDEX_SUFFIX (text, B-tree 인덱스 권장) */
+    public static final String BLIND_INDEX_SUFFIX = "_bidx";
+    // 암호화할 때 blind index 컬럼도 함께 쓰고, 복호화해서 저장할 때 지웁니다.
+    private final boolean blindIndexEnabled;
+    // openTableCursor 가 한 번에 가져오는 행 수
+    private final int fetchSize;
+
+    /** openTableCursor 의 키셋 페이지네이션 키 컬럼 */
+    public static final String KEY_COLUMN = "uuid";
+    // IN 필터 하나에 넣을 수 있는 값 수
+    private static final int MAX_IN_VALUES = 1000;
+    // openTableCursor 의 limit 상한
+    private final int maxLimit;
 
     public DatabaseManager(String dbUrl, String user, String pass) {
-        this.dbUrl = dbUrl;
-        this.user  = user;
-        this.pass  = pass;
+        this(dbUrl, user, pass, StorageFormat.fromConfig(ConfigLoader.getProperty("storage.format", "base64")));
+    }
+
+    public DatabaseManager(String dbUrl, String user, String pass, StorageFormat storageFormat) {
+        this.dbUrl         = dbUrl;
+        this.user          = user;
+        this.pass          = pass;
+        this.storageFormat = storageFormat;
+        this.blindIndexEnabled = Boolean.parseBoolean(ConfigLoader.getProperty("blind.index.enabled", "false").trim());
+        this.fetchSize         = Math.max(1, Integer.parseInt(ConfigLoader.getProperty("table.fetch.size", "500").trim()));
+        this.maxLimit          = Math.max(1, Integer.parseInt(ConfigLoader.getProperty("table.max.limit", "1000").trim()));
+    }
+
+    public boolean isBlindIndexEnabled() {
+        return blindIndexEnabled;
+    }
+
+    public static String blindIndexColumn(String column) {
+        if (column.indexOf('"') >= 0) {
+            throw new IllegalArgumentException("Invalid column name: " + column);
+        }
+        return column + BLIND_INDEX_SUFFIX;
     }
 
     public Connection getConnection() throws SQLException {
@@ -55,8 +95,8 @@ public class DatabaseManager {
                 // 각 행의 데이터를 저장할 새로운 Map 생성
                 Map<String, Object> row = new HashMap<>();
                 for (int i = 1; i <= columnCount; i++) {
-                    // 컬럼 타입을 유지하기 위해 getString 대신 getObject 사용
-                    row.put(md.getColumnName(i), rs.getObject(i));
+                    // 컬럼 타입을 유지하기 위해 getString 대신 getObject 사용 (bytea 저장 값은 문자열로 변환)
+                    row.put(md.getColumnName(i), isBinary(md, i) ? StorageFormat.decode(rs.getBytes(i)) : rs.getObject(i));
                 }
                 // 완성된 행을 리스트에 추가
                 allRows.add(row);
@@ -66,6 +106,120 @@ public class DatabaseManager {
         return allRows;
     }
 
+    /**
+     * getAllData 의 스트리밍 버전. 행을 fetchSize(table.fetch.size) 개씩 가져오는 서버 측 커서를 엽니다.
+     * 쿼리는 여기서 실행되므로 테이블이 없으면 커서를 돌려주기 전에 SQLException 이 납니다.
+     */
+    public TableCursor openTableCursor(Connection conn, String tableName) throws SQLException {
+        return openTableCursor(conn, tableName, null, null, null, null);
+    }
+
+    /**
+     * 컬럼 선택, 필터, 키셋 페이지네이션을 붙여 커서를 엽니다. 인자가 null 이거나 비어 있으면 해당 조건을 쓰지 않습니다.
+     * 컬럼명은 실제 테이블 컬럼과 정확히 같아야 하고, 값은 모두 바인딩 변수로 넘깁니다.
+     * after 나 limit 이 있으면 KEY_COLUMN 순으로 정렬하고, 다음 페이지를 이어 받을 수 있도록 KEY_COLUMN 을 항상 포함합니다.
+     *
+     * @param filters 컬럼명 → 값(=) 또는 값 목록(IN). 값이 null 이면 IS NULL
+     * @param after   이 uuid 보다 큰 행부터
+     * @param limit   최대 행 수 (1 ~ table.max.limit)
+     * @throws IllegalArgumentException 없는 컬럼, 잘못된 uuid 나 limit 등 요청 자체가 잘못된 경우
+     */
+    public TableCursor openTableCursor(Connection conn, String tableName, List<String> columns,
+        Map<String, Object> filters, String after, Integer limit) throws SQLException {
+        if (tableName.indexOf('"') >= 0) {
+            throw new IllegalArgumentException("Invalid table name: " + tableName);
+        }
+        if (limit != null && (limit < 1 || limit > maxLimit)) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit + ": " + limit);
+        }
+        boolean paged     = after != null || limit != null;
+        boolean projected = columns != null && !columns.isEmpty();
+        boolean filtered  = filters != null && !filters.isEmpty();
+        // 식별자는 따옴표로 감싸기 전에 실제 컬럼 목록과 대조합니다.
+        Set<String> known = paged || projected || filtered ? new HashSet<>(getColumnNames(conn, tableName)) : Collections.emptySet();
+
+        String select = "*";
+        if (projected) {
+            List<String> selected = new ArrayList<>();
+            for (String column : columns) {
+                String quoted = quoteColumn(known, column);
+                if (!selected.contains(quoted)) {
+                    selected.add(quoted);
+                }
+            }
+            String key = quoteColumn(known, KEY_COLUMN);
+            if (paged && !selected.contains(key)) {
+                selected.add(key);
+            }
+            select = String.join(", ", selected);
+        }
+
+        List<String> conditions = new ArrayList<>();
+        List<Object> params     = new ArrayList<>();
+        if (filtered) {
+            for (Map.Entry<String, Object> filter : filters.entrySet()) {
+                String column = quoteColumn(known, filter.getKey());
+                Object value  = filter.getValue();
+                if (value == null) {
+                    conditions.add(column + " IS NULL");
+                } else if (value instanceof Collection) {
+                    Collection<?> values = (Collection<?>) value;
+                    if (values.isEmpty() || values.size() > MAX_IN_VALUES) {
+                        throw new IllegalArgumentException("Filter " + filter.getKey() + " must have 1 to " + MAX_IN_VALUES + " values.");
+                    }
+                    for (Object item : values) {
+                        params.add(filterValue(filter.getKey(), item));
+                    }
+                    conditions.add(column + " IN (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")");
+                } else {
+                    conditions.add(column + " = ?");
+                    params.add(filterValue(filter.getKey(), value));
+                }
+            }
+        }
+        if (after != null) {
+            conditions.add(quoteColumn(known, KEY_COLUMN) + " > ?");
+            try {
+                params.add(UUID.fromString(after));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("after must be a uuid: " + after);
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(select).append(" FROM \"").append(tableName).append('"');
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (paged) {
+            sql.append(" ORDER BY ").append(quoteColumn(known, KEY_COLUMN));
+        }
+        if (limit != null) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+        return new TableCursor(conn, sql.toString(), params, fetchSize);
+    }
+
+    private static String quoteColumn(Set<String> known, String column) {
+        if (column == null || !known.contains(column)) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        return "\"" + column + "\"";
+    }
+
+    // 필터 값은 문자열로 바꿔 타입 없이 바인딩하고, 컬럼 타입(uuid, integer, date 등)으로의 변환은 DB 에 맡깁니다.
+    private static String filterValue(String column, Object value) {
+        if (value instanceof String || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof Number) {
+            // Gson 은 JSON 숫자를 Double 로 읽으므로 정수는 소수점 없이 넘깁니다.
+            double number = ((Number) value).doubleValue();
+            return number == Math.rint(number) && !Double.isInfinite(number) ? Long.toString((long) number) : value.toString();
+        }
+        throw new IllegalArgumentException("Unsupported value for filter " + column + ": " + value);
+    }
+
     public Map<String, String> getDataById(Connection conn, String tableName, UUID uuid) throws SQLException {
         Map<String, String> data = new HashMap<>();
         String sql = "SELECT * FROM \"" + tableName + "\" WHERE uuid = ?";
@@ -73,16 +227,42 @@ public class DatabaseManager {
             pstmt.setObject(1, uuid);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
-                ResultSetMetaData md = rs.getMetaData();
-                int columns          = md.getColumnCount();
-                for (int i = 1; i <= columns; i++) {
-                    data.put(md.getColumnName(i).toLowerCase(), rs.getString(i));
-                }
+                readRow(rs, data);
             }
         }
         
         return data;
     }
+
+    /**
+     * blind index 값이 같은 행을 모두 찾습니다. (column + BLIND_INDEX_SUFFIX 컬럼의 B-tree 인덱스로 조회)
+     * 각 행은 getDataById 와 같은 형식(컬럼명 소문자, 암호화 컬럼은 저장된 그대로)입니다.
+     */
+    public List<Map<String, String>> findByBlindIndex(Connection conn, String tableName, String column, String blindIndex) throws SQLException {
+        List<Map<String, String>> rows = new ArrayList<>();
+        String sql = "SELECT * FROM \"" + tableName + "\" WHERE \"" + blindIndexColumn(column) + "\" = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, blindIndex);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Map<String, String> row = new HashMap<>();
+                readRow(rs, row);
+                rows.add(row);
+            }
+        }
+        
+        return rows;
+    }
+
+    // 현재 행을 컬럼명(소문자) → 문자열 값으로 읽습니다. bytea 저장 값은 StorageFormat 으로 변환합니다.
+    private static void readRow(ResultSet rs, Map<String, String> data) throws SQLException {
+        ResultSetMetaData md = rs.getMetaData();
+        int columns          = md.getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            String value = isBinary(md, i) ? StorageFormat.decode(rs.getBytes(i)) : rs.getString(i);
+            data.put(md.getColumnName(i).toLowerCase(Locale.ROOT), value);
+        }
+    }
     
     public List<String> getColumnNames(Connection conn, String tableName) throws SQLException {
         List<String> columnNames = new ArrayList<>();
@@ -106,7 +286,9 @@ public class DatabaseManager {
         // 1. 해시된 패스워드나 암/복호화된 컬럼 값들을 SET 절에 추가
         for (Map.Entry<String, String> entry : columnsToUpdate.entrySet()) {
             setClauses.add("\"" + entry.getKey() + "\" = ?");
-            params.add(entry.getValue());
+            // bytea 형식에서는 복호화된 평문도 암호화 컬럼(bytea)에 형식 바이트를 붙여 저장
+            boolean storedAsBytea = storageFormat == StorageFormat.BYTEA && columnsToProcess != null && columnsToProcess.contains(entry.getKey());
+            params.add(storedAsBytea ? StorageFormat.encodeText(entry.getValue()) : entry.getValue());
         }
 
         // ⭐️ [핵심 수정] 암/복호화할 컬럼이 있을 때만 아래 로직을 실행합니다.
@@ -114,6 +296,13 @@ public class DatabaseManager {
             // 복호화 모드일 때 en_col 업데이트 (필요시 iv_data, algo는 NULL로)
             List<String> remainingEncryptedColumns = new ArrayList<>(originalEncryptedColumns);
             remainingEncryptedColumns.removeAll(columnsToProcess);
+
+            // 평문으로 돌아간 컬럼의 blind index 는 더 이상 필요 없으므로 지움
+            if (blindIndexEnabled) {
+                for (String column : columnsToProcess) {
+                    setClauses.add("\"" + blindIndexColumn(column) + "\" = NULL");
+                }
+            }
             
             if (remainingEncryptedColumns.isEmpty()) {
                 setClauses.add("iv_data = NULL");
@@ -131,7 +320,11 @@ public class DatabaseManager {
 
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             for (int i = 0; i < params.size(); i++) {
-                pstmt.setObject(i + 1, params.get(i));
+                if (params.get(i) instanceof byte[]) {
+                    pstmt.setBytes(i + 1, (byte[]) params.get(i));
+                } else {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
             }
             int rowsAffected = pstmt.executeUpdate();
             System.out.println("최종 DB 업데이트 완료: " + rowsAffected + " 개의 행이 업데이트되었습니다.");
@@ -142,6 +335,16 @@ public class DatabaseManager {
         Map<String, String> dataToInsert,
         List<String> encryptedColumnNames,// DB에 저장될 최종 데이터 (암호화된 값+원본 값)
         String iv, String algo) throws SQLException {
+        insertOldData(conn, tableName, uuid, dataToInsert, encryptedColumnNames, iv, algo, Collections.emptyMap());
+    }
+
+    /**
+     * @param blindIndexes 암호화 컬럼명 → blind index 값. blind.index.enabled 일 때만 함께 저장합니다.
+     */
+    public void insertOldData(Connection conn, String tableName, UUID uuid,
+        Map<String, String> dataToInsert,
+        List<String> encryptedColumnNames,
+        String iv, String algo, Map<String, String> blindIndexes) throws SQLException {
         
         // 💡 INSERT할 컬럼 목록 동적 생성 (메타데이터 포함)
         String en_tableName = "en_" + tableName;
@@ -150,6 +353,10 @@ public class DatabaseManager {
         columns.add("iv_data");
         columns.add("encryption_algo");
         columns.add("en_col");
+        List<String> indexColumns = blindIndexEnabled ? new ArrayList<>(blindIndexes.keySet()) : Collections.emptyList();
+        for (String column : indexColumns) {
+            columns.add(blindIndexColumn(column));
+        }
         
         String colsPart   = columns.stream().map(c -> "\"" + c + "\"").collect(Collectors.joining(", "));
         String valuesPart = String.join(", ", Collections.nCopies(columns.size(), "?"));
@@ -163,14 +370,17 @@ public class DatabaseManager {
             
             for (String colName : columns) {
                 if (dataToInsert.containsKey(colName)) {
-                  pstmt.setString(paramIndex++, dataToInsert.get(colName));
+                  setEncodedValue(pstmt, paramIndex++, dataToInsert.get(colName), encryptedColumnNames.contains(colName));
                 }
             }
             
             pstmt.setObject(paramIndex++, uuid);
-            pstmt.setString(paramIndex++, iv);
+            setEncodedValue(pstmt, paramIndex++, iv, true);
             pstmt.setString(paramIndex++, algo);
             pstmt.setString(paramIndex++, String.join(",", encryptedColumnNames));
+            for (String column : indexColumns) {
+                pstmt.setString(paramIndex++, blindIndexes.get(column));
+            }
             
             int rowsAffected = pstmt.executeUpdate();
             System.out.println("DB에 " + rowsAffected + "개의 행이 성공적으로 삽입되었습니다.");
@@ -182,6 +392,16 @@ public class DatabaseManager {
         Map<String, String> dataToInsert,  // DB에 저장될 최종 데이터 (암호화된 값+원본 값)
         List<String> encryptedColumnNames, // 암호화된 컬럼들의 이름 목록
         String iv, String algo) throws SQLException {
+        insertNewData(conn, tableName, dataToInsert, encryptedColumnNames, iv, algo, Collections.emptyMap());
+    }
+
+    /**
+     * @param blindIndexes 암호화 컬럼명 → blind index 값. blind.index.enabled 일 때만 함께 저장합니다.
+     */
+    public void insertNewData(Connection conn, String tableName,
+        Map<String, String> dataToInsert,
+        List<String> encryptedColumnNames,
+        String iv, String algo, Map<String, String> blindIndexes) throws SQLException {
         
         // 💡 INSERT할 컬럼 목록 동적 생성 (메타데이터 포함)
     	String en_tableName = "en_" + tableName;
@@ -190,6 +410,10 @@ public class DatabaseManager {
         columns.add("iv_data");
         columns.add("encryption_algo");
         columns.add("en_col");
+        List<String> indexColumns = blindIndexEnabled ? new ArrayList<>(blindIndexes.keySet()) : Collections.emptyList();
+        for (String column : indexColumns) {
+            columns.add(blindIndexColumn(column));
+        }
         
         String colsPart   = columns.stream().map(c -> "\"" + c + "\"").collect(Collectors.joining(", "));
         String valuesPart = String.join(", ", Collections.nCopies(columns.size(), "?"));
@@ -203,17 +427,35 @@ public class DatabaseManager {
             
             for (String colName : columns) {
                 if (dataToInsert.containsKey(colName)) {
-                  pstmt.setString(paramIndex++, dataToInsert.get(colName));
+                  setEncodedValue(pstmt, paramIndex++, dataToInsert.get(colName), encryptedColumnNames.contains(colName));
                 }
             }
             
             pstmt.setObject(paramIndex++, UUID.randomUUID());
-            pstmt.setString(paramIndex++, iv);
+            setEncodedValue(pstmt, paramIndex++, iv, true);
             pstmt.setString(paramIndex++, algo);
             pstmt.setString(paramIndex++, String.join(",", encryptedColumnNames));
+            for (String column : indexColumns) {
+                pstmt.setString(paramIndex++, blindIndexes.get(column));
+            }
             
             int rowsAffected = pstmt.executeUpdate();
             System.out.println("DB에 " + rowsAffected + "개의 행이 성공적으로 삽입되었습니다.");
         }
     }
-}
\ No newline at end of file
+
+    // 암호문/IV(Base64) 는 설정된 저장 형식으로, 나머지 값은 문자열 그대로 바인딩합니다.
+    private void setEncodedValue(PreparedStatement pstmt, int index, String value, boolean encrypted) throws SQLException {
+        if (encrypted && storageFormat == StorageFormat.BYTEA) {
+            pstmt.setBytes(index, StorageFormat.encodeRaw(value));
+        } else {
+            pstmt.setString(index, value);
+        }
+    }
+
+    // PostgreSQL 의 bytea 는 JDBC 에서 BINARY 로 보고됩니다.
+    static boolean isBinary(ResultSetMetaData md, int column) throws SQLException {
+        int type = md.getColumnType(column);
+        return type == Types.BINARY || type == Types.VARBINARY || type == Types.LONGVARBINARY;
+    }
+}
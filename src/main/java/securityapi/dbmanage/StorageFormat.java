@@ -0,0 +1,90 @@
+package securityapi.dbmanage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 암호화 컬럼과 iv_data 를 DB 에 저장하는 형식
+ *
+ * BASE64_TEXT: 기존 형식. text 컬럼에 Base64 문자열로 저장합니다.
+ * BYTEA:       bytea 컬럼에 [형식 바이트][값] 으로 저장합니다. Base64 대비 저장 공간과 전송량이 약 1/4 줄어듭니다.
+ *
+ * 형식 바이트가 붙어 있으므로 같은 bytea 컬럼이 암호문(RAW)과 복호화 후 저장된 평문(UTF8)을 모두 담을 수 있습니다.
+ * 읽을 때는 컬럼 타입으로 구분하므로 text 컬럼에 남아 있는 기존 Base64 행은 그대로 읽힙니다.
+ *
+ * 기존 컬럼을 bytea 로 옮기는 예:
+ *   ALTER TABLE en_x ALTER COLUMN col TYPE bytea USING '\x01'::bytea || decode(col, 'base64');
+ * (이미 복호화된 평문 행은 '\x00'::bytea || convert_to(col, 'UTF8'))
+ */
+public enum StorageFormat {
+    BASE64_TEXT,
+    BYTEA;
+
+    /** bytea 값의 첫 바이트: 뒤따르는 값이 UTF-8 평문 */
+    public static final byte VERSION_UTF8 = 0x00;
+    /** bytea 값의 첫 바이트: 뒤따르는 값이 암호문 또는 IV 원본 바이트 */
+    public static final byte VERSION_RAW  = 0x01;
+
+    /**
+     * config.properties 값("base64", "bytea")을 저장 형식으로 바꿉니다.
+     */
+    public static StorageFormat fromConfig(String value) {
+        if (value == null || value.isBlank() || "base64".equalsIgnoreCase(value.trim())) {
+            return BASE64_TEXT;
+        }
+        if ("bytea".equalsIgnoreCase(value.trim())) {
+            return BYTEA;
+        }
+        throw new IllegalArgumentException("Unsupported storage format: " + value);
+    }
+
+    /**
+     * Base64 로 주고받는 암호문/IV 를 bytea 저장 값으로 바꿉니다.
+     */
+    public static byte[] encodeRaw(String base64) {
+        if (base64 == null) {
+            return null;
+        }
+        byte[] raw = Base64.getDecoder().decode(base64);
+        byte[] stored = new byte[raw.length + 1];
+        stored[0] = VERSION_RAW;
+        System.arraycopy(raw, 0, stored, 1, raw.length);
+        return stored;
+    }
+
+    /**
+     * 평문 문자열을 bytea 저장 값으로 바꿉니다.
+     */
+    public static byte[] encodeText(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = new byte[utf8.length + 1];
+        stored[0] = VERSION_UTF8;
+        System.arraycopy(utf8, 0, stored, 1, utf8.length);
+        return stored;
+    }
+
+    /**
+     * bytea 저장 값을 서비스 안에서 쓰는 문자열(암호문/IV 는 Base64, 평문은 그대로)로 바꿉니다.
+     */
+    public static String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            throw new IllegalStateException("Empty bytea value has no storage version.");
+        }
+        switch (stored[0]) {
+            case VERSION_UTF8:
+                return new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case VERSION_RAW:
+                byte[] raw = new byte[stored.length - 1];
+                System.arraycopy(stored, 1, raw, 0, raw.length);
+                return Base64.getEncoder().encodeToString(raw);
+            default:
+                throw new IllegalStateException("Unsupported storage version: " + stored[0]);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package securityapi.dbmanage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 테이블 전체를 메모리에 올리지 않고 한 행씩 읽는 서버 측 커서
+ *
+ * PostgreSQL JDBC 는 autocommit 이 꺼져 있고 fetchSize 가 0 보다 클 때만 포털(커서)로 fetchSize 행씩 가져옵니다.
+ * 그래서 여는 동안 autocommit 을 끄고, close() 에서 읽기만 한 트랜잭션을 롤백한 뒤 원래 값으로 되돌립니다.
+ * 연결 자체는 닫지 않습니다. (호출자가 소유)
+ */
+public final class TableCursor implements AutoCloseable {
+
+    private final Connection conn;
+    private final boolean autoCommit;
+    private final PreparedStatement pstmt;
+    private final ResultSet rs;
+    private final String[] columnNames;
+    private final boolean[] binary;
+    private long rows;
+
+    /**
+     * @param params 바인딩 값. String 은 타입 없이(Types.OTHER) 넘겨 DB 가 컬럼 타입에 맞춰 변환하게 합니다.
+     */
+    TableCursor(Connection conn, String sql, List<Object> params, int fetchSize) throws SQLException {
+        this.conn       = conn;
+        this.autoCommit = conn.getAutoCommit();
+        PreparedStatement statement = null;
+        try {
+            conn.setAutoCommit(false);
+            statement = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                Object value = params.get(i);
+                if (value instanceof String) {
+                    statement.setObject(i + 1, value, Types.OTHER);
+                } else {
+                    statement.setObject(i + 1, value);
+                }
+            }
+            this.rs = statement.executeQuery();
+        } catch (SQLException e) {
+            if (statement != null) {
+                statement.close();
+            }
+            restore();
+            throw e;
+        }
+        this.pstmt = statement;
+
+        ResultSetMetaData md = rs.getMetaData();
+        int columns          = md.getColumnCount();
+        this.columnNames     = new String[columns];
+        this.binary          = new boolean[columns];
+        for (int i = 0; i < columns; i++) {
+            columnNames[i] = md.getColumnName(i + 1);
+            binary[i]      = DatabaseManager.isBinary(md, i + 1);
+        }
+    }
+
+    /**
+     * 다음 행을 getAllData 와 같은 형식(컬럼 타입 유지, bytea 는 StorageFormat 으로 변환)으로 돌려줍니다.
+     * 더 이상 행이 없으면 null 입니다.
+     */
+    public Map<String, Object> next() throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columnNames.length; i++) {
+            row.put(columnNames[i], binary[i] ? StorageFormat.decode(rs.getBytes(i + 1)) : rs.getObject(i + 1));
+        }
+        rows++;
+        return row;
+    }
+
+    /** 지금까지 읽은 행 수 */
+    public long rowCount() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            rs.close();
+            pstmt.close();
+        } finally {
+            restore();
+        }
+    }
+
+    // 커서용으로 연 트랜잭션을 끝내고 autocommit 을 되돌립니다. 호출자가 이미 트랜잭션 안에 있었다면 건드리지 않습니다.
+    private void restore() throws SQLException {
+        if (!autoCommit) {
+            return;
+        }
+        try {
+            conn.rollback();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package securityapi.dto;
 
+import java.util.List;
+import java.util.Map;
+
 // Gson 라이브러리는 이미 pom.xml에 있으므로 바로 사용 가능
 import com.google.gson.annotations.SerializedName;
 
@@ -10,9 +13,27 @@ public class TableRequest {
     @SerializedName("db_config")
     private DbConfig dbConfig;
 
+    // 아래는 모두 선택 항목입니다. 없으면 예전처럼 테이블 전체(SELECT *)를 돌려줍니다.
+    // 돌려받을 컬럼 목록
+    private List<String> columns;
+    // 컬럼명 → 값(같음) 또는 값 배열(IN)
+    private Map<String, Object> filters;
+    // 이전 페이지 응답의 next (uuid). 이 값보다 큰 uuid 부터 돌려줍니다.
+    private String after;
+    // 한 페이지의 최대 행 수
+    private Integer limit;
+
     // Getter와 Setter
     public String getTableName() { return tableName; }
     public void setTableName(String tableName) { this.tableName = tableName; }
     public DbConfig getDbConfig() { return dbConfig; }
     public void setDbConfig(DbConfig dbConfig) { this.dbConfig = dbConfig; }
+    public List<String> getColumns() { return columns; }
+    public void setColumns(List<String> columns) { this.columns = columns; }
+    public Map<String, Object> getFilters() { return filters; }
+    public void setFilters(Map<String, Object> filters) { this.filters = filters; }
+    public String getAfter() { return after; }
+    public void setAfter(String after) { this.after = after; }
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package securityapi.securityalgo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import securityapi.securityalgo.AlgorithmInfo.Feature;
+import securityapi.securityalgo.AlgorithmInfo.Padding;
+
+/**
+ * JDK AES 기반 알고리즘 (aes_gcm)
+ */
+public final class AesAlgorithms {
+
+    private AesAlgorithms() {
+    }
+
+    /** AES-128-GCM. iv_data(12바이트)와 컬럼 이름은 AAD 로 쓰고 값마다 nonce 를 따로 붙입니다. (AesGcm) */
+    public static final class GcmProvider implements AlgorithmProvider {
+        private static final AlgorithmInfo INFO = new AlgorithmInfo(EncryptionService.AES_GCM, 16, AesGcm.NONCE_LENGTH,
+                Padding.NONE, AesGcm.NONCE_LENGTH + AesGcm.TAG_LENGTH, EnumSet.of(Feature.AUTHENTICATED));
+
+        @Override
+        public AlgorithmInfo info() {
+            return INFO;
+        }
+
+        @Override
+        public CipherAlgorithm create(KeyMaterial keys) {
+            return new Gcm(INFO, new AesGcm(keys.userKey()));
+        }
+    }
+
+    private static final class Gcm implements CipherAlgorithm {
+        private final AlgorithmInfo info;
+        private final AesGcm aesGcm;
+
+        Gcm(AlgorithmInfo info, AesGcm aesGcm) {
+            this.info = info;
+            this.aesGcm = aesGcm;
+        }
+
+        @Override
+        public AlgorithmInfo info() {
+            return info;
+        }
+
+        @Override
+        public byte[] encrypt(byte[] iv, String column, byte[] plain) {
+            return this.aesGcm.seal(iv, column, plain);
+        }
+
+        @Override
+        public String decrypt(byte[] iv, String column, byte[] buffer, int length) {
+            byte[] plain = this.aesGcm.open(iv, column, buffer, 0, length);
+            String result = new String(plain, StandardCharsets.UTF_8);
+            Arrays.fill(plain, (byte) 0);
+            return result;
+        }
+    }
+}
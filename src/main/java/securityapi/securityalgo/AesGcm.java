@@ -0,0 +1,100 @@
+package securityapi.securityalgo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * JDK 의 AES/GCM/NoPadding (x86 에서는 AES-NI / CLMUL 인트린식) 을 쓰는 인증 암호화
+ *
+ * 저장 형식: [nonce 12바이트][암호문 (평문과 같은 길이)][태그 16바이트]
+ * 한 행의 컬럼들이 iv_data 하나를 공유하므로 GCM nonce 로 그대로 쓰면 nonce 가 재사용됩니다.
+ * 그래서 값마다 무작위 nonce 를 만들어 앞에 붙이고, 행의 IV(iv_data) 와 컬럼 이름(소문자)을 AAD 로 묶어
+ * 다른 행이나 다른 컬럼으로 옮겨진 암호문을 거부합니다.
+ *
+ * AES-128 키는 서비스 키에서 HMAC-SHA256 으로 유도합니다. (HIGHT/LEA 가 쓰는 키와 분리)
+ */
+public final class AesGcm {
+
+    public static final int NONCE_LENGTH = 12;
+    public static final int TAG_LENGTH = 16;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final byte[] KEY_LABEL = "AES-128-GCM".getBytes(StandardCharsets.US_ASCII);
+
+    private final SecretKeySpec key;
+    // Cipher.getInstance 비용을 피하기 위해 스레드마다 하나씩 두고 호출마다 init 만 다시 합니다.
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(AesGcm::newCipher);
+
+    public AesGcm(byte[] userKey) {
+        byte[] derived = HightCtrHmac.deriveKey(userKey, KEY_LABEL).getEncoded();
+        this.key = new SecretKeySpec(Arrays.copyOf(derived, 16), "AES");
+    }
+
+    /**
+     * @param aad    행의 IV 등 함께 인증할 데이터
+     * @param column 값이 저장되는 컬럼 이름 (null 이면 빈 이름)
+     * @return [nonce][암호문][태그]
+     */
+    public byte[] seal(byte[] aad, String column, byte[] plain) {
+        byte[] out = new byte[NONCE_LENGTH + plain.length + TAG_LENGTH];
+        IvGenerator.nextRandom(out, 0, NONCE_LENGTH);
+
+        try {
+            Cipher cipher = this.ciphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH * 8, out, 0, NONCE_LENGTH));
+            updateAad(cipher, aad, column);
+            cipher.doFinal(plain, 0, plain.length, out, NONCE_LENGTH);
+            return out;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM encryption failed.", e);
+        }
+    }
+
+    /**
+     * in[offset, offset+length) 의 [nonce][암호문][태그] 를 검증하고 평문을 돌려줍니다.
+     * 태그가 맞지 않으면 IllegalArgumentException 을 던집니다.
+     */
+    public byte[] open(byte[] aad, String column, byte[] in, int offset, int length) {
+        if (length < NONCE_LENGTH + TAG_LENGTH) {
+            throw new IllegalArgumentException("AES-GCM ciphertext is too short.");
+        }
+        try {
+            Cipher cipher = this.ciphers.get();
+            cipher.init(Cipher.DECRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH * 8, in, offset, NONCE_LENGTH));
+            updateAad(cipher, aad, column);
+            return cipher.doFinal(in, offset + NONCE_LENGTH, length - NONCE_LENGTH);
+        } catch (AEADBadTagException e) {
+            throw new IllegalArgumentException("AES-GCM tag mismatch.");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM decryption failed.", e);
+        }
+    }
+
+    // AAD = [aad 길이 4바이트][aad][컬럼 이름 UTF-8]
+    private static void updateAad(Cipher cipher, byte[] aad, String column) {
+        byte[] name = column == null ? new byte[0] : column.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[4 + aad.length + name.length];
+        data[0] = (byte)(aad.length >>> 24);
+        data[1] = (byte)(aad.length >>> 16);
+        data[2] = (byte)(aad.length >>> 8);
+        data[3] = (byte) aad.length;
+        System.arraycopy(aad, 0, data, 4, aad.length);
+        System.arraycopy(name, 0, data, 4 + aad.length, name.length);
+        cipher.updateAAD(data);
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM/NoPadding is not available.", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package securityapi.securityalgo;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 알고리즘 메타데이터 (불변 객체)
+ *
+ * EncryptionService 는 이 값만 보고 처리 경로를 고릅니다.
+ * (BATCH 이면 여러 값을 한 버퍼에서 처리, 아니면 값마다 처리 / STREAMING 이 아니면 openStream 거부 등)
+ */
+public final class AlgorithmInfo {
+
+    public enum Padding {
+        /** 항상 1~블록 크기 바이트의 PKCS7 패딩 */
+        PKCS7,
+        /** 블록 단위까지 0x00 으로 채움 (복호화 시 후행 0x00 제거) */
+        ZERO,
+        /** 패딩 없음. 암호문 길이 = 평문 길이 + overhead */
+        NONE
+    }
+
+    public enum Feature {
+        /** openStream 으로 큰 값을 나눠 처리할 수 있음 */
+        STREAMING,
+        /** 큰 값 하나를 여러 스레드로 나눠 처리함 (HightParallel) */
+        PARALLEL,
+        /** encryptBatch/decryptBatch 를 값마다 호출하는 것보다 빠르게 처리함 */
+        BATCH,
+        /** iv.ctr.nonce=counter 일 때 IV 앞 8바이트에 카운터 nonce 를 쓸 수 있음 */
+        COUNTER_NONCE,
+        /** 복호화 시 무결성을 검증함 (태그 불일치면 IllegalArgumentException) */
+        AUTHENTICATED
+    }
+
+    private final String id;
+    private final int blockSize;
+    private final int ivLength;
+    private final Padding padding;
+    private final int overhead;
+    private final Set<Feature> features;
+
+    /**
+     * @param id        encryption_algo 에 저장되는 값. 소문자로 정규화합니다.
+     * @param blockSize 블록 크기 (바이트)
+     * @param ivLength  iv_data 에 필요한 최소 바이트 수
+     * @param overhead  패딩 외에 암호문에 더 붙는 바이트 수 (태그, nonce)
+     */
+    public AlgorithmInfo(String id, int blockSize, int ivLength, Padding padding, int overhead, Set<Feature> features) {
+        this.id        = AlgorithmRegistry.normalize(id);
+        this.blockSize = blockSize;
+        this.ivLength  = ivLength;
+        this.padding   = padding;
+        this.overhead  = overhead;
+        this.features  = features.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(features));
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public int ivLength() {
+        return ivLength;
+    }
+
+    public Padding padding() {
+        return padding;
+    }
+
+    public int overhead() {
+        return overhead;
+    }
+
+    public boolean supports(Feature feature) {
+        return features.contains(feature);
+    }
+
+    /**
+     * 평문 length 바이트를 암호화했을 때의 암호문 길이
+     */
+    public int outputLength(int length) {
+        switch (padding) {
+            case PKCS7: return (length / blockSize + 1) * blockSize + overhead;
+            case ZERO:  return (length + blockSize - 1) / blockSize * blockSize + overhead;
+            default:    return length + overhead;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s(block=%d, iv=%d, padding=%s, overhead=%d, features=%s)",
+                id, blockSize, ivLength, padding, overhead, features);
+    }
+}
@@ -0,0 +1,19 @@
+package securityapi.securityalgo;
+
+/**
+ * 암호화 알고리즘 SPI
+ *
+ * 구현 클래스 이름을 META-INF/services/securityapi.securityalgo.AlgorithmProvider 에 적으면
+ * AlgorithmRegistry 가 시작할 때 ServiceLoader 로 찾아 info().id() 로 등록합니다.
+ * 구현은 public 클래스이고 인자 없는 public 생성자가 있어야 합니다.
+ */
+public interface AlgorithmProvider {
+
+    AlgorithmInfo info();
+
+    /**
+     * 키 재료로 알고리즘 인스턴스를 만듭니다. EncryptionService 생성 시 한 번 호출되며,
+     * 돌려준 인스턴스는 여러 스레드가 동시에 사용합니다.
+     */
+    CipherAlgorithm create(KeyMaterial keys);
+}
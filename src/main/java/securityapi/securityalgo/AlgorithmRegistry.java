@@ -0,0 +1,62 @@
+package securityapi.securityalgo;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * ServiceLoader 로 찾은 AlgorithmProvider 목록
+ *
+ * 클래스가 처음 쓰일 때 한 번만 읽고, 정규화한 id(앞뒤 공백 제거, 소문자)를 키로 하는 해시맵에서 찾습니다.
+ * 새 알고리즘은 AlgorithmProvider 를 구현하고 서비스 파일에 등록하면 EncryptionService 를 고치지 않아도 쓸 수 있습니다.
+ */
+public final class AlgorithmRegistry {
+
+    private static final Map<String, AlgorithmProvider> PROVIDERS = load();
+
+    private AlgorithmRegistry() {
+    }
+
+    public static String normalize(String algo) {
+        return algo == null ? null : algo.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @throws IllegalArgumentException 등록되지 않은 알고리즘일 때
+     */
+    public static AlgorithmProvider get(String algo) {
+        AlgorithmProvider provider = algo == null ? null : PROVIDERS.get(normalize(algo));
+        if (provider == null) {
+            throw new IllegalArgumentException("Unsupported algorithm: " + algo);
+        }
+        return provider;
+    }
+
+    public static boolean isSupported(String algo) {
+        return algo != null && PROVIDERS.containsKey(normalize(algo));
+    }
+
+    // 서비스 파일에 적힌 순서
+    public static Collection<AlgorithmProvider> providers() {
+        return PROVIDERS.values();
+    }
+
+    private static Map<String, AlgorithmProvider> load() {
+        Map<String, AlgorithmProvider> providers = new LinkedHashMap<>();
+        for (AlgorithmProvider provider : ServiceLoader.load(AlgorithmProvider.class, AlgorithmRegistry.class.getClassLoader())) {
+            String id = provider.info().id();
+            AlgorithmProvider previous = providers.putIfAbsent(id, provider);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate algorithm id '" + id + "': "
+                        + previous.getClass().getName() + ", " + provider.getClass().getName());
+            }
+        }
+        if (providers.isEmpty()) {
+            throw new IllegalStateException("No AlgorithmProvider found. Check META-INF/services/" + AlgorithmProvider.class.getName());
+        }
+        return Collections.unmodifiableMap(providers);
+    }
+}
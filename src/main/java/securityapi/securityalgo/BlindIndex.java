@@ -0,0 +1,46 @@
+package securityapi.securityalgo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 암호화 컬럼의 동등 검색용 blind index
+ *
+ * index = Base64( HMAC-SHA256(indexKey, 컬럼명(소문자) || 0x00 || 평문 UTF-8) 의 앞 16바이트 )
+ * indexKey 는 HIGHT 키에서 HightCtrHmac 과 다른 라벨로 유도하므로 암호화/인증 키와 분리됩니다.
+ *
+ * 컬럼명을 함께 넣어서 같은 값이라도 컬럼마다 다른 인덱스가 나오게 합니다 (컬럼 간 값 비교 방지).
+ * 같은 평문은 같은 인덱스가 되므로 값의 동일 여부는 드러납니다. 검색이 필요한 컬럼에만 사용합니다.
+ */
+public final class BlindIndex {
+
+    public static final int INDEX_LENGTH = 16;
+
+    private static final byte[] INDEX_KEY_LABEL = "HIGHT-BLIND-INDEX-HMAC-SHA256".getBytes(StandardCharsets.US_ASCII);
+
+    private final ThreadLocal<Mac> macs;
+
+    public BlindIndex(byte[] userKey) {
+        SecretKeySpec indexKey = HightCtrHmac.deriveKey(userKey, INDEX_KEY_LABEL);
+        this.macs = ThreadLocal.withInitial(() -> HightCtrHmac.newMac(indexKey));
+    }
+
+    /**
+     * column 컬럼에 저장되는 평문 value 의 인덱스 값 (Base64 24자). value 가 null 이면 null.
+     */
+    public String compute(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        Mac mac = this.macs.get();
+        mac.update(column.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        byte[] digest = mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(digest, INDEX_LENGTH));
+    }
+}
@@ -0,0 +1,79 @@
+package securityapi.securityalgo;
+
+/**
+ * 키가 정해진 알고리즘 인스턴스 (AlgorithmProvider.create)
+ *
+ * 여러 스레드가 동시에 호출하므로 구현은 스레드 안전해야 합니다.
+ * 잘못된 암호문이나 태그 불일치는 IllegalArgumentException 으로 알립니다.
+ *
+ * column 은 값이 저장되는 컬럼 이름입니다. 인증 암호화는 태그에 묶어 다른 컬럼으로 옮긴 값을 거부하고,
+ * 나머지 알고리즘은 무시합니다. (모르면 null)
+ */
+public interface CipherAlgorithm {
+
+    AlgorithmInfo info();
+
+    /**
+     * plain 을 암호화한 바이트를 돌려줍니다. 길이는 info().outputLength(plain.length) 입니다.
+     * plain 배열은 호출자가 다시 쓰지 않으므로 제자리에서 암호화해 그대로 돌려줘도 됩니다.
+     */
+    byte[] encrypt(byte[] iv, String column, byte[] plain);
+
+    /**
+     * buffer[0, length) 의 암호문을 복호화한 문자열. buffer 는 제자리 복호화에 써도 됩니다.
+     */
+    String decrypt(byte[] iv, String column, byte[] buffer, int length);
+
+    /**
+     * 같은 IV 로 여러 값을 암호화해 값 i(컬럼 columns[i]) 의 암호문을 out[offsets[i], offsets[i+1]) 에 씁니다. (null 값은 빈 구간)
+     * 기본 구현은 값마다 encrypt 를 호출합니다.
+     */
+    default void encryptBatch(byte[] iv, String[] columns, byte[][] plain, byte[] out, int[] offsets) {
+        for (int i = 0; i < plain.length; i++) {
+            if (plain[i] == null) {
+                continue;
+            }
+            byte[] encrypted = encrypt(iv, columns[i], plain[i]);
+            if (encrypted.length != offsets[i + 1] - offsets[i]) {
+                throw new IllegalStateException(info().id() + " output length does not match its AlgorithmInfo.");
+            }
+            System.arraycopy(encrypted, 0, out, offsets[i], encrypted.length);
+        }
+    }
+
+    /**
+     * 같은 IV 로 암호화된 여러 값을 복호화합니다. data 배열은 제자리 복호화에 써도 되며, null 값은 null 로 돌려줍니다.
+     * 기본 구현은 값마다 decrypt 를 호출합니다.
+     */
+    default String[] decryptBatch(byte[] iv, String[] columns, byte[][] data) {
+        String[] results = new String[data.length];
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != null) {
+                results[i] = decrypt(iv, columns[i], data[i], data[i].length);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 스트리밍 컨텍스트 (CipherStream). Feature.STREAMING 을 지원하는 알고리즘만 구현합니다.
+     */
+    default CipherStream openStream(byte[] iv, boolean encryptMode) {
+        throw new IllegalArgumentException("Streaming is not supported for " + info().id());
+    }
+
+    /**
+     * 새 IV. counterNonce 이고 Feature.COUNTER_NONCE 를 지원하면 앞 8바이트에 카운터 nonce (IvGenerator.nextCounter) 를 두고 나머지는 0,
+     * 그 외에는 info().ivLength() 바이트 무작위 값입니다. 카운터 nonce 는 슬롯 하나만 예약하므로 이 IV 로 바로 키스트림을 만드는
+     * 알고리즘(hight_ctr)은 값 길이를 IvGenerator.checkCtrNonceRange 로 제한해야 합니다.
+     */
+    default byte[] newIv(boolean counterNonce) {
+        byte[] iv = new byte[info().ivLength()];
+        if (counterNonce && info().supports(AlgorithmInfo.Feature.COUNTER_NONCE)) {
+            HightEngine.putLong(iv, 0, IvGenerator.nextCounter());
+        } else {
+            IvGenerator.nextRandom(iv, 0, iv.length);
+        }
+        return iv;
+    }
+}
@@ -0,0 +1,38 @@
+package securityapi.securityalgo;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * 큰 값을 나눠 처리하는 스트리밍 암/복호화 (CipherAlgorithm.openStream)
+ *
+ * update 로 입력을 조금씩 넘기고 doFinal 로 마무리합니다. 결과 바이트는 같은 알고리즘의 encrypt/decrypt 형식과 같습니다.
+ * 하나의 스트림은 한 스레드에서만 사용해야 합니다. 잘못된 암호문은 IllegalArgumentException 으로 알립니다.
+ */
+public interface CipherStream {
+
+    /**
+     * in 의 남은 바이트를 모두 처리하고, 만들어진 출력을 out 에 씁니다.
+     *
+     * @return out 에 쓴 바이트 수
+     * @throws BufferOverflowException out 의 남은 공간이 부족할 때 (입력은 소비되지 않음)
+     */
+    int update(ByteBuffer in, ByteBuffer out);
+
+    /**
+     * 남은 입력을 처리하고 패딩/마지막 블록까지 출력합니다. 이후 스트림은 다시 사용할 수 없습니다.
+     *
+     * @return out 에 쓴 바이트 수
+     */
+    int doFinal(ByteBuffer in, ByteBuffer out);
+
+    /**
+     * 지금까지 남은 입력과 inputLen 을 더해 doFinal 이 만들 수 있는 최대 출력 길이
+     */
+    int getOutputSize(int inputLen);
+
+    /**
+     * doFinal 이 정상적으로 끝났는지 여부
+     */
+    boolean isFinished();
+}
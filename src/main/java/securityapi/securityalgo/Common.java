@@ -1,32 +1,26 @@
 package securityapi.securityalgo;
 
+import java.util.Arrays;
+
 public class Common {
 		
 		public static final int BIG_ENDIAN = 0;
 		public static final int LITTLE_ENDIAN = 1;
 
 		public static void arraycopy(byte[] dst, byte[] src, int length) {
-			for(int i=0; i<length; i++) {
-				dst[i] = src[i];
-			}
+			System.arraycopy(src, 0, dst, 0, length);
 		}
 
 		public static void arraycopy_offset(byte[] dst, int dst_offset, byte[] src, int src_offset, int length) {
-			for(int i=0; i<length; i++) {
-				dst[dst_offset+i] = src[src_offset+i];
-			}
+			System.arraycopy(src, src_offset, dst, dst_offset, length);
 		}
 
 		public static void arrayinit(byte[] dst, byte value, int length) {
-			for(int i=0; i<length; i++) {
-				dst[i] = value;
-			}
+			Arrays.fill(dst, 0, length, value);
 		}
 		
 		public static void arrayinit_offset(byte[] dst, int dst_offset, byte value, int length) {
-			for(int i=0; i<length; i++) {
-				dst[dst_offset+i] = value;
-			}
+			Arrays.fill(dst, dst_offset, dst_offset + length, value);
 		}
 
 		public static void memcpy(int[] dst, byte[] src, int length, int ENDIAN) {
@@ -38,9 +32,7 @@ public class Common {
 
 		public static void memcpy(int[] dst, int[] src, int src_offset, int length) {
 	    	int iLen = length / 4 + ((length % 4 != 0)?1:0);
-			for(int i=0; i<iLen; i++) {
-				dst[i] = src[src_offset+i];
-			}
+			System.arraycopy(src, src_offset, dst, 0, iLen);
 		}
 
 		public static void set_byte_for_int(int[] dst, int b_offset, byte value, int ENDIAN) {
@@ -1,108 +1,277 @@
 package securityapi.securityalgo;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-// HIGHT 알고리즘 전용 암호화 서비스
+import securityapi.config.ConfigLoader;
+import securityapi.securityalgo.AlgorithmInfo.Feature;
+
+// 암호화 서비스. algo 값에 맞는 구현은 AlgorithmRegistry(ServiceLoader)에 등록된 AlgorithmProvider 에서 찾습니다.
 public class EncryptionService {
-    private final byte[] secretKey;
-    
-    private final hight_cbc hightCbcProcessor;
-    private final hight_ctr hightCtrProcessor;
+    public static final String HIGHT_CBC = "hight_cbc";
+    public static final String HIGHT_CTR = "hight_ctr";
+    /**
+     * 블록 패딩 없는 CTR. 암호문은 [값별 nonce 8바이트][평문과 같은 길이] 이고, 복호화 시 후행 0x00 을 제거하지 않습니다.
+     * 한 행의 컬럼들이 키스트림을 공유하지 않도록 키스트림은 행의 IV 가 아니라 값마다 붙인 nonce 에서 시작합니다.
+     * encryption_algo 값이 곧 형식 표시이므로 기존 hight_ctr(블록 단위 0x00 패딩, 행 IV 공유) 행은 그대로 복호화됩니다.
+     */
+    public static final String HIGHT_CTR_STREAM = "hight_ctr_stream";
+    /**
+     * 값별 nonce 를 붙인 hight_ctr_stream + HMAC-SHA256 태그(16바이트). 태그는 알고리즘 id, 컬럼 이름, 행 IV 까지 묶으며
+     * 복호화 시 검증합니다. (HightCtrHmac)
+     */
+    public static final String HIGHT_CTR_HMAC = "hight_ctr_hmac";
+    /** LEA-128 CBC (PKCS7 패딩) / CTR (패딩 없음, 값마다 nonce 16바이트를 앞에 붙임). IV 는 16바이트입니다. */
+    public static final String LEA_CBC = "lea_cbc";
+    public static final String LEA_CTR = "lea_ctr";
+    /** JDK AES-128-GCM. IV(iv_data) 는 12바이트이며 AAD 로 쓰이고, 값마다 nonce 를 따로 붙입니다. (AesGcm) */
+    public static final String AES_GCM = "aes_gcm";
+
+    // 키 스케줄은 생성자에서 한 번만 만들고 모든 호출(스레드)이 공유합니다.
+    private final KeyMaterial keys;
+    // 정규화한 algo → 이 키로 만든 알고리즘 인스턴스 (생성 후 변경 없음)
+    private final Map<String, CipherAlgorithm> algorithms;
+    private final BlindIndex blindIndex;
+    // CTR IV 를 카운터 nonce 로 발급할지 여부 (iv.ctr.nonce)
+    private final boolean counterNonceForCtr;
+
+    // decrypt 가 재사용하는 스레드별 버퍼 (이보다 큰 값은 매번 새로 할당)
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<byte[]> DECRYPT_BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
 
     public EncryptionService(byte[] key) {
+        this(key, HightEngineType.fromConfig(ConfigLoader.getProperty("hight.engine", "reference")));
+    }
+
+    /**
+     * @param engine 블록 연산 엔진 (REFERENCE: 기본 엔진, ROUND_TABLES: 키 전용 라운드 테이블, COMPILED: 키마다 생성한 클래스)
+     */
+    public EncryptionService(byte[] key, HightEngineType engine) {
         if (key.length != 16) {
             throw new IllegalArgumentException("HIGHT key must be 16 bytes.");
         }
-        this.secretKey = key;
-        
-        // 인스턴스를 생성자에서 한 번만 생성하여 재사용
-        this.hightCbcProcessor = new hight_cbc();
-        this.hightCtrProcessor = new hight_ctr();
+        this.keys = new KeyMaterial(key, engine);
+
+        // 등록된 알고리즘마다 인스턴스를 생성자에서 한 번만 생성하여 재사용
+        Map<String, CipherAlgorithm> algorithms = new HashMap<>();
+        for (AlgorithmProvider provider : AlgorithmRegistry.providers()) {
+            algorithms.put(provider.info().id(), provider.create(this.keys));
+        }
+        this.algorithms = algorithms;
+        this.blindIndex = new BlindIndex(key);
+        this.counterNonceForCtr = IvGenerator.counterNonceForCtr();
     }
 
     public String generateIv() {
-        byte[] iv = new byte[8];
-        new SecureRandom().nextBytes(iv);
-        return Base64.getEncoder().encodeToString(iv);
+        return Base64.getEncoder().encodeToString(IvGenerator.nextRandom());
+    }
+
+    /**
+     * 알고리즘에 맞는 IV 를 만듭니다. (길이는 AlgorithmInfo.ivLength)
+     * CTR 계열이고 iv.ctr.nonce=counter 이면 카운터 nonce (IvGenerator.nextCounter), 그 외에는 무작위 IV 입니다.
+     * IV 가 8바이트보다 길면 카운터 nonce 는 앞 8바이트에 두고 나머지(블록 카운터)는 0 으로 시작합니다.
+     */
+    public String generateIv(String algo) {
+        return Base64.getEncoder().encodeToString(algorithm(algo).newIv(this.counterNonceForCtr));
+    }
+
+    /**
+     * algo 의 메타데이터 (블록 크기, 패딩, 지원 기능)
+     *
+     * @throws IllegalArgumentException 등록되지 않은 알고리즘일 때
+     */
+    public AlgorithmInfo algorithmInfo(String algo) {
+        return algorithm(algo).info();
+    }
+
+    /**
+     * column 컬럼의 평문 value 에 대한 blind index (동등 검색용 키 해시). 암호화 알고리즘/IV 와 무관합니다.
+     */
+    public String blindIndex(String column, String value) {
+        return this.blindIndex.compute(column, value);
     }
 
     public String encrypt(String plainText, String base64Iv, String algo) {
-        byte[] ivBytes = Base64.getDecoder().decode(base64Iv);
-        byte[] plainTextBytes = plainText.getBytes(StandardCharsets.UTF_8);
-        byte[] encryptedBytes;
-
-        if ("hight_cbc".equalsIgnoreCase(algo)) {
-            encryptedBytes = this.hightCbcProcessor.process(plainTextBytes, this.secretKey, ivBytes, true);
-        } else if ("hight_ctr".equalsIgnoreCase(algo)) {
-            encryptedBytes = this.hightCtrProcessor.process(plainTextBytes, this.secretKey, ivBytes, true);
-        } else {
-            throw new IllegalArgumentException("Unsupported algorithm: " + algo);
-        }
+        return encrypt(null, plainText, base64Iv, algo);
+    }
 
+    /**
+     * column 컬럼에 저장할 값을 암호화합니다. 인증 암호화(hight_ctr_hmac)는 column 을 태그에 묶으므로
+     * 복호화할 때도 같은 컬럼 이름(대소문자 무관)을 넘겨야 합니다.
+     */
+    public String encrypt(String column, String plainText, String base64Iv, String algo) {
+        CipherAlgorithm algorithm = algorithm(algo);
+        byte[] ivBytes = decodeIv(base64Iv, algorithm.info());
+        byte[] encryptedBytes = algorithm.encrypt(ivBytes, column, plainText.getBytes(StandardCharsets.UTF_8));
         return Base64.getEncoder().encodeToString(encryptedBytes);
     }
 
     /**
-     * 데이터를 복호화합니다.
-     * CBC 모드는 PKCS7 패딩을 제거하고, CTR 모드는 후행 널(0x00) 바이트를 제거합니다.
+     * 같은 IV 와 알고리즘을 쓰는 여러 값(한 행의 컬럼들 등)을 한 번에 암호화합니다. 값 i 는 columns[i] 컬럼의 값입니다.
+     * Feature.BATCH 를 지원하는 알고리즘은 IV 디코딩을 한 번만 하고, 모든 암호문을 하나의 연속된 버퍼에 만든 뒤 잘라서 Base64 로 인코딩합니다.
+     * 결과는 값마다 encrypt 를 호출한 것과 같으며, null 값은 null 로 돌려줍니다.
+     * 값이 하나도 없으면 algo 와 IV 를 보지 않고 빈 목록을 돌려줍니다.
      */
-    public String decrypt(String encryptedText, String base64Iv, String algo) {
-        byte[] ivBytes = Base64.getDecoder().decode(base64Iv);
-        byte[] encryptedTextBytes = Base64.getDecoder().decode(encryptedText);
-        byte[] decryptedBytes;
-
-        // 1. 알고리즘에 따라 복호화 수행
-        if ("hight_cbc".equalsIgnoreCase(algo)) {
-            decryptedBytes = this.hightCbcProcessor.process(encryptedTextBytes, this.secretKey, ivBytes, false);
-
-            // 2-1. CBC 모드: PKCS7 패딩 제거 로직
-            if (decryptedBytes != null && decryptedBytes.length > 0) {
-                int paddingLength = decryptedBytes[decryptedBytes.length - 1] & 0xff;
-                if (paddingLength > 0 && paddingLength <= 8) {
-                    int originalLength = decryptedBytes.length - paddingLength;
-                    
-                    boolean isPaddingValid = true;
-                    for (int i = 0; i < paddingLength; i++) {
-                        if ((decryptedBytes[originalLength + i] & 0xff) != paddingLength) {
-                            isPaddingValid = false;
-                            break;
-                        }
-                    }
-
-                    if(isPaddingValid) {
-                        byte[] unpaddedBytes = new byte[originalLength];
-                        System.arraycopy(decryptedBytes, 0, unpaddedBytes, 0, originalLength);
-                        return new String(unpaddedBytes, StandardCharsets.UTF_8);
-                    }
-                }
+    public List<String> encryptBatch(List<String> columns, List<String> plainTexts, String base64Iv, String algo) {
+        if (columns.size() != plainTexts.size()) {
+            throw new IllegalArgumentException("Each value needs its column name.");
+        }
+        if (plainTexts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        CipherAlgorithm algorithm = algorithm(algo);
+        AlgorithmInfo info = algorithm.info();
+        if (!info.supports(Feature.BATCH)) {
+            List<String> results = new ArrayList<>(plainTexts.size());
+            for (int i = 0; i < plainTexts.size(); i++) {
+                String value = plainTexts.get(i);
+                results.add(value == null ? null : encrypt(columns.get(i), value, base64Iv, algo));
             }
-            // 유효한 패딩이 없거나 배열이 비어있으면 그대로 반환
-            return new String(decryptedBytes, StandardCharsets.UTF_8);
+            return results;
+        }
+        byte[] ivBytes = decodeIv(base64Iv, info);
+
+        int count = plainTexts.size();
+        byte[][] plain = new byte[count][];
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            String value = plainTexts.get(i);
+            plain[i] = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+            int length = plain[i] == null ? 0 : info.outputLength(plain[i].length);
+            offsets[i + 1] = offsets[i] + length;
+        }
 
-        } else if ("hight_ctr".equalsIgnoreCase(algo)) {
-            decryptedBytes = this.hightCtrProcessor.process(encryptedTextBytes, this.secretKey, ivBytes, false);
+        byte[] buffer = new byte[offsets[count]];
+        algorithm.encryptBatch(ivBytes, columns.toArray(new String[0]), plain, buffer, offsets);
 
-            // 2-2. CTR 모드: 후행 널(0x00) 바이트 패딩 제거 로직
-            if (decryptedBytes == null || decryptedBytes.length == 0) {
-                return "";
+        Base64.Encoder encoder = Base64.getEncoder();
+        List<String> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (plain[i] == null) {
+                results.add(null);
+                continue;
             }
-            
-            int effectiveLength = decryptedBytes.length;
-            // 배열의 끝에서부터 0x00 값을 만나면 길이를 1씩 줄여나감
-            while (effectiveLength > 0 && decryptedBytes[effectiveLength - 1] == 0) {
-                effectiveLength--;
+            ByteBuffer encoded = encoder.encode(ByteBuffer.wrap(buffer, offsets[i], offsets[i + 1] - offsets[i]));
+            results.add(new String(encoded.array(), 0, encoded.remaining(), StandardCharsets.ISO_8859_1));
+        }
+        return results;
+    }
+
+    /**
+     * 같은 IV 와 알고리즘으로 암호화된 여러 값을 한 번에 복호화합니다. 값 i 는 columns[i] 컬럼의 값입니다.
+     * 결과와 패딩 처리는 값마다 decrypt 를 호출한 것과 같으며, null 값은 null 로 돌려줍니다.
+     */
+    public List<String> decryptBatch(List<String> columns, List<String> encryptedTexts, String base64Iv, String algo) {
+        if (columns.size() != encryptedTexts.size()) {
+            throw new IllegalArgumentException("Each value needs its column name.");
+        }
+        if (encryptedTexts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        CipherAlgorithm algorithm = algorithm(algo);
+        AlgorithmInfo info = algorithm.info();
+        if (!info.supports(Feature.BATCH)) {
+            List<String> results = new ArrayList<>(encryptedTexts.size());
+            for (int i = 0; i < encryptedTexts.size(); i++) {
+                String value = encryptedTexts.get(i);
+                results.add(value == null ? null : decrypt(columns.get(i), value, base64Iv, algo));
+            }
+            return results;
+        }
+        byte[] ivBytes = decodeIv(base64Iv, info);
+        Base64.Decoder decoder = Base64.getDecoder();
+
+        byte[][] data = new byte[encryptedTexts.size()][];
+        for (int i = 0; i < data.length; i++) {
+            String value = encryptedTexts.get(i);
+            data[i] = value == null ? null : decoder.decode(value);
+        }
+        String[] results = algorithm.decryptBatch(ivBytes, columns.toArray(new String[0]), data);
+        // 제자리 복호화된 평문을 남기지 않습니다.
+        for (byte[] bytes : data) {
+            if (bytes != null) {
+                Arrays.fill(bytes, (byte) 0);
             }
-            
-            // 널 바이트가 제거된 실제 길이만큼 새로운 배열을 생성하여 복사
-            byte[] unpaddedBytes = new byte[effectiveLength];
-            System.arraycopy(decryptedBytes, 0, unpaddedBytes, 0, effectiveLength);
-            
-            return new String(unpaddedBytes, StandardCharsets.UTF_8);
-
-        } else {
+        }
+        return Arrays.asList(results);
+    }
+
+    private CipherAlgorithm algorithm(String algo) {
+        CipherAlgorithm algorithm = algo == null ? null : this.algorithms.get(AlgorithmRegistry.normalize(algo));
+        if (algorithm == null) {
             throw new IllegalArgumentException("Unsupported algorithm: " + algo);
         }
+        return algorithm;
+    }
+
+    private static byte[] decodeIv(String base64Iv, AlgorithmInfo info) {
+        byte[] ivBytes = Base64.getDecoder().decode(base64Iv);
+        if (ivBytes.length < info.ivLength()) {
+            throw new IllegalArgumentException("IV must be " + info.ivLength() + " bytes.");
+        }
+        return ivBytes;
+    }
+
+    /**
+     * 큰 값을 나눠서 처리할 수 있는 스트리밍 컨텍스트를 엽니다. (Feature.STREAMING 을 지원하는 알고리즘만)
+     * 결과 바이트는 encrypt/decrypt 가 사용하는 형식과 같습니다. (hight_ctr 는 블록 단위 0x00 패딩, hight_ctr_stream 은 nonce 가 앞에 붙음)
+     * iv.ctr.nonce=counter 에서 hight_ctr / hight_ctr_stream 암호화 스트림은 전체 길이를 미리 모르므로 nonce 하나의 범위
+     * (IvGenerator.COUNTER_RANGE_BYTES) 까지만 받고, 넘으면 update 가 IllegalArgumentException 을 던집니다.
+     */
+    public CipherStream openStream(String base64Iv, String algo, boolean encryptMode) {
+        CipherAlgorithm algorithm = algorithm(algo);
+        if (!algorithm.info().supports(Feature.STREAMING)) {
+            throw new IllegalArgumentException("Streaming is not supported for " + algo);
+        }
+        return algorithm.openStream(decodeIv(base64Iv, algorithm.info()), encryptMode);
+    }
+
+    /**
+     * 데이터를 복호화합니다.
+     * CBC 모드는 PKCS7 패딩을 제거하고, CTR 모드는 후행 널(0x00) 바이트를 제거합니다. (hight_ctr_stream 은 제거하지 않음)
+     * 인증 암호화(hight_ctr_hmac, aes_gcm)는 태그가 맞지 않으면 IllegalArgumentException 을 던집니다.
+     *
+     * Base64 문자열을 Base64.getDecoder() 로 스레드별 재사용 버퍼에 바로 디코딩하고, 알고리즘이 그 버퍼 안에서 복호화와
+     * 패딩 검사를 한 뒤 유효 구간으로 String 을 만듭니다. String 을 만든 뒤에는 버퍼에 남은 평문을 지웁니다.
+     */
+    public String decrypt(String encryptedText, String base64Iv, String algo) {
+        return decrypt(null, encryptedText, base64Iv, algo);
+    }
+
+    /**
+     * column 컬럼에 저장된 값을 복호화합니다. (encrypt(column, ...) 의 짝)
+     */
+    public String decrypt(String column, String encryptedText, String base64Iv, String algo) {
+        CipherAlgorithm algorithm = algorithm(algo);
+        byte[] ivBytes = decodeIv(base64Iv, algorithm.info());
+
+        // Base64 문자는 모두 ISO-8859-1 한 바이트이고, 그 밖의 문자는 '?' 가 되어 디코더가 거부합니다.
+        byte[] encoded = encryptedText.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] buffer = decryptBuffer(encoded.length / 4 * 3 + 2);
+        int length = Base64.getDecoder().decode(encoded, buffer);
+        try {
+            return algorithm.decrypt(ivBytes, column, buffer, length);
+        } finally {
+            Arrays.fill(buffer, 0, length, (byte) 0);
+        }
+    }
+
+    // 복호화용 스레드별 버퍼. 너무 큰 값은 한 번만 쓰고 버립니다.
+    private static byte[] decryptBuffer(int length) {
+        if (length > MAX_RETAINED_BUFFER) {
+            return new byte[length];
+        }
+        byte[] buffer = DECRYPT_BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, Math.min(buffer.length * 2, MAX_RETAINED_BUFFER))];
+            DECRYPT_BUFFER.set(buffer);
+        }
+        return buffer;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,418 @@
+package securityapi.securityalgo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import securityapi.securityalgo.AlgorithmInfo.Feature;
+import securityapi.securityalgo.AlgorithmInfo.Padding;
+
+/**
+ * HIGHT 계열 알고리즘 (hight_cbc, hight_ctr, hight_ctr_stream, hight_ctr_hmac)
+ *
+ * 네 알고리즘이 KeyMaterial 의 HIGHT 키 스케줄 하나를 공유합니다.
+ * 큰 값은 HightParallel 로 나눠 처리하고, 여러 값은 한 버퍼에 모아 처리합니다.
+ * hight_ctr 는 기존 형식대로 한 행의 값들이 행의 IV 에서 시작하는 키스트림을 공유하므로 키스트림을 한 번만 만들고,
+ * hight_ctr_stream / hight_ctr_hmac 은 값마다 nonce 를 붙여 값끼리 키스트림이 겹치지 않게 합니다.
+ */
+public final class HightAlgorithms {
+
+    private static final int BLOCK_SIZE_HIGHT = HightEngine.BLOCK_SIZE;
+    // hight_ctr_stream 이 값마다 앞에 붙이는 nonce 길이
+    private static final int NONCE_LENGTH = HightEngine.BLOCK_SIZE;
+
+    private HightAlgorithms() {
+    }
+
+    public static final class CbcProvider implements AlgorithmProvider {
+        private static final AlgorithmInfo INFO = new AlgorithmInfo(EncryptionService.HIGHT_CBC, BLOCK_SIZE_HIGHT, BLOCK_SIZE_HIGHT,
+                Padding.PKCS7, 0, EnumSet.of(Feature.STREAMING, Feature.PARALLEL, Feature.BATCH));
+
+        @Override
+        public AlgorithmInfo info() {
+            return INFO;
+        }
+
+        @Override
+        public CipherAlgorithm create(KeyMaterial keys) {
+            return new Cbc(INFO, keys.hight());
+        }
+    }
+
+    /** 블록 단위 0x00 패딩 CTR. 복호화 시 후행 0x00 을 제거합니다. */
+    public static final class CtrProvider implements AlgorithmProvider {
+        private static final AlgorithmInfo INFO = new AlgorithmInfo(EncryptionService.HIGHT_CTR, BLOCK_SIZE_HIGHT, BLOCK_SIZE_HIGHT,
+                Padding.ZERO, 0, EnumSet.of(Feature.STREAMING, Feature.PARALLEL, Feature.BATCH, Feature.COUNTER_NONCE));
+
+        @Override
+        public AlgorithmInfo info() {
+            return INFO;
+        }
+
+        @Override
+        public CipherAlgorithm create(KeyMaterial keys) {
+            return new Ctr(INFO, keys.hight());
+        }
+    }
+
+    /** 패딩 없는 CTR. 암호문은 [값별 nonce 8바이트][평문과 같은 길이] 입니다. */
+    public static final class CtrStreamProvider implements AlgorithmProvider {
+        private static final AlgorithmInfo INFO = new AlgorithmInfo(EncryptionService.HIGHT_CTR_STREAM, BLOCK_SIZE_HIGHT, BLOCK_SIZE_HIGHT,
+                Padding.NONE, NONCE_LENGTH, EnumSet.of(Feature.STREAMING, Feature.PARALLEL, Feature.BATCH, Feature.COUNTER_NONCE));
+
+        @Override
+        public AlgorithmInfo info() {
+            return INFO;
+        }
+
+        @Override
+        public CipherAlgorithm create(KeyMaterial keys) {
+            return new Ctr(INFO, keys.hight());
+        }
+    }
+
+    /** [nonce][hight_ctr_stream 암호문] + HMAC-SHA256 태그 16바이트 (HightCtrHmac) */
+    public static final class CtrHmacProvider implements AlgorithmProvider {
+        private static final AlgorithmInfo INFO = new AlgorithmInfo(EncryptionService.HIGHT_CTR_HMAC, BLOCK_SIZE_HIGHT, BLOCK_SIZE_HIGHT,
+                Padding.NONE, HightCtrHmac.NONCE_LENGTH + HightCtrHmac.TAG_LENGTH, EnumSet.of(Feature.BATCH, Feature.COUNTER_NONCE, Feature.AUTHENTICATED));
+
+        @Override
+        public AlgorithmInfo info() {
+            return INFO;
+        }
+
+        @Override
+        public CipherAlgorithm create(KeyMaterial keys) {
+            return new CtrHmac(INFO, new HightCtrHmac(keys.hight(), keys.userKey()));
+        }
+    }
+
+    private static final class Cbc implements CipherAlgorithm {
+        private final AlgorithmInfo info;
+        private final HightKeySchedule key;
+        private final hight_cbc processor = new hight_cbc();
+
+        Cbc(AlgorithmInfo info, HightKeySchedule key) {
+            this.info = info;
+            this.key  = key;
+        }
+
+        @Override
+        public AlgorithmInfo info() {
+            return info;
+        }
+
+        @Override
+        public byte[] encrypt(byte[] iv, String column, byte[] plain) {
+            return this.processor.process(plain, this.key, iv, true);
+        }
+
+        @Override
+        public String decrypt(byte[] iv, String column, byte[] buffer, int length) {
+            // 병렬 처리 대상인 큰 값은 제자리 복호화를 할 수 없어 기존 경로를 사용합니다.
+            if (HightParallel.shouldParallelize(length)) {
+                byte[] decryptedBytes = this.processor.process(Arrays.copyOf(buffer, length), this.key, iv, false);
+                if (decryptedBytes == null) {
+                    throw new IllegalArgumentException("Invalid HIGHT-CBC ciphertext.");
+                }
+                String result = new String(decryptedBytes, 0, HightCbcChain.unpaddedLength(decryptedBytes, decryptedBytes.length), StandardCharsets.UTF_8);
+                Arrays.fill(decryptedBytes, (byte) 0);
+                return result;
+            }
+
+            // hight_cbc 와 같은 규칙: 블록 단위 길이이고 마지막 바이트가 1~8 이어야 함
+            if (length % BLOCK_SIZE_HIGHT != 0) {
+                throw new IllegalArgumentException("Invalid HIGHT-CBC ciphertext.");
+            }
+            HightCbcChain.decrypt(this.key, HightEngine.getLong(iv, 0), buffer, 0, buffer, 0, length);
+            int nPaddingLeng = HightCbcChain.paddingLength(buffer, 0, length);
+            if (nPaddingLeng < 0) {
+                throw new IllegalArgumentException("Invalid HIGHT-CBC ciphertext.");
+            }
+
+            // PKCS7 패딩 제거 로직
+            int unpadded = HightCbcChain.unpaddedLength(buffer, length - nPaddingLeng);
+            return new String(buffer, 0, unpadded, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void encryptBatch(byte[] iv, String[] columns, byte[][] plain, byte[] out, int[] offsets) {
+            long chain = HightEngine.getLong(iv, 0);
+            for (int i = 0; i < plain.length; i++) {
+                if (plain[i] == null) {
+                    continue;
+                }
+                // PKCS7 패딩까지 버퍼에 채운 뒤 제자리에서 암호화
+                int offset = offsets[i];
+                int length = offsets[i + 1] - offset;
+                System.arraycopy(plain[i], 0, out, offset, plain[i].length);
+                byte nPaddingLeng = (byte)(length - plain[i].length);
+                for (int p = offset + plain[i].length; p < offset + length; p++) {
+                    out[p] = nPaddingLeng;
+                }
+                HightCbcChain.encrypt(this.key, chain, out, offset, out, offset, length);
+            }
+        }
+
+        @Override
+        public CipherStream openStream(byte[] iv, boolean encryptMode) {
+            return HightCipherContext.cbc(this.key, iv, encryptMode, true);
+        }
+    }
+
+    private static final class Ctr implements CipherAlgorithm {
+        private final AlgorithmInfo info;
+        private final HightKeySchedule key;
+        // hight_ctr(블록 단위 0x00 패딩, 행 IV 공유) 인지 hight_ctr_stream(값별 nonce, 길이 그대로) 인지
+        private final boolean zeroPadded;
+        private final hight_ctr processor = new hight_ctr();
+
+        Ctr(AlgorithmInfo info, HightKeySchedule key) {
+            this.info = info;
+            this.key  = key;
+            this.zeroPadded = info.padding() == Padding.ZERO;
+        }
+
+        @Override
+        public AlgorithmInfo info() {
+            return info;
+        }
+
+        @Override
+        public byte[] encrypt(byte[] iv, String column, byte[] plain) {
+            if (this.zeroPadded) {
+                IvGenerator.checkCtrNonceRange(plain.length);
+                return this.processor.process(plain, this.key, iv, true);
+            }
+            // [nonce][평문] 을 만든 뒤 평문 구간을 제자리에서 XOR (마지막 블록은 남은 바이트만)
+            byte[] encryptedBytes = new byte[NONCE_LENGTH + plain.length];
+            System.arraycopy(plain, 0, encryptedBytes, NONCE_LENGTH, plain.length);
+            seal(encryptedBytes, 0, plain.length);
+            return encryptedBytes;
+        }
+
+        @Override
+        public String decrypt(byte[] iv, String column, byte[] buffer, int length) {
+            if (this.zeroPadded) {
+                applyCtr(this.key, HightEngine.getLong(iv, 0), buffer, 0, length);
+                // 후행 널(0x00) 바이트 패딩 제거 로직
+                return new String(buffer, 0, unpaddedCtrLength(buffer, length), StandardCharsets.UTF_8);
+            }
+            open(buffer, 0, length);
+            return new String(buffer, NONCE_LENGTH, length - NONCE_LENGTH, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void encryptBatch(byte[] iv, String[] columns, byte[][] plain, byte[] out, int[] offsets) {
+            if (!this.zeroPadded) {
+                // 값마다 nonce 를 새로 만들어 키스트림이 겹치지 않게 하고, 짧은 값들은 HightCtrBatch 로 한 번에 처리합니다.
+                Segments segments = new Segments(plain.length);
+                for (int i = 0; i < plain.length; i++) {
+                    if (plain[i] == null) {
+                        continue;
+                    }
+                    System.arraycopy(plain[i], 0, out, offsets[i] + NONCE_LENGTH, plain[i].length);
+                    IvGenerator.nextCtrNonce(out, offsets[i], plain[i].length);
+                    segments.add(this.key, out, offsets[i], plain[i].length);
+                }
+                segments.apply(this.key);
+                return;
+            }
+
+            // hight_ctr 는 기존 형식대로 모든 값이 행의 IV 를 쓰므로 키스트림은 가장 긴 값 길이만큼 한 번만 만듭니다.
+            int maxLength = 0;
+            for (int i = 0; i < plain.length; i++) {
+                maxLength = Math.max(maxLength, offsets[i + 1] - offsets[i]);
+            }
+            IvGenerator.checkCtrNonceRange(maxLength);
+            byte[] keystream = keystream(iv, maxLength);
+            for (int i = 0; i < plain.length; i++) {
+                if (plain[i] == null) {
+                    continue;
+                }
+                int offset = offsets[i];
+                int length = offsets[i + 1] - offset;
+                for (int p = 0; p < length; p++) {
+                    byte b = p < plain[i].length ? plain[i][p] : 0;
+                    out[offset + p] = (byte)(b ^ keystream[p]);
+                }
+            }
+        }
+
+        @Override
+        public String[] decryptBatch(byte[] iv, String[] columns, byte[][] data) {
+            String[] results = new String[data.length];
+            if (!this.zeroPadded) {
+                Segments segments = new Segments(data.length);
+                for (byte[] bytes : data) {
+                    if (bytes == null) {
+                        continue;
+                    }
+                    if (bytes.length < NONCE_LENGTH) {
+                        throw new IllegalArgumentException("HIGHT-CTR ciphertext is shorter than its nonce.");
+                    }
+                    segments.add(this.key, bytes, 0, bytes.length - NONCE_LENGTH);
+                }
+                segments.apply(this.key);
+                for (int i = 0; i < data.length; i++) {
+                    if (data[i] != null) {
+                        results[i] = new String(data[i], NONCE_LENGTH, data[i].length - NONCE_LENGTH, StandardCharsets.UTF_8);
+                    }
+                }
+                return results;
+            }
+
+            int maxLength = 0;
+            for (byte[] bytes : data) {
+                maxLength = Math.max(maxLength, bytes == null ? 0 : bytes.length);
+            }
+            byte[] keystream = keystream(iv, maxLength);
+
+            for (int i = 0; i < data.length; i++) {
+                byte[] bytes = data[i];
+                if (bytes == null) {
+                    continue;
+                }
+                for (int p = 0; p < bytes.length; p++) {
+                    bytes[p] ^= keystream[p];
+                }
+                results[i] = new String(bytes, 0, unpaddedCtrLength(bytes, bytes.length), StandardCharsets.UTF_8);
+            }
+            return results;
+        }
+
+        @Override
+        public CipherStream openStream(byte[] iv, boolean encryptMode) {
+            if (!this.zeroPadded) {
+                return HightCipherContext.ctrWithNonce(this.key, encryptMode);
+            }
+            return HightCipherContext.ctr(this.key, iv, true, encryptMode);
+        }
+
+        // buffer[offset, offset+8) 에 새 nonce 를 쓰고, 그 뒤 length 바이트의 평문을 제자리에서 암호화
+        private void seal(byte[] buffer, int offset, int length) {
+            IvGenerator.nextCtrNonce(buffer, offset, length);
+            applyCtr(this.key, HightEngine.getLong(buffer, offset), buffer, offset + NONCE_LENGTH, length);
+        }
+
+        // buffer[offset, offset+length) 의 [nonce][암호문] 에서 암호문 구간을 제자리에서 복호화
+        private void open(byte[] buffer, int offset, int length) {
+            if (length < NONCE_LENGTH) {
+                throw new IllegalArgumentException("HIGHT-CTR ciphertext is shorter than its nonce.");
+            }
+            applyCtr(this.key, HightEngine.getLong(buffer, offset), buffer, offset + NONCE_LENGTH, length - NONCE_LENGTH);
+        }
+
+        private byte[] keystream(byte[] iv, int length) {
+            byte[] keystream = new byte[length];
+            HightCtrKeystream.apply(this.key, HightEngine.getLong(iv, 0), keystream, 0, keystream, 0, length);
+            return keystream;
+        }
+    }
+
+    private static final class CtrHmac implements CipherAlgorithm {
+        private final AlgorithmInfo info;
+        private final HightCtrHmac hightCtrHmac;
+
+        CtrHmac(AlgorithmInfo info, HightCtrHmac hightCtrHmac) {
+            this.info = info;
+            this.hightCtrHmac = hightCtrHmac;
+        }
+
+        @Override
+        public AlgorithmInfo info() {
+            return info;
+        }
+
+        @Override
+        public byte[] encrypt(byte[] iv, String column, byte[] plain) {
+            byte[] encryptedBytes = new byte[this.info.outputLength(plain.length)];
+            System.arraycopy(plain, 0, encryptedBytes, HightCtrHmac.NONCE_LENGTH, plain.length);
+            this.hightCtrHmac.seal(iv, column, encryptedBytes, 0, plain.length);
+            return encryptedBytes;
+        }
+
+        @Override
+        public String decrypt(byte[] iv, String column, byte[] buffer, int length) {
+            // 태그 검증과 복호화를 한 번에
+            int plainLength = this.hightCtrHmac.open(iv, column, buffer, 0, length);
+            return new String(buffer, HightCtrHmac.NONCE_LENGTH, plainLength, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void encryptBatch(byte[] iv, String[] columns, byte[][] plain, byte[] out, int[] offsets) {
+            // 값마다 nonce 생성, 암호화, 태그 계산을 한 번에 ([nonce][암호문][태그])
+            for (int i = 0; i < plain.length; i++) {
+                if (plain[i] == null) {
+                    continue;
+                }
+                System.arraycopy(plain[i], 0, out, offsets[i] + HightCtrHmac.NONCE_LENGTH, plain[i].length);
+                this.hightCtrHmac.seal(iv, columns[i], out, offsets[i], plain[i].length);
+            }
+        }
+    }
+
+    /*
+     * [nonce][데이터] 구간들을 모아 HightCtrBatch 로 한 번에 처리합니다.
+     * 병렬 처리 대상인 큰 값은 모으지 않고 add 에서 바로 applyCtr 로 처리합니다.
+     */
+    private static final class Segments {
+        private final long[] counters;
+        private final byte[][] buffers;
+        private final int[] offsets;
+        private final int[] lengths;
+        private int count;
+
+        Segments(int capacity) {
+            this.counters = new long[capacity];
+            this.buffers  = new byte[capacity][];
+            this.offsets  = new int[capacity];
+            this.lengths  = new int[capacity];
+        }
+
+        // buffer[offset, offset+8) 의 nonce 뒤 length 바이트
+        void add(HightKeySchedule key, byte[] buffer, int offset, int length) {
+            long counter = HightEngine.getLong(buffer, offset);
+            if (HightParallel.shouldParallelize(length)) {
+                applyCtr(key, counter, buffer, offset + NONCE_LENGTH, length);
+                return;
+            }
+            counters[count] = counter;
+            buffers[count]  = buffer;
+            offsets[count]  = offset + NONCE_LENGTH;
+            lengths[count]  = length;
+            count++;
+        }
+
+        void apply(HightKeySchedule key) {
+            if (count == 0) {
+                return;
+            }
+            if (count == counters.length) {
+                HightCtrBatch.apply(key, counters, buffers, offsets, lengths);
+            } else {
+                HightCtrBatch.apply(key, Arrays.copyOf(counters, count), Arrays.copyOf(buffers, count),
+                        Arrays.copyOf(offsets, count), Arrays.copyOf(lengths, count));
+            }
+        }
+    }
+
+    // buffer[offset, offset+length) 에 counter 부터의 키스트림을 제자리에서 XOR (큰 값은 병렬)
+    private static void applyCtr(HightKeySchedule key, long counter, byte[] buffer, int offset, int length) {
+        if (HightParallel.shouldParallelize(length)) {
+            HightParallel.ctr(key, counter, buffer, offset, buffer, offset, length);
+        } else {
+            HightCtrKeystream.apply(key, counter, buffer, offset, buffer, offset, length);
+        }
+    }
+
+    // bytes[0, length) 에서 후행 0x00 바이트를 제외한 길이
+    private static int unpaddedCtrLength(byte[] bytes, int length) {
+        int effectiveLength = length;
+        // 배열의 끝에서부터 0x00 값을 만나면 길이를 1씩 줄여나감
+        while (effectiveLength > 0 && bytes[effectiveLength - 1] == 0) {
+            effectiveLength--;
+        }
+        return effectiveLength;
+    }
+}
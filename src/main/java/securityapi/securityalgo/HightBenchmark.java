@@ -0,0 +1,135 @@
+package securityapi.securityalgo;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * HIGHT CTR 처리량 비교용 간단한 벤치마크
+ *
+ * 원래 KISA 구현(HightKisaReference, KISA_HIGHT_ECB_encrypt_forCTR)을 기준선으로,
+ * 블록 단위 스칼라 경로(HightEngine.encryptBlock 반복), 키 전용 라운드 테이블 경로(HightTableEngine),
+ * 키마다 생성한 클래스(HightCipherCompiler), 8블록 동시 처리 커널(HightMultiBlock)을 같은 입력으로 돌려 MB/s 를 출력합니다.
+ * KISA 기준선은 블록마다 남은 출력 전체를 변환해 길이에 대해 제곱 시간이 들므로 앞쪽 KISA_MAX_BYTES 만 잽니다.
+ *
+ * 실행: java -cp target/classes securityapi.securityalgo.HightBenchmark [바이트 수] [반복 횟수]
+ */
+public final class HightBenchmark {
+
+    // KISA 기준선을 잴 최대 길이 (그 이상은 제곱 비용 때문에 측정이 끝나지 않습니다)
+    private static final int KISA_MAX_BYTES = 16 * 1024;
+
+    private HightBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int size       = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        SecureRandom random = new SecureRandom();
+        byte[] key = new byte[16];
+        random.nextBytes(key);
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        byte[] out = new byte[size];
+
+        HightKeySchedule schedule = HightKeySchedule.of(key);
+        HightKeySchedule tables   = HightKeySchedule.of(key, HightEngineType.ROUND_TABLES);
+        HightKeySchedule compiled = HightKeySchedule.of(key, HightEngineType.COMPILED);
+        long counter = random.nextLong();
+
+        System.out.println("HIGHT CTR benchmark: " + size + " bytes x " + iterations);
+
+        int kisaSize = Math.min(size, KISA_MAX_BYTES);
+        byte[] iv = new byte[HightEngine.BLOCK_SIZE];
+        HightEngine.putLong(iv, 0, counter);
+        if (!Arrays.equals(HightKisaReference.encrypt(schedule, iv, data, kisaSize),
+                           HightCtrKeystream.applyPadded(schedule, iv, data, 0, kisaSize))) {
+            throw new IllegalStateException("KISA reference and HightCtrKeystream disagree.");
+        }
+
+        // JIT 워밍업 후 측정
+        for (int round = 0; round < 2; round++) {
+            boolean measure = round == 1;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                HightKisaReference.encrypt(schedule, iv, data, kisaSize);
+            }
+            long kisa = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                HightCtrKeystream.scalarApply(schedule, counter, data, 0, out, 0, size);
+            }
+            long scalar = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                HightCtrKeystream.scalarApply(tables, counter, data, 0, out, 0, size);
+            }
+            long table = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                HightCtrKeystream.scalarApply(compiled, counter, data, 0, out, 0, size);
+            }
+            long generated = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                HightMultiBlock.ctr(schedule, counter, data, 0, out, 0, size);
+            }
+            long multi = System.nanoTime() - start;
+
+            if (measure) {
+                print("KISA hight_ctr (" + kisaSize + " B)", kisaSize, iterations, kisa);
+                print("scalar HightEngine", size, iterations, scalar);
+                print("round tables", size, iterations, table);
+                print("compiled per key", size, iterations, generated);
+                print("multi-block x" + HightMultiBlock.LANES, size, iterations, multi);
+            }
+        }
+
+        smallValues(schedule, random, iterations);
+    }
+
+    // 짧은 값(32바이트) 여러 개: 값마다 따로 처리 vs HightCtrBatch 로 한 번에 처리
+    private static void smallValues(HightKeySchedule schedule, SecureRandom random, int iterations) {
+        int count = 8192;
+        int valueSize = 32;
+        byte[][] values = new byte[count][valueSize];
+        byte[][] ivs = new byte[count][8];
+        for (int i = 0; i < count; i++) {
+            random.nextBytes(values[i]);
+            random.nextBytes(ivs[i]);
+        }
+
+        System.out.println("HIGHT CTR small values: " + count + " x " + valueSize + " bytes x " + iterations);
+
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (int v = 0; v < count; v++) {
+                    HightCtrKeystream.applyPadded(schedule, ivs[v], values[v], 0, valueSize);
+                }
+            }
+            long single = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                HightCtrBatch.applyPadded(schedule, ivs, values);
+            }
+            long batch = System.nanoTime() - start;
+
+            if (round == 1) {
+                print("per value", count * valueSize, iterations, single);
+                print("batched", count * valueSize, iterations, batch);
+            }
+        }
+    }
+
+    private static void print(String name, int size, int iterations, long nanos) {
+        double mbPerSec = (double) size * iterations / (1024 * 1024) / (nanos / 1e9);
+        System.out.printf("%-26s %10.1f MB/s%n", name, mbPerSec);
+    }
+}
@@ -0,0 +1,13 @@
+package securityapi.securityalgo;
+
+/**
+ * 키가 고정된 HIGHT 블록 연산 (8바이트 블록을 빅엔디안 long 으로 주고받음)
+ *
+ * HightCipherCompiler 가 키마다 생성하는 클래스가 이 인터페이스를 구현합니다.
+ */
+public interface HightBlockCipher {
+
+    long encryptBlock(long block);
+
+    long decryptBlock(long block);
+}
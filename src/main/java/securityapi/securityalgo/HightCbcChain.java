@@ -0,0 +1,105 @@
+package securityapi.securityalgo;
+
+import java.util.Arrays;
+
+/**
+ * HIGHT CBC 블록 체이닝 처리
+ *
+ * 이전 블록(IV 또는 직전 암호문 블록)을 long 으로 주고받으므로 입력을 구간별로 나눠 이어서 처리할 수 있습니다.
+ * 패딩은 다루지 않으며 length 는 항상 8의 배수여야 합니다.
+ */
+public final class HightCbcChain {
+
+    private static final int BLOCK_SIZE_HIGHT = HightEngine.BLOCK_SIZE;
+
+    private HightCbcChain() {
+    }
+
+    /**
+     * @return 마지막 암호문 블록 (다음 호출의 previous 로 사용)
+     */
+    public static long encrypt(HightKeySchedule key, long previous, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        for (int i = 0; i < length; i += BLOCK_SIZE_HIGHT) {
+            previous = HightEngine.encryptBlock(key, HightEngine.getLong(in, in_offset + i) ^ previous);
+            HightEngine.putLong(out, out_offset + i, previous);
+        }
+        return previous;
+    }
+
+    /**
+     * 복호화는 직전 암호문 블록만 있으면 되므로 구간의 시작 블록만 알면 독립적으로 처리할 수 있습니다.
+     * in == out 인 경우에도 동작합니다.
+     *
+     * @return 마지막 암호문 블록 (다음 호출의 previous 로 사용)
+     */
+    public static long decrypt(HightKeySchedule key, long previous, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        if (HightMultiBlock.isEnabled() && length >= HightMultiBlock.LANES * BLOCK_SIZE_HIGHT) {
+            return HightMultiBlock.cbcDecrypt(key, previous, in, in_offset, out, out_offset, length);
+        }
+        return scalarDecrypt(key, previous, in, in_offset, out, out_offset, length);
+    }
+
+    // 블록 하나씩 처리하는 기본 경로 (HightMultiBlock 의 나머지 처리에도 사용)
+    static long scalarDecrypt(HightKeySchedule key, long previous, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        for (int i = 0; i < length; i += BLOCK_SIZE_HIGHT) {
+            long cipher = HightEngine.getLong(in, in_offset + i);
+            HightEngine.putLong(out, out_offset + i, HightEngine.decryptBlock(key, cipher) ^ previous);
+            previous = cipher;
+        }
+        return previous;
+    }
+
+    /**
+     * HIGHT_CBC_Decrypt_Internal 과 같은 결과(패딩 제거, 잘못된 입력이면 null)를 순차로 만듭니다.
+     */
+    public static byte[] decryptUnpadded(HightKeySchedule key, byte[] iv, byte[] message, int message_offset, int message_length) {
+        if (message_length % BLOCK_SIZE_HIGHT != 0) {
+            return null;
+        }
+
+        byte[] out = new byte[message_length];
+        decrypt(key, HightEngine.getLong(iv, 0), message, message_offset, out, 0, message_length);
+
+        int nPaddingLeng = paddingLength(out, 0, message_length);
+        if (nPaddingLeng < 0) {
+            return null;
+        }
+        return Arrays.copyOf(out, message_length - nPaddingLeng);
+    }
+
+    /**
+     * HIGHT_CBC_Close 와 같은 규칙으로 패딩 길이를 확인합니다. (마지막 바이트가 1~8 인지만 검사)
+     *
+     * @return 패딩 길이, 올바르지 않으면 -1
+     */
+    public static int paddingLength(byte[] plain, int offset, int length) {
+        if (length < BLOCK_SIZE_HIGHT) {
+            return -1;
+        }
+        int nPaddingLeng = plain[offset + length - 1];
+        return (nPaddingLeng > 0 && nPaddingLeng <= BLOCK_SIZE_HIGHT) ? nPaddingLeng : -1;
+    }
+
+    /**
+     * hight_cbc 복호화가 paddingLength 로 패딩을 뗀 뒤 한 번 더 적용하는 기존 제거 규칙.
+     * bytes[0, length) 끝에 유효한 PKCS7 패딩이 있으면 제거한 길이, 없으면 length 입니다.
+     * 기존 암호문과 결과가 같아야 하므로 encrypt/decrypt 와 스트리밍 복호화가 모두 이 규칙을 따릅니다.
+     */
+    public static int unpaddedLength(byte[] bytes, int length) {
+        if (length > 0) {
+            int paddingLength = bytes[length - 1] & 0xff;
+            if (paddingLength > 0 && paddingLength <= 8 && paddingLength <= length) {
+                int originalLength = length - paddingLength;
+                
+                for (int i = 0; i < paddingLength; i++) {
+                    if ((bytes[originalLength + i] & 0xff) != paddingLength) {
+                        // 유효한 패딩이 없으면 그대로 반환
+                        return length;
+                    }
+                }
+                return originalLength;
+            }
+        }
+        return length;
+    }
+}
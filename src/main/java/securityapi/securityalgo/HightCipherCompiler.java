@@ -0,0 +1,405 @@
+package securityapi.securityalgo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import securityapi.config.ConfigLoader;
+
+/**
+ * 키마다 32라운드를 완전히 풀어 쓴 HIGHT 클래스를 런타임에 생성합니다.
+ *
+ * 생성된 클래스는 상태 8바이트를 지역 변수로만 다루고 라운드 키/화이트닝 키를 상수로 갖고 있어
+ * 라운드 키 배열 조회와 레지스터 순서 전환이 없습니다. (F0/F1 테이블만 필드로 참조)
+ *
+ * Java 15 이상에서는 MethodHandles.Lookup.defineHiddenClass 로 숨은 클래스를 만들고,
+ * 그 이하(Java 11)에서는 클래스마다 전용 클래스 로더를 만들어 정의합니다.
+ *
+ * 생성 결과는 LRU 캐시(hight.compiled.cache.size)에 보관합니다. 캐시 키는 마스터 키 자체가 아니라
+ * 프로세스마다 무작위로 만든 비밀 키로 계산한 HMAC-SHA256 이므로, 캐시가 원본 키를 힙에 붙잡아 두지 않습니다.
+ * 다만 생성된 클래스는 라운드 키를 상수로 품고 있으므로 클래스가 살아 있는 동안은 키 재료도 남아 있습니다.
+ *
+ * HightKeySchedule 은 생성된 인스턴스를 직접(강하게) 참조합니다. 따라서 캐시에서 제거(evict/clear)해도
+ * 그 클래스로 만든 HightKeySchedule 이 모두 수거되기 전까지는 클래스가 언로드되지 않습니다.
+ */
+public final class HightCipherCompiler {
+
+    private static final int CACHE_SIZE = Integer.parseInt(ConfigLoader.getProperty("hight.compiled.cache.size", "64"));
+
+    private static final String CLASS_NAME     = "securityapi/securityalgo/HightCompiledCipher";
+    private static final String INTERFACE_NAME = HightBlockCipher.class.getName().replace('.', '/');
+
+    // 8라운드 단위 연산 순서. {덧셈(뺄셈) 대상, F1 입력, XOR 대상, F0 입력, 라운드 키 오프셋}
+    // HightEngine.encryptBlock / decryptBlock 의 풀어 쓴 순서와 동일합니다.
+    private static final int[][] ENC_ROUNDS = {
+        {1, 0, 3, 2,   0}, {5, 4, 7, 6,   2}, {0, 7, 2, 1,   4}, {4, 3, 6, 5,   6},
+        {7, 6, 1, 0,   8}, {3, 2, 5, 4,  10}, {6, 5, 0, 7,  12}, {2, 1, 4, 3,  14},
+        {5, 4, 7, 6,  16}, {1, 0, 3, 2,  18}, {4, 3, 6, 5,  20}, {0, 7, 2, 1,  22},
+        {3, 2, 5, 4,  24}, {7, 6, 1, 0,  26}, {2, 1, 4, 3,  28}, {6, 5, 0, 7,  30},
+    };
+    private static final int[][] DEC_ROUNDS = {
+        {1, 0, 3, 2,   0}, {5, 4, 7, 6,   2}, {2, 1, 4, 3,  -4}, {6, 5, 0, 7,  -2},
+        {3, 2, 5, 4,  -8}, {7, 6, 1, 0,  -6}, {4, 3, 6, 5, -12}, {0, 7, 2, 1, -10},
+        {5, 4, 7, 6, -16}, {1, 0, 3, 2, -14}, {6, 5, 0, 7, -20}, {2, 1, 4, 3, -18},
+        {7, 6, 1, 0, -24}, {3, 2, 5, 4, -22}, {0, 7, 2, 1, -28}, {4, 3, 6, 5, -26},
+    };
+
+    // 캐시 키 계산용 비밀 키. 프로세스 밖으로 나가지 않으며 재시작마다 바뀝니다.
+    private static final SecretKeySpec CACHE_ID_KEY = newCacheIdKey();
+
+    private static final Map<ByteBuffer, HightBlockCipher> CACHE = new LinkedHashMap<ByteBuffer, HightBlockCipher>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, HightBlockCipher> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private HightCipherCompiler() {
+    }
+
+    /**
+     * 키에 해당하는 생성 클래스 인스턴스를 캐시에서 찾거나 새로 만듭니다.
+     */
+    public static HightBlockCipher compile(HightKeySchedule key) {
+        return compile(key.userKey(), key.wk, key.rk);
+    }
+
+    // HightKeySchedule 생성자에서 자기 자신을 넘기지 않도록 배열로 받는 버전
+    static HightBlockCipher compile(byte[] userKey, int[] wk, int[] rk) {
+        ByteBuffer id = cacheId(userKey);
+        synchronized (CACHE) {
+            HightBlockCipher cipher = CACHE.get(id);
+            if (cipher != null) {
+                return cipher;
+            }
+        }
+
+        // 클래스 생성과 정의는 잠금 밖에서 합니다. 같은 키를 동시에 만들면 먼저 넣은 쪽을 씁니다.
+        HightBlockCipher created = define(generate(wk, rk));
+        synchronized (CACHE) {
+            HightBlockCipher raced = CACHE.putIfAbsent(id, created);
+            return raced != null ? raced : created;
+        }
+    }
+
+    /**
+     * 키에 해당하는 캐시 항목을 제거합니다. 이후 같은 키로 만드는 HightKeySchedule 은 클래스를 새로 생성합니다.
+     * 이미 만들어진 HightKeySchedule 은 계속 그 클래스를 쓰며, 클래스는 그 스케줄들이 모두 수거된 뒤에 언로드됩니다.
+     */
+    public static void evict(HightKeySchedule key) {
+        ByteBuffer id = cacheId(key.userKey());
+        synchronized (CACHE) {
+            CACHE.remove(id);
+        }
+    }
+
+    /**
+     * 모든 캐시 항목을 제거합니다. 클래스 언로드 조건은 evict 와 같습니다.
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    public static int cacheSize() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    private static ByteBuffer cacheId(byte[] userKey) {
+        return ByteBuffer.wrap(HightCtrHmac.newMac(CACHE_ID_KEY).doFinal(userKey));
+    }
+
+    private static SecretKeySpec newCacheIdKey() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    private static HightBlockCipher define(byte[] classBytes) {
+        try {
+            Class<?> cls = defineHidden(classBytes);
+            if (cls == null) {
+                cls = new GeneratedClassLoader(HightCipherCompiler.class.getClassLoader()).define(classBytes);
+            }
+            return (HightBlockCipher) cls.getConstructor(int[].class, int[].class).newInstance(HightEngine.F0, HightEngine.F1);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to define generated HIGHT cipher class.", e);
+        }
+    }
+
+    // Java 15 이상이면 숨은 클래스로 정의합니다. 지원하지 않는 런타임이면 null
+    private static Class<?> defineHidden(byte[] classBytes) throws ReflectiveOperationException {
+        Class<?> optionType;
+        Method defineHiddenClass;
+        try {
+            optionType        = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            defineHiddenClass = MethodHandles.Lookup.class.getMethod("defineHiddenClass",
+                    byte[].class, boolean.class, Array.newInstance(optionType, 0).getClass());
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return null;
+        }
+        MethodHandles.Lookup hidden = (MethodHandles.Lookup) defineHiddenClass.invoke(
+                MethodHandles.lookup(), classBytes, true, Array.newInstance(optionType, 0));
+        return hidden.lookupClass();
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+        GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(byte[] classBytes) {
+            return defineClass(CLASS_NAME.replace('/', '.'), classBytes, 0, classBytes.length);
+        }
+    }
+
+    /**
+     * public final class HightCompiledCipher implements HightBlockCipher {
+     *     private final int[] f0, f1;
+     *     public HightCompiledCipher(int[] f0, int[] f1) { ... }
+     *     public long encryptBlock(long block) { 32라운드 전개 }
+     *     public long decryptBlock(long block) { 32라운드 전개 }
+     * }
+     */
+    static byte[] generate(int[] wk, int[] rk) {
+        ClassWriter cw = new ClassWriter();
+        int thisClass  = cw.classRef(CLASS_NAME);
+        int superClass = cw.classRef("java/lang/Object");
+        int iface      = cw.classRef(INTERFACE_NAME);
+        int f0Field    = cw.fieldRef(CLASS_NAME, "f0", "[I");
+        int f1Field    = cw.fieldRef(CLASS_NAME, "f1", "[I");
+        int objInit    = cw.methodRef("java/lang/Object", "<init>", "()V");
+
+        Code init = new Code();
+        init.op(0x2a).op(0xb7).u2(objInit);            // aload_0; invokespecial Object.<init>
+        init.op(0x2a).op(0x2b).op(0xb5).u2(f0Field);   // this.f0 = f0
+        init.op(0x2a).op(0x2c).op(0xb5).u2(f1Field);   // this.f1 = f1
+        init.op(0xb1);                                 // return
+
+        Code enc = block(f0Field, f1Field, wk, rk, true);
+        Code dec = block(f0Field, f1Field, wk, rk, false);
+
+        return cw.toBytes(thisClass, superClass, iface, new String[] {"f0", "f1"},
+                new Object[][] {
+                    {"<init>",       "([I[I)V", init, 2, 3},
+                    {"encryptBlock", "(J)J",    enc,  8, 13},
+                    {"decryptBlock", "(J)J",    dec,  8, 13},
+                });
+    }
+
+    // 지역 변수: 0 this, 1-2 block, 3 f0, 4 f1, 5~12 x0~x7
+    private static final int F0_LOCAL = 3;
+    private static final int F1_LOCAL = 4;
+    private static final int X        = 5;
+
+    private static Code block(int f0Field, int f1Field, int[] wk, int[] rk, boolean encrypt) {
+        Code c = new Code();
+        c.op(0x2a).op(0xb4).u2(f0Field).op(0x3a).u1(F0_LOCAL);   // f0 = this.f0
+        c.op(0x2a).op(0xb4).u2(f1Field).op(0x3a).u1(F1_LOCAL);   // f1 = this.f1
+
+        // EncIni / DecIni_Transformation
+        for (int i = 0; i < 8; i++) {
+            c.op(0x16).u1(1).op(0x10).u1(56 - 8 * i).op(0x7d).op(0x88);   // (int)(block >>> shift)
+            if ((i & 1) == 0) {
+                int w = encrypt ? wk[12 + i / 2] : wk[i / 2];
+                c.sipush(w).op((i & 2) != 0 ? 0x82 : (encrypt ? 0x60 : 0x64));   // ^ wk, + wk, - wk
+            }
+            c.sipush(0xff).op(0x7e).op(0x36).u1(X + i);
+        }
+
+        for (int r = 0; r < 4; r++) {
+            int[][] rounds = encrypt ? ENC_ROUNDS : DEC_ROUNDS;
+            int base = encrypt ? 32 * r : 124 - 32 * r;
+            for (int[] p : rounds) {
+                int k = base + p[4];
+                // x[a] = (x[a] +/- (f1[x[b]] ^ rk[k])) & 0xff
+                c.op(0x15).u1(X + p[0]).op(0x19).u1(F1_LOCAL).op(0x15).u1(X + p[1]).op(0x2e)
+                 .sipush(rk[k]).op(0x82).op(encrypt ? 0x60 : 0x64).sipush(0xff).op(0x7e).op(0x36).u1(X + p[0]);
+                // x[c] = x[c] ^ ((f0[x[d]] + rk[k + 1]) & 0xff)
+                c.op(0x15).u1(X + p[2]).op(0x19).u1(F0_LOCAL).op(0x15).u1(X + p[3]).op(0x2e)
+                 .sipush(rk[k + 1]).op(0x60).sipush(0xff).op(0x7e).op(0x82).op(0x36).u1(X + p[2]);
+            }
+        }
+
+        // EncFin / DecFin_Transformation: 출력 바이트 j 에 들어갈 레지스터와 화이트닝 키
+        int[] src = encrypt ? new int[] {1, 2, 3, 4, 5, 6, 7, 0} : new int[] {7, 0, 1, 2, 3, 4, 5, 6};
+        for (int j = 0; j < 8; j++) {
+            c.op(0x15).u1(X + src[j]);
+            if ((j & 1) == 0) {
+                int w = encrypt ? wk[j / 2] : wk[12 + j / 2];
+                c.sipush(w).op((j & 2) != 0 ? 0x82 : (encrypt ? 0x60 : 0x64)).sipush(0xff).op(0x7e);
+            }
+            c.op(0x85);                                   // i2l
+            if (j < 7) {
+                c.op(0x10).u1(56 - 8 * j).op(0x79);       // << shift
+            }
+            if (j > 0) {
+                c.op(0x81);                               // lor
+            }
+        }
+        c.op(0xad);                                       // lreturn
+        return c;
+    }
+
+    // 분기 없는 메서드만 만들므로 StackMapTable 없이 최소한의 클래스 파일만 씁니다.
+    private static final class Code {
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream(2048);
+
+        Code op(int opcode) {
+            buf.write(opcode);
+            return this;
+        }
+
+        Code u1(int value) {
+            buf.write(value);
+            return this;
+        }
+
+        Code u2(int value) {
+            buf.write(value >>> 8);
+            buf.write(value);
+            return this;
+        }
+
+        Code sipush(int value) {
+            return op(0x11).u2(value);
+        }
+
+        byte[] toBytes() {
+            return buf.toByteArray();
+        }
+    }
+
+    private static final class ClassWriter {
+        private final List<byte[]> pool = new ArrayList<>();
+        private final Map<String, Integer> index = new HashMap<>();
+
+        private int entry(String id, byte[] bytes) {
+            Integer existing = index.get(id);
+            if (existing != null) {
+                return existing;
+            }
+            pool.add(bytes);
+            index.put(id, pool.size());
+            return pool.size();
+        }
+
+        int utf8(String value) {
+            try {
+                ByteArrayOutputStream b = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(b);
+                out.writeByte(1);
+                out.writeUTF(value);
+                return entry("U" + value, b.toByteArray());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int classRef(String name) {
+            int n = utf8(name);
+            return entry("C" + name, new byte[] {7, (byte)(n >>> 8), (byte)n});
+        }
+
+        int nameAndType(String name, String descriptor) {
+            int n = utf8(name);
+            int d = utf8(descriptor);
+            return entry("N" + name + ":" + descriptor, new byte[] {12, (byte)(n >>> 8), (byte)n, (byte)(d >>> 8), (byte)d});
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            int c  = classRef(owner);
+            int nt = nameAndType(name, descriptor);
+            return entry(tag + owner + "." + name + ":" + descriptor,
+                    new byte[] {(byte)tag, (byte)(c >>> 8), (byte)c, (byte)(nt >>> 8), (byte)nt});
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        /**
+         * @param methods {이름, 디스크립터, Code, max_stack, max_locals}
+         */
+        byte[] toBytes(int thisClass, int superClass, int iface, String[] intArrayFields, Object[][] methods) {
+            int codeAttr = utf8("Code");
+            int[] fieldNames = new int[intArrayFields.length];
+            for (int i = 0; i < intArrayFields.length; i++) {
+                fieldNames[i] = utf8(intArrayFields[i]);
+            }
+            int fieldType = utf8("[I");
+            int[][] methodNames = new int[methods.length][];
+            for (int i = 0; i < methods.length; i++) {
+                methodNames[i] = new int[] {utf8((String) methods[i][0]), utf8((String) methods[i][1])};
+            }
+
+            try {
+                ByteArrayOutputStream b = new ByteArrayOutputStream(4096);
+                DataOutputStream out = new DataOutputStream(b);
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(55);                          // Java 11 클래스 파일
+                out.writeShort(pool.size() + 1);
+                for (byte[] e : pool) {
+                    out.write(e);
+                }
+                out.writeShort(0x0001 | 0x0010 | 0x0020);   // public final super
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);
+                out.writeShort(iface);
+
+                out.writeShort(intArrayFields.length);
+                for (int name : fieldNames) {
+                    out.writeShort(0x0002 | 0x0010);         // private final
+                    out.writeShort(name);
+                    out.writeShort(fieldType);
+                    out.writeShort(0);
+                }
+
+                out.writeShort(methods.length);
+                for (int i = 0; i < methods.length; i++) {
+                    byte[] code = ((Code) methods[i][2]).toBytes();
+                    out.writeShort(0x0001);                  // public
+                    out.writeShort(methodNames[i][0]);
+                    out.writeShort(methodNames[i][1]);
+                    out.writeShort(1);
+                    out.writeShort(codeAttr);
+                    out.writeInt(12 + code.length);
+                    out.writeShort((Integer) methods[i][3]);
+                    out.writeShort((Integer) methods[i][4]);
+                    out.writeInt(code.length);
+                    out.write(code);
+                    out.writeShort(0);                       // exception_table_length
+                    out.writeShort(0);                       // attributes_count
+                }
+
+                out.writeShort(0);                           // class attributes
+                return b.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
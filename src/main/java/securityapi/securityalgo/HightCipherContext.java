@@ -0,0 +1,478 @@
+package securityapi.securityalgo;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HIGHT 스트리밍 암/복호화 컨텍스트 (CBC, CTR). HIGHT 알고리즘의 CipherStream 구현입니다.
+ *
+ * update 로 입력을 조금씩 넘기고 doFinal 로 마무리합니다. 컨텍스트가 들고 있는 상태는 체이닝 값과
+ * 최대 한 블록의 버퍼, 고정 크기 작업 버퍼뿐이므로 입력 크기와 관계없이 메모리 사용량이 일정합니다.
+ * 힙 버퍼는 배열을 직접 처리하고, 다이렉트 버퍼는 작업 버퍼를 거쳐 처리합니다.
+ *
+ * 출력 형식은 hight_cbc / hight_ctr 의 process 결과, hight_ctr_stream 의 [nonce][암호문] 과 동일합니다.
+ * 하나의 컨텍스트는 한 스레드에서만 사용해야 합니다.
+ */
+public abstract class HightCipherContext implements CipherStream {
+
+    protected static final int BLOCK_SIZE_HIGHT = HightEngine.BLOCK_SIZE;
+
+    private static final int SCRATCH_SIZE = 8192;
+
+    protected final HightKeySchedule key;
+    private byte[] scratch;
+    private boolean finished;
+
+    protected HightCipherContext(HightKeySchedule key) {
+        this.key = key;
+    }
+
+    /**
+     * CBC 컨텍스트. 암호화는 PKCS7 패딩을 붙이고, 복호화는 HIGHT_CBC_Close 와 같은 규칙으로 패딩을 제거합니다.
+     */
+    public static HightCipherContext cbc(HightKeySchedule key, byte[] iv, boolean encryptMode) {
+        return cbc(key, iv, encryptMode, false);
+    }
+
+    /**
+     * @param legacyUnpad true 이면 복호화 결과에 hight_cbc 의 decrypt 처럼 기존 제거 규칙(HightCbcChain.unpaddedLength)을
+     *                    한 번 더 적용합니다. 이 경우 마지막 두 블록을 doFinal 까지 들고 있습니다.
+     */
+    public static HightCipherContext cbc(HightKeySchedule key, byte[] iv, boolean encryptMode, boolean legacyUnpad) {
+        checkIv(iv);
+        long chain = HightEngine.getLong(iv, 0);
+        return encryptMode ? new CbcEncrypt(key, chain) : new CbcDecrypt(key, chain, legacyUnpad);
+    }
+
+    /**
+     * CTR 컨텍스트. 암호화와 복호화가 같은 연산입니다.
+     *
+     * @param zeroPadToBlock true 이면 hight_ctr 과 같이 입력을 0x00 으로 블록 단위까지 채운 것처럼
+     *                       doFinal 에서 남은 키스트림 바이트를 출력합니다. false 이면 출력 길이가 입력과 같습니다.
+     */
+    public static HightCipherContext ctr(HightKeySchedule key, byte[] iv, boolean zeroPadToBlock) {
+        return ctr(key, iv, zeroPadToBlock, false);
+    }
+
+    /**
+     * @param encryptMode true 이면 새 값을 암호화하는 컨텍스트로 보고, iv 가 슬롯 하나짜리 counter nonce 일 수 있으므로
+     *                    입력 길이를 IvGenerator.checkCtrNonceRange 로 제한합니다. (넘으면 update 가 IllegalArgumentException)
+     */
+    public static HightCipherContext ctr(HightKeySchedule key, byte[] iv, boolean zeroPadToBlock, boolean encryptMode) {
+        checkIv(iv);
+        return new Ctr(key, HightEngine.getLong(iv, 0), zeroPadToBlock, encryptMode);
+    }
+
+    /**
+     * hight_ctr_stream 형식([nonce 8바이트][평문과 같은 길이의 암호문]) CTR 컨텍스트.
+     * 암호화는 새 nonce(IvGenerator.nextCtrNonce)를 만들어 첫 출력 앞에 쓰고, 복호화는 입력 앞 8바이트를 nonce 로 읽습니다.
+     * 암호화할 전체 길이를 미리 알 수 없으므로 nonce 는 슬롯 하나만 예약하고, 입력 길이는 IvGenerator.checkCtrNonceRange 로 제한합니다.
+     */
+    public static HightCipherContext ctrWithNonce(HightKeySchedule key, boolean encryptMode) {
+        return new NonceCtr(key, encryptMode);
+    }
+
+    private static void checkIv(byte[] iv) {
+        if (iv == null || iv.length != BLOCK_SIZE_HIGHT) {
+            throw new IllegalArgumentException("HIGHT IV must be 8 bytes.");
+        }
+    }
+
+    /**
+     * in 의 남은 바이트를 모두 처리하고, 만들어진 출력을 out 에 씁니다.
+     *
+     * @return out 에 쓴 바이트 수
+     * @throws BufferOverflowException out 의 남은 공간이 getOutputSize(in.remaining()) 보다 작을 때 (입력은 소비되지 않음)
+     */
+    @Override
+    public final int update(ByteBuffer in, ByteBuffer out) {
+        checkNotFinished();
+        ensureCapacity(out, updateOutputSize(in.remaining()));
+        return engineUpdate(in, out);
+    }
+
+    /**
+     * 남은 입력을 처리하고 패딩/마지막 블록까지 출력합니다. 이후 컨텍스트는 다시 사용할 수 없습니다.
+     *
+     * @return out 에 쓴 바이트 수
+     */
+    @Override
+    public final int doFinal(ByteBuffer in, ByteBuffer out) {
+        checkNotFinished();
+        ensureCapacity(out, getOutputSize(in.remaining()));
+        int written = engineUpdate(in, out);
+        written += engineFinish(out);
+        finished = true;
+        return written;
+    }
+
+    /**
+     * doFinal 이 정상적으로 끝났는지 여부
+     */
+    @Override
+    public final boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 지금까지 버퍼에 남은 바이트와 inputLen 을 더해 doFinal 이 만들 수 있는 최대 출력 길이.
+     */
+    @Override
+    public abstract int getOutputSize(int inputLen);
+
+    /**
+     * update(inputLen 바이트) 가 만들 수 있는 최대 출력 길이.
+     */
+    protected abstract int updateOutputSize(int inputLen);
+
+    protected abstract int engineUpdate(ByteBuffer in, ByteBuffer out);
+
+    protected abstract int engineFinish(ByteBuffer out);
+
+    /**
+     * len 바이트(블록 배수)를 배열 단위로 처리합니다. 하위 클래스는 여기서 체이닝 상태를 갱신합니다.
+     */
+    protected abstract void processBlocks(byte[] in, int in_offset, byte[] out, int out_offset, int len);
+
+    /**
+     * in 에서 len 바이트(블록 배수)를 읽어 processBlocks 로 처리한 뒤 out 에 씁니다.
+     * 둘 다 같은 배열을 쓰지 않는 힙 버퍼면 복사 없이 처리하고, 그 외에는 작업 버퍼를 거칩니다.
+     */
+    protected final void bulk(ByteBuffer in, ByteBuffer out, int len) {
+        if (len <= 0) {
+            return;
+        }
+
+        if (in.hasArray() && out.hasArray() && !out.isReadOnly() && in.array() != out.array()) {
+            int inPos  = in.position();
+            int outPos = out.position();
+            processBlocks(in.array(), in.arrayOffset() + inPos, out.array(), out.arrayOffset() + outPos, len);
+            in.position(inPos + len);
+            out.position(outPos + len);
+            return;
+        }
+
+        byte[] buf = scratch();
+        while (len > 0) {
+            int n = Math.min(len, buf.length);
+            in.get(buf, 0, n);
+            processBlocks(buf, 0, buf, 0, n);
+            out.put(buf, 0, n);
+            len -= n;
+        }
+    }
+
+    private byte[] scratch() {
+        if (scratch == null) {
+            scratch = new byte[SCRATCH_SIZE];
+        }
+        return scratch;
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("HIGHT cipher context has already been finished.");
+        }
+    }
+
+    private static void ensureCapacity(ByteBuffer out, int needed) {
+        if (out.remaining() < needed) {
+            throw new BufferOverflowException();
+        }
+    }
+
+    private static final class CbcEncrypt extends HightCipherContext {
+        private final byte[] pending = new byte[BLOCK_SIZE_HIGHT];
+        private int pendingLength;
+        private long chain;
+
+        CbcEncrypt(HightKeySchedule key, long iv) {
+            super(key);
+            this.chain = iv;
+        }
+
+        @Override
+        public int getOutputSize(int inputLen) {
+            return (pendingLength + inputLen) / BLOCK_SIZE_HIGHT * BLOCK_SIZE_HIGHT + BLOCK_SIZE_HIGHT;
+        }
+
+        @Override
+        protected int updateOutputSize(int inputLen) {
+            return (pendingLength + inputLen) / BLOCK_SIZE_HIGHT * BLOCK_SIZE_HIGHT;
+        }
+
+        @Override
+        protected void processBlocks(byte[] in, int in_offset, byte[] out, int out_offset, int len) {
+            chain = HightCbcChain.encrypt(key, chain, in, in_offset, out, out_offset, len);
+        }
+
+        @Override
+        protected int engineUpdate(ByteBuffer in, ByteBuffer out) {
+            int written = 0;
+
+            if (pendingLength > 0) {
+                int n = Math.min(in.remaining(), BLOCK_SIZE_HIGHT - pendingLength);
+                in.get(pending, pendingLength, n);
+                pendingLength += n;
+                if (pendingLength < BLOCK_SIZE_HIGHT) {
+                    return 0;
+                }
+                processBlocks(pending, 0, pending, 0, BLOCK_SIZE_HIGHT);
+                out.put(pending, 0, BLOCK_SIZE_HIGHT);
+                pendingLength = 0;
+                written += BLOCK_SIZE_HIGHT;
+            }
+
+            int full = in.remaining() & ~(BLOCK_SIZE_HIGHT - 1);
+            bulk(in, out, full);
+            written += full;
+
+            pendingLength = in.remaining();
+            in.get(pending, 0, pendingLength);
+            return written;
+        }
+
+        @Override
+        protected int engineFinish(ByteBuffer out) {
+            byte nPaddingLeng = (byte)(BLOCK_SIZE_HIGHT - pendingLength);
+            for (int i = pendingLength; i < BLOCK_SIZE_HIGHT; i++) {
+                pending[i] = nPaddingLeng;
+            }
+            processBlocks(pending, 0, pending, 0, BLOCK_SIZE_HIGHT);
+            out.put(pending, 0, BLOCK_SIZE_HIGHT);
+            pendingLength = 0;
+            return BLOCK_SIZE_HIGHT;
+        }
+    }
+
+    private static final class CbcDecrypt extends HightCipherContext {
+        // 패딩 제거를 위해 마지막 블록은 doFinal 까지 내보내지 않고 들고 있습니다.
+        // legacyUnpad 이면 두 번째 제거가 닿을 수 있도록 마지막 두 블록을 들고 있습니다.
+        private final boolean legacyUnpad;
+        private final int held;
+        private final byte[] pending;
+        private int pendingLength;
+        private long chain;
+
+        CbcDecrypt(HightKeySchedule key, long iv, boolean legacyUnpad) {
+            super(key);
+            this.chain       = iv;
+            this.legacyUnpad = legacyUnpad;
+            this.held        = legacyUnpad ? 2 * BLOCK_SIZE_HIGHT : BLOCK_SIZE_HIGHT;
+            this.pending     = new byte[this.held];
+        }
+
+        @Override
+        public int getOutputSize(int inputLen) {
+            return pendingLength + inputLen;
+        }
+
+        @Override
+        protected int updateOutputSize(int inputLen) {
+            return releasable(pendingLength + inputLen);
+        }
+
+        // 입력이 total 바이트일 때 내보낼 수 있는 바이트 (블록 배수). 마지막 held 바이트 안쪽은 남깁니다.
+        private int releasable(int total) {
+            return Math.max(0, total - held + BLOCK_SIZE_HIGHT - 1) & ~(BLOCK_SIZE_HIGHT - 1);
+        }
+
+        @Override
+        protected void processBlocks(byte[] in, int in_offset, byte[] out, int out_offset, int len) {
+            chain = HightCbcChain.decrypt(key, chain, in, in_offset, out, out_offset, len);
+        }
+
+        @Override
+        protected int engineUpdate(ByteBuffer in, ByteBuffer out) {
+            int release = releasable(pendingLength + in.remaining());
+            int written = release;
+
+            // 들고 있던 바이트부터 블록 단위로 내보냅니다.
+            while (release > 0 && pendingLength > 0) {
+                if (pendingLength < BLOCK_SIZE_HIGHT) {
+                    int n = BLOCK_SIZE_HIGHT - pendingLength;
+                    in.get(pending, pendingLength, n);
+                    pendingLength += n;
+                }
+                processBlocks(pending, 0, pending, 0, BLOCK_SIZE_HIGHT);
+                out.put(pending, 0, BLOCK_SIZE_HIGHT);
+                pendingLength -= BLOCK_SIZE_HIGHT;
+                System.arraycopy(pending, BLOCK_SIZE_HIGHT, pending, 0, pendingLength);
+                release -= BLOCK_SIZE_HIGHT;
+            }
+            bulk(in, out, release);
+
+            int n = in.remaining();
+            in.get(pending, pendingLength, n);
+            pendingLength += n;
+            return written;
+        }
+
+        @Override
+        protected int engineFinish(ByteBuffer out) {
+            if (pendingLength == 0 || pendingLength % BLOCK_SIZE_HIGHT != 0) {
+                throw new IllegalArgumentException("HIGHT-CBC ciphertext length must be a positive multiple of 8 bytes.");
+            }
+            processBlocks(pending, 0, pending, 0, pendingLength);
+
+            int nPaddingLeng = HightCbcChain.paddingLength(pending, 0, pendingLength);
+            if (nPaddingLeng < 0) {
+                throw new IllegalArgumentException("Invalid HIGHT-CBC padding.");
+            }
+            int length = pendingLength - nPaddingLeng;
+            if (legacyUnpad) {
+                length = HightCbcChain.unpaddedLength(pending, length);
+            }
+            out.put(pending, 0, length);
+            Arrays.fill(pending, (byte) 0);
+            pendingLength = 0;
+            return length;
+        }
+    }
+
+    private static final class Ctr extends HightCipherContext {
+        private final boolean zeroPadToBlock;
+        // 입력 길이를 IvGenerator.checkCtrNonceRange 로 제한할지 (암호화)
+        private final boolean checkNonceRange;
+        private long processed;
+        private long counter;
+        // 부분 블록에서 쓰고 남은 키스트림 (ksOffset == 8 이면 없음)
+        private long keystream;
+        private int ksOffset = BLOCK_SIZE_HIGHT;
+
+        Ctr(HightKeySchedule key, long counter, boolean zeroPadToBlock, boolean checkNonceRange) {
+            super(key);
+            this.counter         = counter;
+            this.zeroPadToBlock  = zeroPadToBlock;
+            this.checkNonceRange = checkNonceRange;
+        }
+
+        @Override
+        public int getOutputSize(int inputLen) {
+            if (!zeroPadToBlock) {
+                return inputLen;
+            }
+            int leftover = (ksOffset == BLOCK_SIZE_HIGHT) ? 0 : BLOCK_SIZE_HIGHT - ksOffset;
+            if (inputLen <= leftover) {
+                return leftover;
+            }
+            int rest = inputLen - leftover;
+            return leftover + (rest + BLOCK_SIZE_HIGHT - 1) / BLOCK_SIZE_HIGHT * BLOCK_SIZE_HIGHT;
+        }
+
+        @Override
+        protected int updateOutputSize(int inputLen) {
+            return inputLen;
+        }
+
+        @Override
+        protected void processBlocks(byte[] in, int in_offset, byte[] out, int out_offset, int len) {
+            counter = HightCtrKeystream.apply(key, counter, in, in_offset, out, out_offset, len);
+        }
+
+        @Override
+        protected int engineUpdate(ByteBuffer in, ByteBuffer out) {
+            int written = in.remaining();
+            if (checkNonceRange) {
+                // 입력을 소비하기 전에 확인합니다.
+                IvGenerator.checkCtrNonceRange(processed + written);
+                processed += written;
+            }
+
+            while (ksOffset < BLOCK_SIZE_HIGHT && in.hasRemaining()) {
+                out.put((byte)(in.get() ^ (keystream >>> (56 - 8 * ksOffset))));
+                ksOffset++;
+            }
+
+            bulk(in, out, in.remaining() & ~(BLOCK_SIZE_HIGHT - 1));
+
+            if (in.hasRemaining()) {
+                keystream = HightEngine.encryptBlock(key, counter);
+                counter   = HightCtrKeystream.nextCounter(counter);
+                ksOffset  = 0;
+                while (in.hasRemaining()) {
+                    out.put((byte)(in.get() ^ (keystream >>> (56 - 8 * ksOffset))));
+                    ksOffset++;
+                }
+            }
+            return written;
+        }
+
+        @Override
+        protected int engineFinish(ByteBuffer out) {
+            if (!zeroPadToBlock || ksOffset == BLOCK_SIZE_HIGHT) {
+                return 0;
+            }
+            // 0x00 패딩 바이트를 암호화한 값 = 남은 키스트림
+            int written = BLOCK_SIZE_HIGHT - ksOffset;
+            while (ksOffset < BLOCK_SIZE_HIGHT) {
+                out.put((byte)(keystream >>> (56 - 8 * ksOffset)));
+                ksOffset++;
+            }
+            return written;
+        }
+    }
+
+    // [nonce][암호문] 형식. nonce 를 쓰거나 읽은 뒤의 처리는 Ctr 에 맡깁니다.
+    private static final class NonceCtr extends HightCipherContext {
+        private final boolean encryptMode;
+        private final byte[] nonce = new byte[BLOCK_SIZE_HIGHT];
+        // 지금까지 쓰거나(암호화) 읽은(복호화) nonce 바이트 수
+        private int nonceLength;
+        private Ctr body;
+
+        NonceCtr(HightKeySchedule key, boolean encryptMode) {
+            super(key);
+            this.encryptMode = encryptMode;
+            if (encryptMode) {
+                IvGenerator.nextCtrNonce(nonce, 0, 0);
+                body = new Ctr(key, HightEngine.getLong(nonce, 0), false, true);
+            }
+        }
+
+        @Override
+        public int getOutputSize(int inputLen) {
+            int pending = BLOCK_SIZE_HIGHT - nonceLength;
+            return encryptMode ? pending + inputLen : Math.max(0, inputLen - pending);
+        }
+
+        @Override
+        protected int updateOutputSize(int inputLen) {
+            return getOutputSize(inputLen);
+        }
+
+        @Override
+        protected void processBlocks(byte[] in, int in_offset, byte[] out, int out_offset, int len) {
+            body.processBlocks(in, in_offset, out, out_offset, len);
+        }
+
+        @Override
+        protected int engineUpdate(ByteBuffer in, ByteBuffer out) {
+            int written = 0;
+            if (encryptMode && nonceLength < BLOCK_SIZE_HIGHT) {
+                out.put(nonce, nonceLength, BLOCK_SIZE_HIGHT - nonceLength);
+                written += BLOCK_SIZE_HIGHT - nonceLength;
+                nonceLength = BLOCK_SIZE_HIGHT;
+            }
+            while (!encryptMode && nonceLength < BLOCK_SIZE_HIGHT && in.hasRemaining()) {
+                nonce[nonceLength++] = in.get();
+                if (nonceLength == BLOCK_SIZE_HIGHT) {
+                    body = new Ctr(key, HightEngine.getLong(nonce, 0), false, false);
+                }
+            }
+            if (body != null) {
+                written += body.engineUpdate(in, out);
+            }
+            return written;
+        }
+
+        @Override
+        protected int engineFinish(ByteBuffer out) {
+            if (nonceLength < BLOCK_SIZE_HIGHT) {
+                throw new IllegalArgumentException("HIGHT-CTR ciphertext is shorter than its nonce.");
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package securityapi.securityalgo;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.security.AlgorithmParameters;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.InvalidParameterSpecException;
+import java.util.Arrays;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.CipherSpi;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+
+/**
+ * HightProvider 가 등록하는 CipherSpi 구현
+ *
+ * 실제 처리는 HightCipherContext 가 하고, 여기서는 JCA 규약(초기화, 예외 변환, doFinal 후 재사용)만 맞춥니다.
+ * doFinal 이 끝나면 같은 키와 IV 로 다시 초기화된 상태가 됩니다.
+ */
+public abstract class HightCipherSpi extends CipherSpi {
+
+    private static final int BLOCK_SIZE_HIGHT = HightEngine.BLOCK_SIZE;
+
+    private final String mode;
+    private final String padding;
+
+    private HightKeySchedule key;
+    private byte[] iv;
+    private boolean encryptMode;
+    private HightCipherContext context;
+    // 현재 컨텍스트에 넘긴 입력 바이트 수 (CBC 복호화 길이 검사용)
+    private long consumed;
+
+    protected HightCipherSpi(String mode, String padding) {
+        this.mode    = mode;
+        this.padding = padding;
+    }
+
+    protected abstract HightCipherContext newContext(HightKeySchedule key, byte[] iv, boolean encryptMode);
+
+    /**
+     * doFinal 에 넘어온 전체 입력 길이가 이 모드에서 허용되지 않으면 IllegalBlockSizeException 을 던집니다.
+     */
+    protected void checkFinalLength(long totalLength, boolean encryptMode) throws IllegalBlockSizeException {
+    }
+
+    public static final class Cbc extends HightCipherSpi {
+        public Cbc() {
+            super("CBC", "PKCS5Padding");
+        }
+
+        @Override
+        protected HightCipherContext newContext(HightKeySchedule key, byte[] iv, boolean encryptMode) {
+            return HightCipherContext.cbc(key, iv, encryptMode);
+        }
+
+        @Override
+        protected void checkFinalLength(long totalLength, boolean encryptMode) throws IllegalBlockSizeException {
+            if (!encryptMode && (totalLength == 0 || totalLength % BLOCK_SIZE_HIGHT != 0)) {
+                throw new IllegalBlockSizeException("HIGHT-CBC ciphertext length must be a positive multiple of 8 bytes.");
+            }
+        }
+    }
+
+    public static final class Ctr extends HightCipherSpi {
+        public Ctr() {
+            super("CTR", "NoPadding");
+        }
+
+        @Override
+        protected HightCipherContext newContext(HightKeySchedule key, byte[] iv, boolean encryptMode) {
+            return HightCipherContext.ctr(key, iv, false);
+        }
+    }
+
+    @Override
+    protected void engineSetMode(String mode) throws NoSuchAlgorithmException {
+        if (!this.mode.equalsIgnoreCase(mode)) {
+            throw new NoSuchAlgorithmException("Unsupported HIGHT mode: " + mode);
+        }
+    }
+
+    @Override
+    protected void engineSetPadding(String padding) throws NoSuchPaddingException {
+        boolean pkcs = "PKCS5Padding".equalsIgnoreCase(padding) || "PKCS7Padding".equalsIgnoreCase(padding);
+        if (!(this.padding.equalsIgnoreCase(padding) || ("PKCS5Padding".equals(this.padding) && pkcs))) {
+            throw new NoSuchPaddingException("Unsupported HIGHT padding: " + padding);
+        }
+    }
+
+    @Override
+    protected int engineGetBlockSize() {
+        return BLOCK_SIZE_HIGHT;
+    }
+
+    @Override
+    protected int engineGetOutputSize(int inputLen) {
+        return context == null ? inputLen + BLOCK_SIZE_HIGHT : context.getOutputSize(inputLen);
+    }
+
+    @Override
+    protected byte[] engineGetIV() {
+        return iv == null ? null : iv.clone();
+    }
+
+    @Override
+    protected AlgorithmParameters engineGetParameters() {
+        // HIGHT 용 AlgorithmParameters 는 등록하지 않으므로 IV 는 getIV() 로 가져갑니다.
+        return null;
+    }
+
+    @Override
+    protected int engineGetKeySize(Key key) throws InvalidKeyException {
+        return rawKey(key).length * 8;
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, SecureRandom random) throws InvalidKeyException {
+        try {
+            engineInit(opmode, key, (AlgorithmParameterSpec) null, random);
+        } catch (InvalidAlgorithmParameterException e) {
+            throw new InvalidKeyException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, AlgorithmParameters params, SecureRandom random)
+            throws InvalidKeyException, InvalidAlgorithmParameterException {
+        IvParameterSpec spec = null;
+        if (params != null) {
+            try {
+                spec = params.getParameterSpec(IvParameterSpec.class);
+            } catch (InvalidParameterSpecException e) {
+                throw new InvalidAlgorithmParameterException("HIGHT requires IvParameterSpec.", e);
+            }
+        }
+        engineInit(opmode, key, spec, random);
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, AlgorithmParameterSpec params, SecureRandom random)
+            throws InvalidKeyException, InvalidAlgorithmParameterException {
+        boolean encrypt;
+        if (opmode == Cipher.ENCRYPT_MODE) {
+            encrypt = true;
+        } else if (opmode == Cipher.DECRYPT_MODE) {
+            encrypt = false;
+        } else {
+            throw new InvalidAlgorithmParameterException("Unsupported HIGHT cipher mode: " + opmode);
+        }
+
+        byte[] ivBytes;
+        if (params instanceof IvParameterSpec) {
+            ivBytes = ((IvParameterSpec) params).getIV();
+            if (ivBytes.length != BLOCK_SIZE_HIGHT) {
+                throw new InvalidAlgorithmParameterException("HIGHT IV must be 8 bytes.");
+            }
+        } else if (params != null) {
+            throw new InvalidAlgorithmParameterException("HIGHT requires IvParameterSpec.");
+        } else if (encrypt) {
+            ivBytes = new byte[BLOCK_SIZE_HIGHT];
+            (random != null ? random : new SecureRandom()).nextBytes(ivBytes);
+        } else {
+            throw new InvalidAlgorithmParameterException("HIGHT decryption requires an IV.");
+        }
+
+        this.key         = HightKeySchedule.of(rawKey(key));
+        this.iv          = ivBytes;
+        this.encryptMode = encrypt;
+        reset();
+    }
+
+    @Override
+    protected byte[] engineUpdate(byte[] input, int inputOffset, int inputLen) {
+        checkInitialized();
+        byte[] out = new byte[context.getOutputSize(inputLen)];
+        ByteBuffer dst = ByteBuffer.wrap(out);
+        update(ByteBuffer.wrap(input, inputOffset, inputLen), dst);
+        return dst.position() == out.length ? out : Arrays.copyOf(out, dst.position());
+    }
+
+    @Override
+    protected int engineUpdate(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset)
+            throws ShortBufferException {
+        checkInitialized();
+        try {
+            return update(ByteBuffer.wrap(input, inputOffset, inputLen), ByteBuffer.wrap(output, outputOffset, output.length - outputOffset));
+        } catch (BufferOverflowException e) {
+            throw new ShortBufferException("Output buffer too short for HIGHT update.");
+        }
+    }
+
+    @Override
+    protected int engineUpdate(ByteBuffer input, ByteBuffer output) throws ShortBufferException {
+        checkInitialized();
+        try {
+            return update(input, output);
+        } catch (BufferOverflowException e) {
+            throw new ShortBufferException("Output buffer too short for HIGHT update.");
+        }
+    }
+
+    @Override
+    protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen)
+            throws IllegalBlockSizeException, BadPaddingException {
+        checkInitialized();
+        byte[] out = new byte[context.getOutputSize(inputLen)];
+        ByteBuffer dst = ByteBuffer.wrap(out);
+        doFinal(input == null ? ByteBuffer.allocate(0) : ByteBuffer.wrap(input, inputOffset, inputLen), dst);
+        return dst.position() == out.length ? out : Arrays.copyOf(out, dst.position());
+    }
+
+    @Override
+    protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        checkInitialized();
+        try {
+            return doFinal(input == null ? ByteBuffer.allocate(0) : ByteBuffer.wrap(input, inputOffset, inputLen),
+                           ByteBuffer.wrap(output, outputOffset, output.length - outputOffset));
+        } catch (BufferOverflowException e) {
+            throw new ShortBufferException("Output buffer too short for HIGHT doFinal.");
+        }
+    }
+
+    @Override
+    protected int engineDoFinal(ByteBuffer input, ByteBuffer output)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        checkInitialized();
+        try {
+            return doFinal(input, output);
+        } catch (BufferOverflowException e) {
+            throw new ShortBufferException("Output buffer too short for HIGHT doFinal.");
+        }
+    }
+
+    private int update(ByteBuffer input, ByteBuffer output) {
+        int length = input.remaining();
+        int written = context.update(input, output);
+        consumed += length;
+        return written;
+    }
+
+    private int doFinal(ByteBuffer input, ByteBuffer output) throws IllegalBlockSizeException, BadPaddingException {
+        checkFinalLength(consumed + input.remaining(), encryptMode);
+        try {
+            return context.doFinal(input, output);
+        } catch (IllegalArgumentException e) {
+            // 길이는 위에서 확인했으므로 여기서는 패딩 오류만 남습니다.
+            reset();
+            throw new BadPaddingException(e.getMessage());
+        } finally {
+            if (context.isFinished()) {
+                reset();
+            }
+        }
+    }
+
+    private void reset() {
+        this.context  = newContext(key, iv, encryptMode);
+        this.consumed = 0;
+    }
+
+    private void checkInitialized() {
+        if (context == null) {
+            throw new IllegalStateException("HIGHT cipher not initialized.");
+        }
+    }
+
+    private static byte[] rawKey(Key key) throws InvalidKeyException {
+        if (key == null || !"RAW".equalsIgnoreCase(key.getFormat())) {
+            throw new InvalidKeyException("HIGHT requires a RAW secret key.");
+        }
+        byte[] raw = key.getEncoded();
+        if (raw == null || raw.length != 16) {
+            throw new InvalidKeyException("HIGHT key must be 16 bytes.");
+        }
+        return raw;
+    }
+}
@@ -0,0 +1,192 @@
+package securityapi.securityalgo;
+
+/**
+ * 여러 개의 짧은 값을 한 번에 처리하는 HIGHT CTR 커널
+ *
+ * 10~60 바이트 값은 블록이 2~8개뿐이라 값마다 따로 처리하면 호출 비용과 블록 간 의존성이 대부분을 차지합니다.
+ * 여기서는 N 개의 (키 스케줄, 카운터, 입력) 묶음의 블록을 순서대로 모아 8개씩 HightMultiBlock 레인에
+ * 채워 넣고 한 번에 암호화합니다. 서로 다른 값(서로 다른 키)의 블록이 한 묶음에 섞여도 됩니다.
+ * 8개가 안 되는 나머지 블록은 HightEngine 으로 처리합니다.
+ *
+ * 결과는 값마다 HightCtrKeystream.apply 를 호출한 것과 동일합니다.
+ * hight_ctr_stream 의 encryptBatch/decryptBatch 가 값마다 붙인 nonce 를 카운터로 삼아 이 커널로 한 행을 처리합니다.
+ */
+public final class HightCtrBatch {
+
+    private static final int BLOCK_SIZE_HIGHT = HightEngine.BLOCK_SIZE;
+    private static final int LANES = HightMultiBlock.LANES;
+
+    private HightCtrBatch() {
+    }
+
+    /**
+     * inputs[i] 를 keys[i], counters[i] 로 만든 키스트림과 XOR 해서 outputs[i] 에 씁니다.
+     * outputs[i] 는 inputs[i] 이상 길이여야 하며 inputs[i] 와 같은 배열이어도 됩니다.
+     * 마지막 블록이 8바이트보다 짧으면 필요한 바이트만 XOR 합니다.
+     */
+    public static void apply(HightKeySchedule[] keys, long[] counters, byte[][] inputs, byte[][] outputs) {
+        int n = inputs.length;
+        if (keys.length != n || counters.length != n || outputs.length != n) {
+            throw new IllegalArgumentException("HIGHT CTR batch arrays must have the same length.");
+        }
+
+        // 레인마다 (값 번호, 값 안에서의 바이트 위치)
+        long[] lanes      = new long[LANES];
+        int[] laneMessage = new int[LANES];
+        int[] laneOffset  = new int[LANES];
+        HightKeySchedule[] laneKey = new HightKeySchedule[LANES];
+        // 레인마다 키가 다를 때 쓰는 레인별 라운드 키
+        long[] mixedRk = null;
+        long[] mixedWk = null;
+        int filled = 0;
+
+        for (int m = 0; m < n; m++) {
+            byte[] in = inputs[m];
+            long counter = counters[m];
+
+            for (int offset = 0; offset < in.length; offset += BLOCK_SIZE_HIGHT) {
+                lanes[filled]       = counter;
+                laneMessage[filled] = m;
+                laneOffset[filled]  = offset;
+                laneKey[filled]     = keys[m];
+                counter = HightCtrKeystream.nextCounter(counter);
+
+                if (++filled == LANES) {
+                    if (sameKey(laneKey)) {
+                        HightMultiBlock.encrypt(laneKey[0], lanes, 0);
+                    } else {
+                        if (mixedRk == null) {
+                            mixedRk = new long[laneKey[0].rkLanes.length];
+                            mixedWk = new long[laneKey[0].wkLanes.length];
+                        }
+                        mix(laneKey, mixedRk, mixedWk);
+                        HightMultiBlock.encrypt(mixedRk, mixedWk, lanes, 0);
+                    }
+                    for (int l = 0; l < LANES; l++) {
+                        xor(lanes[l], inputs[laneMessage[l]], outputs[laneMessage[l]], laneOffset[l]);
+                    }
+                    filled = 0;
+                }
+            }
+        }
+
+        for (int l = 0; l < filled; l++) {
+            long ks = HightEngine.encryptBlock(laneKey[l], lanes[l]);
+            xor(ks, inputs[laneMessage[l]], outputs[laneMessage[l]], laneOffset[l]);
+        }
+    }
+
+    /**
+     * 같은 키로 여러 구간을 제자리에서 처리합니다. 구간 i 는 buffers[i][offsets[i], offsets[i]+lengths[i]) 이고
+     * counters[i] 부터의 키스트림과 XOR 합니다. 여러 구간이 같은 배열을 써도 됩니다. (EncryptionService 의 한 행 버퍼)
+     */
+    public static void apply(HightKeySchedule key, long[] counters, byte[][] buffers, int[] offsets, int[] lengths) {
+        int n = buffers.length;
+        if (counters.length != n || offsets.length != n || lengths.length != n) {
+            throw new IllegalArgumentException("HIGHT CTR batch arrays must have the same length.");
+        }
+
+        // 레인마다 (구간 번호, 버퍼 안의 바이트 위치)
+        long[] lanes      = new long[LANES];
+        int[] laneMessage = new int[LANES];
+        int[] laneOffset  = new int[LANES];
+        int filled = 0;
+
+        for (int m = 0; m < n; m++) {
+            long counter = counters[m];
+            int end = offsets[m] + lengths[m];
+
+            for (int offset = offsets[m]; offset < end; offset += BLOCK_SIZE_HIGHT) {
+                lanes[filled]       = counter;
+                laneMessage[filled] = m;
+                laneOffset[filled]  = offset;
+                counter = HightCtrKeystream.nextCounter(counter);
+
+                if (++filled == LANES) {
+                    HightMultiBlock.encrypt(key, lanes, 0);
+                    for (int l = 0; l < LANES; l++) {
+                        int message = laneMessage[l];
+                        xor(lanes[l], buffers[message], laneOffset[l], offsets[message] + lengths[message]);
+                    }
+                    filled = 0;
+                }
+            }
+        }
+
+        for (int l = 0; l < filled; l++) {
+            int message = laneMessage[l];
+            xor(HightEngine.encryptBlock(key, lanes[l]), buffers[message], laneOffset[l], offsets[message] + lengths[message]);
+        }
+    }
+
+    /**
+     * 같은 키로 여러 값을 처리하고 hight_ctr 출력 형식(블록 단위 0x00 패딩)으로 돌려줍니다.
+     * 각 값은 ivs[i] 를 초기 카운터로 사용합니다.
+     */
+    public static byte[][] applyPadded(HightKeySchedule key, byte[][] ivs, byte[][] messages) {
+        int n = messages.length;
+        HightKeySchedule[] keys = new HightKeySchedule[n];
+        long[] counters = new long[n];
+        byte[][] outputs = new byte[n][];
+
+        for (int i = 0; i < n; i++) {
+            int nPadding = (BLOCK_SIZE_HIGHT - (messages[i].length % BLOCK_SIZE_HIGHT)) % BLOCK_SIZE_HIGHT;
+            outputs[i]  = new byte[messages[i].length + nPadding];
+            System.arraycopy(messages[i], 0, outputs[i], 0, messages[i].length);
+            keys[i]     = key;
+            counters[i] = HightEngine.getLong(ivs[i], 0);
+        }
+
+        apply(keys, counters, outputs, outputs);
+        return outputs;
+    }
+
+    private static boolean sameKey(HightKeySchedule[] laneKey) {
+        for (int l = 1; l < LANES; l++) {
+            if (laneKey[l] != laneKey[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 레인 l 의 바이트 위치(56 - 8l)에 laneKey[l] 의 키 바이트를 넣습니다.
+    private static void mix(HightKeySchedule[] laneKey, long[] rk, long[] wk) {
+        for (int j = 0; j < rk.length; j++) {
+            long v = 0;
+            for (int l = 0; l < LANES; l++) {
+                v |= (long) laneKey[l].rk[j] << (56 - 8 * l);
+            }
+            rk[j] = v;
+        }
+        for (int j = 0; j < wk.length; j++) {
+            long v = 0;
+            for (int l = 0; l < LANES; l++) {
+                v |= (long) laneKey[l].wk[j] << (56 - 8 * l);
+            }
+            wk[j] = v;
+        }
+    }
+
+    // buffer[offset, min(offset+8, end)) 를 제자리에서 XOR
+    private static void xor(long ks, byte[] buffer, int offset, int end) {
+        if (end - offset >= BLOCK_SIZE_HIGHT) {
+            HightEngine.putLong(buffer, offset, HightEngine.getLong(buffer, offset) ^ ks);
+            return;
+        }
+        for (int i = offset, shift = 56; i < end; i++, shift -= 8) {
+            buffer[i] = (byte)(buffer[i] ^ (ks >>> shift));
+        }
+    }
+
+    private static void xor(long ks, byte[] in, byte[] out, int offset) {
+        int end = Math.min(in.length, offset + BLOCK_SIZE_HIGHT);
+        if (end - offset == BLOCK_SIZE_HIGHT) {
+            HightEngine.putLong(out, offset, HightEngine.getLong(in, offset) ^ ks);
+            return;
+        }
+        for (int i = offset, shift = 56; i < end; i++, shift -= 8) {
+            out[i] = (byte)(in[i] ^ (ks >>> shift));
+        }
+    }
+}
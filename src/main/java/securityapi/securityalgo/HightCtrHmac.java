@@ -0,0 +1,136 @@
+package securityapi.securityalgo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * HIGHT-CTR(블록 패딩 없음) + HMAC-SHA256 인증 암호화
+ *
+ * 저장 형식: [nonce 8바이트][암호문 (평문과 같은 길이)][태그 16바이트]
+ * 키스트림은 값마다 새로 만든 nonce 에서 시작하므로 한 행의 컬럼들이 키스트림을 공유하지 않습니다.
+ * 태그 = HMAC-SHA256(macKey, 알고리즘 id || 컬럼 이름 || 행 IV || nonce || 암호문) 의 앞 16바이트
+ *        (알고리즘 id 와 컬럼 이름은 4바이트 길이 + UTF-8, 컬럼 이름은 소문자로 정규화)
+ * 그래서 값과 태그를 다른 컬럼이나 다른 행(IV 가 다른)으로 옮기면 검증에 실패합니다.
+ * macKey = HMAC-SHA256(HIGHT 키, "HIGHT-CTR-HMAC-SHA256") 으로 HIGHT 키와 분리합니다.
+ *
+ * 키스트림 XOR 와 MAC 갱신을 CHUNK_SIZE 단위로 번갈아 수행하므로 데이터는 한 번만 훑습니다.
+ * 복호화는 암호문을 MAC 에 넣은 직후 같은 구간을 제자리 복호화하고, 마지막에 태그를 비교합니다.
+ * 태그가 다르면 복호화된 내용을 지우고 IllegalArgumentException 을 던집니다.
+ */
+public final class HightCtrHmac {
+
+    public static final int NONCE_LENGTH = HightEngine.BLOCK_SIZE;
+    public static final int TAG_LENGTH = 16;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] MAC_KEY_LABEL = "HIGHT-CTR-HMAC-SHA256".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ALGORITHM_ID = EncryptionService.HIGHT_CTR_HMAC.getBytes(StandardCharsets.UTF_8);
+    // L1 캐시 안에서 XOR 와 MAC 이 같은 구간을 다루도록 하는 처리 단위 (블록 크기의 배수)
+    private static final int CHUNK_SIZE = 4096;
+
+    private final HightKeySchedule key;
+    private final SecretKeySpec macKey;
+    // Mac 은 스레드 안전하지 않으므로 스레드마다 하나씩 초기화해 둡니다.
+    private final ThreadLocal<Mac> macs;
+
+    public HightCtrHmac(HightKeySchedule key, byte[] userKey) {
+        this.key = key;
+        this.macKey = deriveKey(userKey, MAC_KEY_LABEL);
+        this.macs = ThreadLocal.withInitial(() -> newMac(this.macKey));
+    }
+
+    /**
+     * buffer[offset, offset+8) 에 새 nonce 를 쓰고, 그 뒤 length 바이트의 평문을 제자리에서 암호화한 다음
+     * 바로 뒤 TAG_LENGTH 바이트에 태그를 씁니다.
+     *
+     * @param iv     행의 IV (태그에만 들어감)
+     * @param column 값이 저장되는 컬럼 이름 (null 이면 빈 이름)
+     */
+    public void seal(byte[] iv, String column, byte[] buffer, int offset, int length) {
+        IvGenerator.nextCtrNonce(buffer, offset, length);
+        Mac mac = start(iv, column, buffer, offset);
+
+        long counter = HightEngine.getLong(buffer, offset);
+        int body = offset + NONCE_LENGTH;
+        for (int done = 0; done < length; done += CHUNK_SIZE) {
+            int n = Math.min(CHUNK_SIZE, length - done);
+            counter = HightCtrKeystream.apply(this.key, counter, buffer, body + done, buffer, body + done, n);
+            mac.update(buffer, body + done, n);
+        }
+        writeTag(mac, buffer, body + length);
+    }
+
+    /**
+     * buffer[offset, offset+length) 의 [nonce][암호문][태그] 를 검증하면서 암호문 구간을 제자리에서 복호화합니다.
+     * 평문은 buffer[offset+NONCE_LENGTH, offset+NONCE_LENGTH+평문 길이) 에 남습니다.
+     *
+     * @return 평문 길이 (length - NONCE_LENGTH - TAG_LENGTH)
+     */
+    public int open(byte[] iv, String column, byte[] buffer, int offset, int length) {
+        if (length < NONCE_LENGTH + TAG_LENGTH) {
+            throw new IllegalArgumentException("HIGHT-CTR-HMAC ciphertext is shorter than its nonce and tag.");
+        }
+        int plainLength = length - NONCE_LENGTH - TAG_LENGTH;
+        Mac mac = start(iv, column, buffer, offset);
+
+        long counter = HightEngine.getLong(buffer, offset);
+        int body = offset + NONCE_LENGTH;
+        for (int done = 0; done < plainLength; done += CHUNK_SIZE) {
+            int n = Math.min(CHUNK_SIZE, plainLength - done);
+            mac.update(buffer, body + done, n);
+            counter = HightCtrKeystream.apply(this.key, counter, buffer, body + done, buffer, body + done, n);
+        }
+
+        byte[] expected = Arrays.copyOf(mac.doFinal(), TAG_LENGTH);
+        byte[] actual   = Arrays.copyOfRange(buffer, body + plainLength, offset + length);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            Arrays.fill(buffer, offset, offset + length, (byte) 0);
+            throw new IllegalArgumentException("HIGHT-CTR-HMAC tag mismatch.");
+        }
+        return plainLength;
+    }
+
+    // 알고리즘 id, 컬럼 이름, 행 IV, nonce(buffer[offset, offset+8)) 까지 넣은 Mac
+    private Mac start(byte[] iv, String column, byte[] buffer, int offset) {
+        Mac mac = this.macs.get();
+        updateField(mac, ALGORITHM_ID);
+        updateField(mac, column == null ? new byte[0] : column.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        mac.update(iv, 0, HightEngine.BLOCK_SIZE);
+        mac.update(buffer, offset, NONCE_LENGTH);
+        return mac;
+    }
+
+    private static void updateField(Mac mac, byte[] field) {
+        mac.update((byte)(field.length >>> 24));
+        mac.update((byte)(field.length >>> 16));
+        mac.update((byte)(field.length >>> 8));
+        mac.update((byte) field.length);
+        mac.update(field);
+    }
+
+    private static void writeTag(Mac mac, byte[] out, int out_offset) {
+        byte[] tag = mac.doFinal();
+        System.arraycopy(tag, 0, out, out_offset, TAG_LENGTH);
+    }
+
+    // HMAC-SHA256(userKey, label) 을 용도별 HMAC 키로 사용 (BlindIndex 와 공유)
+    static SecretKeySpec deriveKey(byte[] userKey, byte[] label) {
+        return new SecretKeySpec(newMac(new SecretKeySpec(userKey, MAC_ALGORITHM)).doFinal(label), MAC_ALGORITHM);
+    }
+
+    static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available.", e);
+        }
+    }
+}
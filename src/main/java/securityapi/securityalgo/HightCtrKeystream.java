@@ -0,0 +1,94 @@
+package securityapi.securityalgo;
+
+/**
+ * HIGHT CTR 키스트림 처리
+ *
+ * 카운터를 빅엔디안 long 으로 다루며, 임의의 블록 위치로 바로 이동(counterAt)할 수 있어
+ * 입력을 여러 구간으로 나눠 독립적으로 처리할 수 있습니다.
+ */
+public final class HightCtrKeystream {
+
+    private static final int BLOCK_SIZE_HIGHT = HightEngine.BLOCK_SIZE;
+
+    private static final long LOW_48_BITS = 0x0000FFFFFFFFFFFFL;
+    private static final long BYTE_1_MASK = 0x00FF000000000000L;
+    private static final long BYTE_0_ONE  = 0x0100000000000000L;
+
+    private HightCtrKeystream() {
+    }
+
+    /**
+     * hight_ctr.UpdateCounter_for_HIGHT 와 같은 결과를 내는 카운터 증가.
+     * KISA 구현은 하위 6바이트가 모두 넘칠 때 바이트 1 의 자리올림과 상관없이 바이트 0 도 1 증가시키므로
+     * 기존 암호문과 호환되도록 그 동작을 그대로 따릅니다.
+     */
+    public static long nextCounter(long counter) {
+        long next = counter + 1;
+        if ((next & LOW_48_BITS) == 0 && (next & BYTE_1_MASK) != 0) {
+            next += BYTE_0_ONE;
+        }
+        return next;
+    }
+
+    /**
+     * counter 에서 blocks 번 nextCounter 를 적용한 값. 하위 48비트가 넘치는 경우만 따로 계산합니다.
+     */
+    public static long counterAt(long counter, long blocks) {
+        while (blocks > 0) {
+            long untilWrap = LOW_48_BITS - (counter & LOW_48_BITS) + 1;
+            if (blocks < untilWrap) {
+                return counter + blocks;
+            }
+            counter = nextCounter(counter + (untilWrap - 1));
+            blocks -= untilWrap;
+        }
+        return counter;
+    }
+
+    /**
+     * in[in_offset..] 의 length 바이트를 키스트림과 XOR 해서 out 에 씁니다. (in == out 가능)
+     * 마지막 블록이 8바이트보다 짧으면 필요한 바이트만 XOR 합니다.
+     *
+     * @return 다음 블록에 사용할 카운터
+     */
+    public static long apply(HightKeySchedule key, long counter, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        if (HightMultiBlock.isEnabled() && length >= HightMultiBlock.LANES * BLOCK_SIZE_HIGHT) {
+            return HightMultiBlock.ctr(key, counter, in, in_offset, out, out_offset, length);
+        }
+        return scalarApply(key, counter, in, in_offset, out, out_offset, length);
+    }
+
+    // 블록 하나씩 처리하는 기본 경로 (HightMultiBlock 의 나머지 처리에도 사용)
+    static long scalarApply(HightKeySchedule key, long counter, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        int full = length & ~(BLOCK_SIZE_HIGHT - 1);
+        int i = 0;
+
+        for (; i < full; i += BLOCK_SIZE_HIGHT) {
+            long ks = HightEngine.encryptBlock(key, counter);
+            HightEngine.putLong(out, out_offset + i, HightEngine.getLong(in, in_offset + i) ^ ks);
+            counter = nextCounter(counter);
+        }
+
+        if (i < length) {
+            long ks = HightEngine.encryptBlock(key, counter);
+            for (int shift = 56; i < length; i++, shift -= 8) {
+                out[out_offset + i] = (byte)(in[in_offset + i] ^ (ks >>> shift));
+            }
+            counter = nextCounter(counter);
+        }
+
+        return counter;
+    }
+
+    /**
+     * 기존 hight_ctr 출력 형식(0x00 으로 블록 단위까지 채운 뒤 암호화)과 같은 결과를 만듭니다.
+     */
+    public static byte[] applyPadded(HightKeySchedule key, byte[] iv, byte[] message, int message_offset, int message_length) {
+        int nPadding = (BLOCK_SIZE_HIGHT - (message_length % BLOCK_SIZE_HIGHT)) % BLOCK_SIZE_HIGHT;
+        byte[] out = new byte[message_length + nPadding];
+        System.arraycopy(message, message_offset, out, 0, message_length);
+
+        apply(key, HightEngine.getLong(iv, 0), out, 0, out, 0, out.length);
+        return out;
+    }
+}
@@ -0,0 +1,187 @@
+package securityapi.securityalgo;
+
+/**
+ * HIGHT 블록 암/복호화 엔진
+ *
+ * KISA 참조 구현의 Round/DRound 와 동일한 연산을 지역 변수 8개 위에서 수행합니다.
+ * 블록 하나를 처리하는 동안 힙 할당이 전혀 없으며, 8바이트 블록은 빅엔디안 long 으로 주고받습니다.
+ * (바이트 0 이 최상위 바이트. KISA 의 int[2] 표현과 동일한 순서입니다.)
+ */
+public final class HightEngine {
+
+    public static final int BLOCK_SIZE = 8;
+
+    // F0(x) = x<<<1 ^ x<<<2 ^ x<<<7, F1(x) = x<<<3 ^ x<<<4 ^ x<<<6 (KISA F0/F1 테이블과 동일)
+    static final int[] F0 = new int[256];
+    static final int[] F1 = new int[256];
+
+    static {
+        for (int x = 0; x < 256; x++) {
+            F0[x] = rotl8(x, 1) ^ rotl8(x, 2) ^ rotl8(x, 7);
+            F1[x] = rotl8(x, 3) ^ rotl8(x, 4) ^ rotl8(x, 6);
+        }
+    }
+
+    private HightEngine() {
+    }
+
+    private static int rotl8(int x, int n) {
+        return ((x << n) | (x >>> (8 - n))) & 0xff;
+    }
+
+    public static long encryptBlock(HightKeySchedule key, long block) {
+        if (key.compiled != null) {
+            return key.compiled.encryptBlock(block);
+        }
+        if (key.roundTables != null) {
+            return HightTableEngine.encryptBlock(key, block);
+        }
+
+        final int[] rk = key.rk;
+        final int[] wk = key.wk;
+        final int[] f0 = F0;
+        final int[] f1 = F1;
+
+        // EncIni_Transformation
+        int x0 = ((int)(block >>> 56) + wk[12]) & 0xff;
+        int x1 = (int)(block >>> 48) & 0xff;
+        int x2 = ((int)(block >>> 40) ^ wk[13]) & 0xff;
+        int x3 = (int)(block >>> 32) & 0xff;
+        int x4 = ((int)(block >>> 24) + wk[14]) & 0xff;
+        int x5 = (int)(block >>> 16) & 0xff;
+        int x6 = ((int)(block >>> 8) ^ wk[15]) & 0xff;
+        int x7 = (int)block & 0xff;
+
+        // 라운드마다 바뀌는 레지스터 순서를 8라운드 단위로 풀어 썼습니다.
+        for (int k = 0; k < 128; k += 32) {
+            x1 = (x1 + (f1[x0] ^ rk[k     ])) & 0xff;  x3 = x3 ^ ((f0[x2] + rk[k +  1]) & 0xff);
+            x5 = (x5 + (f1[x4] ^ rk[k +  2])) & 0xff;  x7 = x7 ^ ((f0[x6] + rk[k +  3]) & 0xff);
+
+            x0 = (x0 + (f1[x7] ^ rk[k +  4])) & 0xff;  x2 = x2 ^ ((f0[x1] + rk[k +  5]) & 0xff);
+            x4 = (x4 + (f1[x3] ^ rk[k +  6])) & 0xff;  x6 = x6 ^ ((f0[x5] + rk[k +  7]) & 0xff);
+
+            x7 = (x7 + (f1[x6] ^ rk[k +  8])) & 0xff;  x1 = x1 ^ ((f0[x0] + rk[k +  9]) & 0xff);
+            x3 = (x3 + (f1[x2] ^ rk[k + 10])) & 0xff;  x5 = x5 ^ ((f0[x4] + rk[k + 11]) & 0xff);
+
+            x6 = (x6 + (f1[x5] ^ rk[k + 12])) & 0xff;  x0 = x0 ^ ((f0[x7] + rk[k + 13]) & 0xff);
+            x2 = (x2 + (f1[x1] ^ rk[k + 14])) & 0xff;  x4 = x4 ^ ((f0[x3] + rk[k + 15]) & 0xff);
+
+            x5 = (x5 + (f1[x4] ^ rk[k + 16])) & 0xff;  x7 = x7 ^ ((f0[x6] + rk[k + 17]) & 0xff);
+            x1 = (x1 + (f1[x0] ^ rk[k + 18])) & 0xff;  x3 = x3 ^ ((f0[x2] + rk[k + 19]) & 0xff);
+
+            x4 = (x4 + (f1[x3] ^ rk[k + 20])) & 0xff;  x6 = x6 ^ ((f0[x5] + rk[k + 21]) & 0xff);
+            x0 = (x0 + (f1[x7] ^ rk[k + 22])) & 0xff;  x2 = x2 ^ ((f0[x1] + rk[k + 23]) & 0xff);
+
+            x3 = (x3 + (f1[x2] ^ rk[k + 24])) & 0xff;  x5 = x5 ^ ((f0[x4] + rk[k + 25]) & 0xff);
+            x7 = (x7 + (f1[x6] ^ rk[k + 26])) & 0xff;  x1 = x1 ^ ((f0[x0] + rk[k + 27]) & 0xff);
+
+            x2 = (x2 + (f1[x1] ^ rk[k + 28])) & 0xff;  x4 = x4 ^ ((f0[x3] + rk[k + 29]) & 0xff);
+            x6 = (x6 + (f1[x5] ^ rk[k + 30])) & 0xff;  x0 = x0 ^ ((f0[x7] + rk[k + 31]) & 0xff);
+        }
+
+        // EncFin_Transformation
+        return ((long)((x1 + wk[0]) & 0xff) << 56)
+             | ((long)x2                    << 48)
+             | ((long)((x3 ^ wk[1]) & 0xff) << 40)
+             | ((long)x4                    << 32)
+             | ((long)((x5 + wk[2]) & 0xff) << 24)
+             | ((long)x6                    << 16)
+             | ((long)((x7 ^ wk[3]) & 0xff) << 8)
+             |  (long)x0;
+    }
+
+    public static long decryptBlock(HightKeySchedule key, long block) {
+        if (key.compiled != null) {
+            return key.compiled.decryptBlock(block);
+        }
+        if (key.roundTables != null) {
+            return HightTableEngine.decryptBlock(key, block);
+        }
+
+        final int[] rk = key.rk;
+        final int[] wk = key.wk;
+        final int[] f0 = F0;
+        final int[] f1 = F1;
+
+        // DecIni_Transformation
+        int x0 = ((int)(block >>> 56) - wk[0]) & 0xff;
+        int x1 = (int)(block >>> 48) & 0xff;
+        int x2 = ((int)(block >>> 40) ^ wk[1]) & 0xff;
+        int x3 = (int)(block >>> 32) & 0xff;
+        int x4 = ((int)(block >>> 24) - wk[2]) & 0xff;
+        int x5 = (int)(block >>> 16) & 0xff;
+        int x6 = ((int)(block >>> 8) ^ wk[3]) & 0xff;
+        int x7 = (int)block & 0xff;
+
+        for (int k = 124; k > 0; k -= 32) {
+            x1 = (x1 - (f1[x0] ^ rk[k     ])) & 0xff;  x3 = x3 ^ ((f0[x2] + rk[k +  1]) & 0xff);
+            x5 = (x5 - (f1[x4] ^ rk[k +  2])) & 0xff;  x7 = x7 ^ ((f0[x6] + rk[k +  3]) & 0xff);
+
+            x2 = (x2 - (f1[x1] ^ rk[k -  4])) & 0xff;  x4 = x4 ^ ((f0[x3] + rk[k -  3]) & 0xff);
+            x6 = (x6 - (f1[x5] ^ rk[k -  2])) & 0xff;  x0 = x0 ^ ((f0[x7] + rk[k -  1]) & 0xff);
+
+            x3 = (x3 - (f1[x2] ^ rk[k -  8])) & 0xff;  x5 = x5 ^ ((f0[x4] + rk[k -  7]) & 0xff);
+            x7 = (x7 - (f1[x6] ^ rk[k -  6])) & 0xff;  x1 = x1 ^ ((f0[x0] + rk[k -  5]) & 0xff);
+
+            x4 = (x4 - (f1[x3] ^ rk[k - 12])) & 0xff;  x6 = x6 ^ ((f0[x5] + rk[k - 11]) & 0xff);
+            x0 = (x0 - (f1[x7] ^ rk[k - 10])) & 0xff;  x2 = x2 ^ ((f0[x1] + rk[k -  9]) & 0xff);
+
+            x5 = (x5 - (f1[x4] ^ rk[k - 16])) & 0xff;  x7 = x7 ^ ((f0[x6] + rk[k - 15]) & 0xff);
+            x1 = (x1 - (f1[x0] ^ rk[k - 14])) & 0xff;  x3 = x3 ^ ((f0[x2] + rk[k - 13]) & 0xff);
+
+            x6 = (x6 - (f1[x5] ^ rk[k - 20])) & 0xff;  x0 = x0 ^ ((f0[x7] + rk[k - 19]) & 0xff);
+            x2 = (x2 - (f1[x1] ^ rk[k - 18])) & 0xff;  x4 = x4 ^ ((f0[x3] + rk[k - 17]) & 0xff);
+
+            x7 = (x7 - (f1[x6] ^ rk[k - 24])) & 0xff;  x1 = x1 ^ ((f0[x0] + rk[k - 23]) & 0xff);
+            x3 = (x3 - (f1[x2] ^ rk[k - 22])) & 0xff;  x5 = x5 ^ ((f0[x4] + rk[k - 21]) & 0xff);
+
+            x0 = (x0 - (f1[x7] ^ rk[k - 28])) & 0xff;  x2 = x2 ^ ((f0[x1] + rk[k - 27]) & 0xff);
+            x4 = (x4 - (f1[x3] ^ rk[k - 26])) & 0xff;  x6 = x6 ^ ((f0[x5] + rk[k - 25]) & 0xff);
+        }
+
+        // DecFin_Transformation
+        return ((long)((x7 - wk[12]) & 0xff) << 56)
+             | ((long)x0                     << 48)
+             | ((long)((x1 ^ wk[13]) & 0xff) << 40)
+             | ((long)x2                     << 32)
+             | ((long)((x3 - wk[14]) & 0xff) << 24)
+             | ((long)x4                     << 16)
+             | ((long)((x5 ^ wk[15]) & 0xff) << 8)
+             |  (long)x6;
+    }
+
+    public static void encryptBlock(HightKeySchedule key, byte[] in, int in_offset, byte[] out, int out_offset) {
+        putLong(out, out_offset, encryptBlock(key, getLong(in, in_offset)));
+    }
+
+    public static void decryptBlock(HightKeySchedule key, byte[] in, int in_offset, byte[] out, int out_offset) {
+        putLong(out, out_offset, decryptBlock(key, getLong(in, in_offset)));
+    }
+
+    // KISA int[2] 블록 표현(빅엔디안)과 long 간 변환
+    static long toLong(int hi, int lo) {
+        return ((long)hi << 32) | (lo & 0xffffffffL);
+    }
+
+    static long getLong(byte[] src, int offset) {
+        return ((long)(src[offset]     & 0xff) << 56)
+             | ((long)(src[offset + 1] & 0xff) << 48)
+             | ((long)(src[offset + 2] & 0xff) << 40)
+             | ((long)(src[offset + 3] & 0xff) << 32)
+             | ((long)(src[offset + 4] & 0xff) << 24)
+             | ((long)(src[offset + 5] & 0xff) << 16)
+             | ((long)(src[offset + 6] & 0xff) << 8)
+             |  (long)(src[offset + 7] & 0xff);
+    }
+
+    static void putLong(byte[] dst, int offset, long value) {
+        dst[offset]     = (byte)(value >>> 56);
+        dst[offset + 1] = (byte)(value >>> 48);
+        dst[offset + 2] = (byte)(value >>> 40);
+        dst[offset + 3] = (byte)(value >>> 32);
+        dst[offset + 4] = (byte)(value >>> 24);
+        dst[offset + 5] = (byte)(value >>> 16);
+        dst[offset + 6] = (byte)(value >>> 8);
+        dst[offset + 7] = (byte)value;
+    }
+}
@@ -0,0 +1,29 @@
+package securityapi.securityalgo;
+
+/**
+ * HightKeySchedule 이 블록 연산에 사용할 엔진 종류
+ */
+public enum HightEngineType {
+    /** HightEngine (F0/F1 테이블 + 라운드 키 배열) */
+    REFERENCE,
+    /** HightTableEngine (키 전용 라운드 테이블) */
+    ROUND_TABLES,
+    /** HightCipherCompiler 가 키마다 생성한 완전 전개 클래스 */
+    COMPILED;
+
+    /**
+     * config.properties 값("reference", "tables", "compiled")을 엔진 종류로 바꿉니다.
+     */
+    public static HightEngineType fromConfig(String value) {
+        if (value == null || value.isBlank() || "reference".equalsIgnoreCase(value.trim())) {
+            return REFERENCE;
+        }
+        if ("tables".equalsIgnoreCase(value.trim())) {
+            return ROUND_TABLES;
+        }
+        if ("compiled".equalsIgnoreCase(value.trim())) {
+            return COMPILED;
+        }
+        throw new IllegalArgumentException("Unsupported HIGHT engine: " + value);
+    }
+}
@@ -0,0 +1,132 @@
+package securityapi.securityalgo;
+
+/**
+ * HIGHT 확장 키 (불변 객체)
+ *
+ * 16바이트 마스터 키로부터 128바이트 라운드 키(KISA_HIGHT_KEY.key_data)를 한 번만 생성해 보관합니다.
+ * 생성 이후 내부 배열은 변경되지 않으므로 여러 스레드에서 동시에 공유해도 안전합니다.
+ */
+public final class HightKeySchedule {
+
+    private static final int BLOCK_SIZE_HIGHT = 8;
+    private static final int KEY_SIZE_HIGHT = 16;
+    private static final int ROUND_KEY_SIZE_HIGHT = 128;
+
+    private static final byte[] Delta = new byte[]
+    {
+        (byte)0x5A,(byte)0x6D,(byte)0x36,(byte)0x1B,(byte)0x0D,(byte)0x06,(byte)0x03,(byte)0x41,
+        (byte)0x60,(byte)0x30,(byte)0x18,(byte)0x4C,(byte)0x66,(byte)0x33,(byte)0x59,(byte)0x2C,
+        (byte)0x56,(byte)0x2B,(byte)0x15,(byte)0x4A,(byte)0x65,(byte)0x72,(byte)0x39,(byte)0x1C,
+        (byte)0x4E,(byte)0x67,(byte)0x73,(byte)0x79,(byte)0x3C,(byte)0x5E,(byte)0x6F,(byte)0x37,
+        (byte)0x5B,(byte)0x2D,(byte)0x16,(byte)0x0B,(byte)0x05,(byte)0x42,(byte)0x21,(byte)0x50,
+        (byte)0x28,(byte)0x54,(byte)0x2A,(byte)0x55,(byte)0x6A,(byte)0x75,(byte)0x7A,(byte)0x7D,
+        (byte)0x3E,(byte)0x5F,(byte)0x2F,(byte)0x17,(byte)0x4B,(byte)0x25,(byte)0x52,(byte)0x29,
+        (byte)0x14,(byte)0x0A,(byte)0x45,(byte)0x62,(byte)0x31,(byte)0x58,(byte)0x6C,(byte)0x76,
+        (byte)0x3B,(byte)0x1D,(byte)0x0E,(byte)0x47,(byte)0x63,(byte)0x71,(byte)0x78,(byte)0x7C,
+        (byte)0x7E,(byte)0x7F,(byte)0x3F,(byte)0x1F,(byte)0x0F,(byte)0x07,(byte)0x43,(byte)0x61,
+        (byte)0x70,(byte)0x38,(byte)0x5C,(byte)0x6E,(byte)0x77,(byte)0x7B,(byte)0x3D,(byte)0x1E,
+        (byte)0x4F,(byte)0x27,(byte)0x53,(byte)0x69,(byte)0x34,(byte)0x1A,(byte)0x4D,(byte)0x26,
+        (byte)0x13,(byte)0x49,(byte)0x24,(byte)0x12,(byte)0x09,(byte)0x04,(byte)0x02,(byte)0x01,
+        (byte)0x40,(byte)0x20,(byte)0x10,(byte)0x08,(byte)0x44,(byte)0x22,(byte)0x11,(byte)0x48,
+        (byte)0x64,(byte)0x32,(byte)0x19,(byte)0x0C,(byte)0x46,(byte)0x23,(byte)0x51,(byte)0x68,
+        (byte)0x74,(byte)0x3A,(byte)0x5D,(byte)0x2E,(byte)0x57,(byte)0x6B,(byte)0x35,(byte)0x5A
+    };
+
+    // 화이트닝 키로 사용하는 마스터 키 사본 (KISA_HIGHT_INFO.userKey)
+    private final byte[] userKey;
+    // 32라운드 x 4바이트 라운드 키 (KISA_HIGHT_KEY.key_data)
+    private final byte[] roundKeys;
+
+    // HightEngine 용 0~255 범위의 int 사본. 라운드마다 & 0xff 하지 않도록 미리 풀어 둡니다.
+    final int[] wk;
+    final int[] rk;
+    // HightMultiBlock 용. 각 키 바이트를 long 의 8개 바이트 레인에 복제해 둔 값입니다.
+    final long[] wkLanes;
+    final long[] rkLanes;
+    // 라운드 키를 F0/F1 에 미리 합친 키 전용 테이블 (HightTableEngine). 요청한 경우에만 만들며 없으면 null
+    final byte[] roundTables;
+    // 키마다 생성한 완전 전개 클래스 (HightCipherCompiler). COMPILED 엔진일 때만 있으며 없으면 null
+    final HightBlockCipher compiled;
+
+    private HightKeySchedule(byte[] userKey, byte[] roundKeys, HightEngineType engine) {
+        this.userKey   = userKey;
+        this.roundKeys = roundKeys;
+        this.wk        = toUnsigned(userKey);
+        this.rk        = toUnsigned(roundKeys);
+        this.wkLanes   = toLanes(this.wk);
+        this.rkLanes   = toLanes(this.rk);
+        this.roundTables = engine == HightEngineType.ROUND_TABLES ? HightTableEngine.buildTables(this.rk) : null;
+        this.compiled    = engine == HightEngineType.COMPILED ? HightCipherCompiler.compile(userKey, this.wk, this.rk) : null;
+    }
+
+    private static long[] toLanes(int[] src) {
+        long[] dst = new long[src.length];
+        for (int i = 0; i < src.length; i++) {
+            dst[i] = src[i] * 0x0101010101010101L;
+        }
+        return dst;
+    }
+
+    private static int[] toUnsigned(byte[] src) {
+        int[] dst = new int[src.length];
+        for (int i = 0; i < src.length; i++) {
+            dst[i] = src[i] & 0xff;
+        }
+        return dst;
+    }
+
+    /**
+     * 마스터 키로부터 확장 키를 생성합니다.
+     * 전달된 배열은 복사해서 보관하므로 호출자가 이후에 값을 바꿔도 영향이 없습니다.
+     */
+    public static HightKeySchedule of(byte[] pUserKey) {
+        return of(pUserKey, HightEngineType.REFERENCE);
+    }
+
+    /**
+     * @param engine 블록 연산에 사용할 엔진. ROUND_TABLES 는 키 전용 라운드 테이블(32KB)을,
+     *               COMPILED 는 키마다 생성한 클래스를 함께 만들어 둡니다.
+     */
+    public static HightKeySchedule of(byte[] pUserKey, HightEngineType engine) {
+        if (pUserKey == null || pUserKey.length != KEY_SIZE_HIGHT) {
+            throw new IllegalArgumentException("HIGHT key must be 16 bytes.");
+        }
+
+        byte[] userKey   = pUserKey.clone();
+        byte[] roundKeys = new byte[ROUND_KEY_SIZE_HIGHT];
+
+        for (int i = 0; i < BLOCK_SIZE_HIGHT; i++) {
+            for (int j = 0; j < BLOCK_SIZE_HIGHT; j++)
+                roundKeys[16*i + j] = (byte)(userKey[(j-i)&7] + Delta[16*i + j]);
+
+            for (int j = 0; j < BLOCK_SIZE_HIGHT; j++)
+                roundKeys[16*i + j + 8] = (byte)(userKey[((j-i)&7)+8] + Delta[16*i + j + 8]);
+        }
+
+        return new HightKeySchedule(userKey, roundKeys, engine);
+    }
+
+    public HightEngineType engineType() {
+        if (compiled != null) {
+            return HightEngineType.COMPILED;
+        }
+        return roundTables != null ? HightEngineType.ROUND_TABLES : HightEngineType.REFERENCE;
+    }
+
+    public long encryptBlock(long block) {
+        return HightEngine.encryptBlock(this, block);
+    }
+
+    public long decryptBlock(long block) {
+        return HightEngine.decryptBlock(this, block);
+    }
+
+    // KISA 루틴에 그대로 넘기기 위한 내부 접근자입니다. 반환된 배열은 절대 수정하면 안 됩니다.
+    byte[] userKey() {
+        return userKey;
+    }
+
+    byte[] roundKeys() {
+        return roundKeys;
+    }
+}
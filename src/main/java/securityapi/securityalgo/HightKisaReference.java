@@ -0,0 +1,169 @@
+package securityapi.securityalgo;
+
+/**
+ * HightBenchmark 의 기준선으로 쓰는 원래 KISA HIGHT-CTR 구현
+ *
+ * HightEngine 도입 전 hight_ctr 의 KISA_HIGHT_ECB_encrypt_forCTR / HIGHT_CTR_Process 를 그대로 옮겨 둔 것입니다.
+ * (블록마다 int[] ↔ byte[] 변환 배열 할당, int[8] 레지스터, byte F0/F1 테이블, 바이트 단위 카운터 증가)
+ * 블록마다 남은 출력 버퍼 전체를 변환하는 원래 동작도 유지하므로 입력 길이에 대해 제곱 시간이 듭니다.
+ * 운영 코드에서는 사용하지 않습니다.
+ */
+final class HightKisaReference {
+
+    private static final int ENDIAN = Common.BIG_ENDIAN;
+    private static final int BLOCK_SIZE_HIGHT = 8;
+    private static final int BLOCK_SIZE_HIGHT_INT = 2;
+
+    // KISA 의 byte F0/F1 테이블과 같은 값
+    private static final byte[] F0 = new byte[256];
+    private static final byte[] F1 = new byte[256];
+
+    static {
+        for (int x = 0; x < 256; x++) {
+            F0[x] = (byte) HightEngine.F0[x];
+            F1[x] = (byte) HightEngine.F1[x];
+        }
+    }
+
+    private HightKisaReference() {
+    }
+
+    /**
+     * 원래 HIGHT_CTR_Encrypt_Internal 과 같은 결과 (0x00 으로 블록 단위까지 채운 뒤 암호화)
+     */
+    static byte[] encrypt(HightKeySchedule key, byte[] pbszCTR, byte[] message, int message_length) {
+        int nInputTextPadding = (BLOCK_SIZE_HIGHT - (message_length % BLOCK_SIZE_HIGHT)) % BLOCK_SIZE_HIGHT;
+        byte[] newpbszInputText = new byte[message_length + nInputTextPadding];
+        System.arraycopy(message, 0, newpbszInputText, 0, message_length);
+
+        int[] ivec = { Common.byte_to_int(pbszCTR, 0, ENDIAN), Common.byte_to_int(pbszCTR, 4, ENDIAN) };
+        int[] data   = hight_ctr.chartoint32_for_HIGHT_CTR(newpbszInputText, newpbszInputText.length);
+        int[] outbuf = new int[newpbszInputText.length / BLOCK_SIZE_HIGHT * BLOCK_SIZE_HIGHT_INT];
+
+        process(key.roundKeys(), key.userKey(), ivec, data, newpbszInputText.length, outbuf);
+        return hight_ctr.int32tochar_for_HIGHT_CTR(outbuf, newpbszInputText.length);
+    }
+
+    // HIGHT_CTR_Process
+    private static void process(byte[] key_data, byte[] userKey, int[] pdwCounter, int[] in, int inLen, int[] out) {
+        int nCurrentCount = 0;
+        int in_offset = 0;
+        int out_offset = 0;
+
+        while (nCurrentCount < inLen) {
+            KISA_HIGHT_ECB_encrypt_forCTR(key_data, userKey, pdwCounter, 0, out, out_offset);
+            BLOCK_XOR_HIGHT(out, out_offset, in, in_offset, out, out_offset);
+
+            UpdateCounter_for_HIGHT(pdwCounter, 0, 1, (BLOCK_SIZE_HIGHT - 1));
+            nCurrentCount += BLOCK_SIZE_HIGHT;
+            in_offset += BLOCK_SIZE_HIGHT_INT;
+            out_offset += BLOCK_SIZE_HIGHT_INT;
+        }
+    }
+
+    private static void BLOCK_XOR_HIGHT(int[] OUT_VALUE, int out_value_offset, int[] IN_VALUE1, int in_value1_offset, int[] IN_VALUE2, int in_value2_offset) {
+        OUT_VALUE[out_value_offset+0] = (in_value1_offset<IN_VALUE1.length?IN_VALUE1[in_value1_offset+0]:0) ^ (in_value2_offset<IN_VALUE2.length?IN_VALUE2[in_value2_offset+0]:0);
+        OUT_VALUE[out_value_offset+1] = (in_value1_offset+1<IN_VALUE1.length?IN_VALUE1[in_value1_offset+1]:0) ^ (in_value2_offset+1<IN_VALUE2.length?IN_VALUE2[in_value2_offset+1]:0);
+    }
+
+    private static void UpdateCounter_for_HIGHT(int[] pbOUT, int pbOUT_offset, int nIncreaseValue, int nMin) {
+        int bszBackup = 0;
+        int i;
+
+        if( 0 > nMin )
+            return;
+
+        if( 0 < nMin ) {
+            byte b = Common.get_byte_for_int(pbOUT, pbOUT_offset*4+nMin, ENDIAN);
+            bszBackup = b & 0x0ff;
+            Common.set_byte_for_int(pbOUT, pbOUT_offset*4+nMin, (byte)(b + nIncreaseValue), ENDIAN);
+        }
+
+        for( i=nMin; i>1; --i ) {
+            if( bszBackup <= (((int)Common.get_byte_for_int(pbOUT, pbOUT_offset*4+i, ENDIAN)) & 0x0ff) ) {
+                return;
+            }
+            else {
+                byte b = Common.get_byte_for_int(pbOUT, pbOUT_offset*4+i-1, ENDIAN);
+                bszBackup = b & 0x0ff;
+                Common.set_byte_for_int(pbOUT, pbOUT_offset*4+i-1, (byte)(b + 1), ENDIAN);
+            }
+        }
+
+        byte b = Common.get_byte_for_int(pbOUT, pbOUT_offset*4+0, ENDIAN);
+        bszBackup = b & 0x0ff;
+        Common.set_byte_for_int(pbOUT, pbOUT_offset*4+0, (byte)(b + nIncreaseValue), ENDIAN);
+    }
+
+    private static void EncIni_Transformation(int[] t, byte x0, byte x2, byte x4, byte x6, byte mk0, byte mk1, byte mk2, byte mk3) {
+        t[0] = ((0x0ff&(int)x0) + (0x0ff&(int)mk0)) & 0x0ff;
+        t[2] = ((0x0ff&(int)x2) ^ (0x0ff&(int)mk1)) & 0x0ff;
+        t[4] = ((0x0ff&(int)x4) + (0x0ff&(int)mk2)) & 0x0ff;
+        t[6] = ((0x0ff&(int)x6) ^ (0x0ff&(int)mk3)) & 0x0ff;
+    }
+
+    private static void EncFin_Transformation(byte[] out, int x0, int x2, int x4, int x6, int mk0, int mk1, int mk2, int mk3) {
+        out[0] = (byte)(x0 + mk0);
+        out[2] = (byte)(x2 ^ mk1);
+        out[4] = (byte)(x4 + mk2);
+        out[6] = (byte)(x6 ^ mk3);
+    }
+
+    private static void Round(int[] x, int i7, int i6, int i5, int i4, int i3, int i2, int i1, int i0, byte[] key, int key_offset) {
+        x[i1] = (x[i1] + ((F1[x[i0]] ^ key[key_offset+0])&0x0ff)) & 0x0ff;
+        x[i3] = (x[i3] ^ ((F0[x[i2]] + key[key_offset+1])&0x0ff)) & 0x0ff;
+        x[i5] = (x[i5] + ((F1[x[i4]] ^ key[key_offset+2])&0x0ff)) & 0x0ff;
+        x[i7] = (x[i7] ^ ((F0[x[i6]] + key[key_offset+3])&0x0ff)) & 0x0ff;
+    }
+
+    private static void KISA_HIGHT_ECB_encrypt_forCTR(byte[] pbszIN_Key128, byte[] pbszUserKey, final int[] in, int in_offset, int[] out, int out_offset) {
+        int in_length = in.length - in_offset;
+        int out_length = out.length - out_offset;
+        byte[] b_in = new byte[in_length * 4];
+        byte[] b_out = new byte[out_length * 4];
+
+        for(int i=0; i<in_length; i++) {
+            Common.int_to_byte(b_in, i*4, in, in_offset+i, ENDIAN);
+        }
+
+        for(int i=0; i<out_length; i++) {
+            Common.int_to_byte(b_out, i*4, out, out_offset+i, ENDIAN);
+        }
+
+        KISA_HIGHT_ECB_encrypt_forCTR(pbszIN_Key128, pbszUserKey, b_in, b_out);
+
+        for(int i=0; i<in_length; i++) {
+            Common.byte_to_int(in, in_offset+i, b_in, i*4, ENDIAN);
+        }
+
+        for(int i=0; i<out_length; i++) {
+            Common.byte_to_int(out, out_offset+i, b_out, i*4, ENDIAN);
+        }
+    }
+
+    private static void KISA_HIGHT_ECB_encrypt_forCTR(byte[] pbszIN_Key128, byte[] pbszUserKey, final byte[] in, byte[] out) {
+        int[] t = new int[] { 0, 0, 0, 0, 0, 0, 0, 0 };
+        byte[] key = pbszIN_Key128;
+        byte[] key2 = pbszUserKey;
+        int key_offset = 0;
+
+        t[1] = in[1]; t[3] = in[3]; t[5] = in[5]; t[7] = in[7];
+        EncIni_Transformation(t, in[0], in[2], in[4], in[6], key2[12], key2[13], key2[14], key2[15] );
+
+        // 원래 코드의 Round 32회 (레지스터 순서가 8라운드마다 반복)
+        for (int r = 0; r < 32; r += 8) {
+            Round(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset);key_offset += 4;
+            Round(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset);key_offset += 4;
+            Round(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset);key_offset += 4;
+            Round(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset);key_offset += 4;
+            Round(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset);key_offset += 4;
+            Round(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset);key_offset += 4;
+            Round(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset);key_offset += 4;
+            Round(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset);key_offset += 4;
+        }
+
+        EncFin_Transformation(out, t[1], t[3], t[5], t[7], key2[0], key2[1], key2[2], key2[3] );
+
+        out[1] = (byte)t[2]; out[3] = (byte)t[4]; out[5] = (byte)t[6]; out[7] = (byte)t[0];
+    }
+}
@@ -0,0 +1,269 @@
+package securityapi.securityalgo;
+
+import securityapi.config.ConfigLoader;
+
+/**
+ * 8블록 동시 처리 HIGHT 커널 (SWAR)
+ *
+ * HIGHT 는 8비트 덧셈/XOR/회전만 사용하므로 long 하나를 8개의 바이트 레인으로 보고
+ * 서로 독립인 블록 8개를 한 번에 처리합니다. 블록 8개를 8x8 바이트 전치해서
+ * "모든 블록의 i 번째 바이트" 를 long 하나에 모은 뒤, 테이블 조회 없이 레인 단위 연산으로 라운드를 수행합니다.
+ *
+ * CTR 과 CBC 복호화처럼 블록끼리 독립인 경우에만 사용하며, 8블록이 안 되는 나머지는 HightEngine 으로 처리합니다.
+ * 결과는 HightEngine 과 비트 단위로 동일합니다.
+ */
+public final class HightMultiBlock {
+
+    private static final int BLOCK_SIZE_HIGHT = HightEngine.BLOCK_SIZE;
+
+    /** 한 번에 처리하는 블록 수 */
+    public static final int LANES = 8;
+
+    private static final boolean ENABLED = Boolean.parseBoolean(ConfigLoader.getProperty("hight.multiblock.enabled", "true"));
+
+    private static final long H = 0x8080808080808080L;
+    private static final long L = 0x7F7F7F7F7F7F7F7FL;
+
+    // 바이트 레인 단위 회전용 마스크. SHL_n 은 x << n 후 남길 비트, SHR_n 은 x >>> (8-n) 후 남길 비트
+    private static final long SHL_1 = 0xFEFEFEFEFEFEFEFEL, SHR_1 = 0x0101010101010101L;
+    private static final long SHL_2 = 0xFCFCFCFCFCFCFCFCL, SHR_2 = 0x0303030303030303L;
+    private static final long SHL_3 = 0xF8F8F8F8F8F8F8F8L, SHR_3 = 0x0707070707070707L;
+    private static final long SHL_4 = 0xF0F0F0F0F0F0F0F0L, SHR_4 = 0x0F0F0F0F0F0F0F0FL;
+    private static final long SHL_6 = 0xC0C0C0C0C0C0C0C0L, SHR_6 = 0x3F3F3F3F3F3F3F3FL;
+    private static final long SHL_7 = 0x8080808080808080L, SHR_7 = 0x7F7F7F7F7F7F7F7FL;
+
+    private HightMultiBlock() {
+    }
+
+    /**
+     * hight.multiblock.enabled=false 이면 항상 스칼라 경로(HightEngine)를 사용합니다.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * 블록 8개(빅엔디안 long)를 제자리에서 암호화합니다.
+     */
+    public static void encrypt(HightKeySchedule key, long[] blocks, int offset) {
+        encrypt(key.rkLanes, key.wkLanes, blocks, offset);
+    }
+
+    /**
+     * 레인별 라운드 키를 직접 받는 버전. 레인 r(long 의 (56 - 8r) 비트 위치)은 블록 r 에 적용되므로
+     * 블록마다 다른 키를 쓸 수 있습니다. (HightCtrBatch 참고)
+     */
+    static void encrypt(long[] rk, long[] wk, long[] blocks, int offset) {
+
+        long x0 = blocks[offset],     x1 = blocks[offset + 1], x2 = blocks[offset + 2], x3 = blocks[offset + 3];
+        long x4 = blocks[offset + 4], x5 = blocks[offset + 5], x6 = blocks[offset + 6], x7 = blocks[offset + 7];
+
+        // 전치: 이후 xi 는 블록 8개의 i 번째 바이트 (레인 r = 블록 r)
+        long t;
+        t = (x0 ^ (x4 >>> 32)) & 0x00000000FFFFFFFFL; x0 ^= t; x4 ^= t << 32;
+        t = (x1 ^ (x5 >>> 32)) & 0x00000000FFFFFFFFL; x1 ^= t; x5 ^= t << 32;
+        t = (x2 ^ (x6 >>> 32)) & 0x00000000FFFFFFFFL; x2 ^= t; x6 ^= t << 32;
+        t = (x3 ^ (x7 >>> 32)) & 0x00000000FFFFFFFFL; x3 ^= t; x7 ^= t << 32;
+        t = (x0 ^ (x2 >>> 16)) & 0x0000FFFF0000FFFFL; x0 ^= t; x2 ^= t << 16;
+        t = (x1 ^ (x3 >>> 16)) & 0x0000FFFF0000FFFFL; x1 ^= t; x3 ^= t << 16;
+        t = (x4 ^ (x6 >>> 16)) & 0x0000FFFF0000FFFFL; x4 ^= t; x6 ^= t << 16;
+        t = (x5 ^ (x7 >>> 16)) & 0x0000FFFF0000FFFFL; x5 ^= t; x7 ^= t << 16;
+        t = (x0 ^ (x1 >>> 8))  & 0x00FF00FF00FF00FFL; x0 ^= t; x1 ^= t << 8;
+        t = (x2 ^ (x3 >>> 8))  & 0x00FF00FF00FF00FFL; x2 ^= t; x3 ^= t << 8;
+        t = (x4 ^ (x5 >>> 8))  & 0x00FF00FF00FF00FFL; x4 ^= t; x5 ^= t << 8;
+        t = (x6 ^ (x7 >>> 8))  & 0x00FF00FF00FF00FFL; x6 ^= t; x7 ^= t << 8;
+
+        // EncIni_Transformation
+        x0 = add(x0, wk[12]);
+        x2 = x2 ^ wk[13];
+        x4 = add(x4, wk[14]);
+        x6 = x6 ^ wk[15];
+
+        // HightEngine.encryptBlock 과 같은 순서
+        for (int k = 0; k < 128; k += 32) {
+            x1 = add(x1, f1(x0) ^ rk[k     ]);  x3 = x3 ^ add(f0(x2), rk[k +  1]);
+            x5 = add(x5, f1(x4) ^ rk[k +  2]);  x7 = x7 ^ add(f0(x6), rk[k +  3]);
+
+            x0 = add(x0, f1(x7) ^ rk[k +  4]);  x2 = x2 ^ add(f0(x1), rk[k +  5]);
+            x4 = add(x4, f1(x3) ^ rk[k +  6]);  x6 = x6 ^ add(f0(x5), rk[k +  7]);
+
+            x7 = add(x7, f1(x6) ^ rk[k +  8]);  x1 = x1 ^ add(f0(x0), rk[k +  9]);
+            x3 = add(x3, f1(x2) ^ rk[k + 10]);  x5 = x5 ^ add(f0(x4), rk[k + 11]);
+
+            x6 = add(x6, f1(x5) ^ rk[k + 12]);  x0 = x0 ^ add(f0(x7), rk[k + 13]);
+            x2 = add(x2, f1(x1) ^ rk[k + 14]);  x4 = x4 ^ add(f0(x3), rk[k + 15]);
+
+            x5 = add(x5, f1(x4) ^ rk[k + 16]);  x7 = x7 ^ add(f0(x6), rk[k + 17]);
+            x1 = add(x1, f1(x0) ^ rk[k + 18]);  x3 = x3 ^ add(f0(x2), rk[k + 19]);
+
+            x4 = add(x4, f1(x3) ^ rk[k + 20]);  x6 = x6 ^ add(f0(x5), rk[k + 21]);
+            x0 = add(x0, f1(x7) ^ rk[k + 22]);  x2 = x2 ^ add(f0(x1), rk[k + 23]);
+
+            x3 = add(x3, f1(x2) ^ rk[k + 24]);  x5 = x5 ^ add(f0(x4), rk[k + 25]);
+            x7 = add(x7, f1(x6) ^ rk[k + 26]);  x1 = x1 ^ add(f0(x0), rk[k + 27]);
+
+            x2 = add(x2, f1(x1) ^ rk[k + 28]);  x4 = x4 ^ add(f0(x3), rk[k + 29]);
+            x6 = add(x6, f1(x5) ^ rk[k + 30]);  x0 = x0 ^ add(f0(x7), rk[k + 31]);
+        }
+
+        // EncFin_Transformation 후 출력 바이트 순서대로 다시 전치
+        store(blocks, offset, add(x1, wk[0]), x2, x3 ^ wk[1], x4, add(x5, wk[2]), x6, x7 ^ wk[3], x0);
+    }
+
+    /**
+     * 블록 8개(빅엔디안 long)를 제자리에서 복호화합니다.
+     */
+    public static void decrypt(HightKeySchedule key, long[] blocks, int offset) {
+        final long[] rk = key.rkLanes;
+        final long[] wk = key.wkLanes;
+
+        long x0 = blocks[offset],     x1 = blocks[offset + 1], x2 = blocks[offset + 2], x3 = blocks[offset + 3];
+        long x4 = blocks[offset + 4], x5 = blocks[offset + 5], x6 = blocks[offset + 6], x7 = blocks[offset + 7];
+
+        long t;
+        t = (x0 ^ (x4 >>> 32)) & 0x00000000FFFFFFFFL; x0 ^= t; x4 ^= t << 32;
+        t = (x1 ^ (x5 >>> 32)) & 0x00000000FFFFFFFFL; x1 ^= t; x5 ^= t << 32;
+        t = (x2 ^ (x6 >>> 32)) & 0x00000000FFFFFFFFL; x2 ^= t; x6 ^= t << 32;
+        t = (x3 ^ (x7 >>> 32)) & 0x00000000FFFFFFFFL; x3 ^= t; x7 ^= t << 32;
+        t = (x0 ^ (x2 >>> 16)) & 0x0000FFFF0000FFFFL; x0 ^= t; x2 ^= t << 16;
+        t = (x1 ^ (x3 >>> 16)) & 0x0000FFFF0000FFFFL; x1 ^= t; x3 ^= t << 16;
+        t = (x4 ^ (x6 >>> 16)) & 0x0000FFFF0000FFFFL; x4 ^= t; x6 ^= t << 16;
+        t = (x5 ^ (x7 >>> 16)) & 0x0000FFFF0000FFFFL; x5 ^= t; x7 ^= t << 16;
+        t = (x0 ^ (x1 >>> 8))  & 0x00FF00FF00FF00FFL; x0 ^= t; x1 ^= t << 8;
+        t = (x2 ^ (x3 >>> 8))  & 0x00FF00FF00FF00FFL; x2 ^= t; x3 ^= t << 8;
+        t = (x4 ^ (x5 >>> 8))  & 0x00FF00FF00FF00FFL; x4 ^= t; x5 ^= t << 8;
+        t = (x6 ^ (x7 >>> 8))  & 0x00FF00FF00FF00FFL; x6 ^= t; x7 ^= t << 8;
+
+        // DecIni_Transformation
+        x0 = sub(x0, wk[0]);
+        x2 = x2 ^ wk[1];
+        x4 = sub(x4, wk[2]);
+        x6 = x6 ^ wk[3];
+
+        // HightEngine.decryptBlock 과 같은 순서
+        for (int k = 124; k > 0; k -= 32) {
+            x1 = sub(x1, f1(x0) ^ rk[k     ]);  x3 = x3 ^ add(f0(x2), rk[k +  1]);
+            x5 = sub(x5, f1(x4) ^ rk[k +  2]);  x7 = x7 ^ add(f0(x6), rk[k +  3]);
+
+            x2 = sub(x2, f1(x1) ^ rk[k -  4]);  x4 = x4 ^ add(f0(x3), rk[k -  3]);
+            x6 = sub(x6, f1(x5) ^ rk[k -  2]);  x0 = x0 ^ add(f0(x7), rk[k -  1]);
+
+            x3 = sub(x3, f1(x2) ^ rk[k -  8]);  x5 = x5 ^ add(f0(x4), rk[k -  7]);
+            x7 = sub(x7, f1(x6) ^ rk[k -  6]);  x1 = x1 ^ add(f0(x0), rk[k -  5]);
+
+            x4 = sub(x4, f1(x3) ^ rk[k - 12]);  x6 = x6 ^ add(f0(x5), rk[k - 11]);
+            x0 = sub(x0, f1(x7) ^ rk[k - 10]);  x2 = x2 ^ add(f0(x1), rk[k -  9]);
+
+            x5 = sub(x5, f1(x4) ^ rk[k - 16]);  x7 = x7 ^ add(f0(x6), rk[k - 15]);
+            x1 = sub(x1, f1(x0) ^ rk[k - 14]);  x3 = x3 ^ add(f0(x2), rk[k - 13]);
+
+            x6 = sub(x6, f1(x5) ^ rk[k - 20]);  x0 = x0 ^ add(f0(x7), rk[k - 19]);
+            x2 = sub(x2, f1(x1) ^ rk[k - 18]);  x4 = x4 ^ add(f0(x3), rk[k - 17]);
+
+            x7 = sub(x7, f1(x6) ^ rk[k - 24]);  x1 = x1 ^ add(f0(x0), rk[k - 23]);
+            x3 = sub(x3, f1(x2) ^ rk[k - 22]);  x5 = x5 ^ add(f0(x4), rk[k - 21]);
+
+            x0 = sub(x0, f1(x7) ^ rk[k - 28]);  x2 = x2 ^ add(f0(x1), rk[k - 27]);
+            x4 = sub(x4, f1(x3) ^ rk[k - 26]);  x6 = x6 ^ add(f0(x5), rk[k - 25]);
+        }
+
+        // DecFin_Transformation
+        store(blocks, offset, sub(x7, wk[12]), x0, x1 ^ wk[13], x2, sub(x3, wk[14]), x4, x5 ^ wk[15], x6);
+    }
+
+    /**
+     * counter 부터 시작하는 키스트림을 in 에 XOR 해서 out 에 씁니다. (in == out 가능)
+     * 8블록 단위로 처리하고 나머지는 HightCtrKeystream.apply 로 넘깁니다.
+     *
+     * @return 다음 블록에 사용할 카운터
+     */
+    public static long ctr(HightKeySchedule key, long counter, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        final int stride = LANES * BLOCK_SIZE_HIGHT;
+        long[] ks = new long[LANES];
+        int i = 0;
+
+        for (; i + stride <= length; i += stride) {
+            for (int j = 0; j < LANES; j++) {
+                ks[j]   = counter;
+                counter = HightCtrKeystream.nextCounter(counter);
+            }
+            encrypt(key, ks, 0);
+            for (int j = 0; j < LANES; j++) {
+                int p = j * BLOCK_SIZE_HIGHT;
+                HightEngine.putLong(out, out_offset + i + p, HightEngine.getLong(in, in_offset + i + p) ^ ks[j]);
+            }
+        }
+
+        return HightCtrKeystream.scalarApply(key, counter, in, in_offset + i, out, out_offset + i, length - i);
+    }
+
+    /**
+     * CBC 복호화 (length 는 8의 배수). in == out 인 경우에도 동작합니다.
+     *
+     * @return 마지막 암호문 블록
+     */
+    public static long cbcDecrypt(HightKeySchedule key, long previous, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        final int stride = LANES * BLOCK_SIZE_HIGHT;
+        long[] cipher = new long[LANES];
+        long[] plain  = new long[LANES];
+        int i = 0;
+
+        for (; i + stride <= length; i += stride) {
+            // in == out 일 수 있으므로 암호문을 먼저 모두 읽어 둡니다.
+            for (int j = 0; j < LANES; j++) {
+                cipher[j] = HightEngine.getLong(in, in_offset + i + j * BLOCK_SIZE_HIGHT);
+                plain[j]  = cipher[j];
+            }
+            decrypt(key, plain, 0);
+            for (int j = 0; j < LANES; j++) {
+                HightEngine.putLong(out, out_offset + i + j * BLOCK_SIZE_HIGHT, plain[j] ^ (j == 0 ? previous : cipher[j - 1]));
+            }
+            previous = cipher[LANES - 1];
+        }
+
+        return HightCbcChain.scalarDecrypt(key, previous, in, in_offset + i, out, out_offset + i, length - i);
+    }
+
+    private static void store(long[] blocks, int offset, long x0, long x1, long x2, long x3, long x4, long x5, long x6, long x7) {
+        // 전치는 자기 자신의 역연산입니다.
+        long t;
+        t = (x0 ^ (x4 >>> 32)) & 0x00000000FFFFFFFFL; x0 ^= t; x4 ^= t << 32;
+        t = (x1 ^ (x5 >>> 32)) & 0x00000000FFFFFFFFL; x1 ^= t; x5 ^= t << 32;
+        t = (x2 ^ (x6 >>> 32)) & 0x00000000FFFFFFFFL; x2 ^= t; x6 ^= t << 32;
+        t = (x3 ^ (x7 >>> 32)) & 0x00000000FFFFFFFFL; x3 ^= t; x7 ^= t << 32;
+        t = (x0 ^ (x2 >>> 16)) & 0x0000FFFF0000FFFFL; x0 ^= t; x2 ^= t << 16;
+        t = (x1 ^ (x3 >>> 16)) & 0x0000FFFF0000FFFFL; x1 ^= t; x3 ^= t << 16;
+        t = (x4 ^ (x6 >>> 16)) & 0x0000FFFF0000FFFFL; x4 ^= t; x6 ^= t << 16;
+        t = (x5 ^ (x7 >>> 16)) & 0x0000FFFF0000FFFFL; x5 ^= t; x7 ^= t << 16;
+        t = (x0 ^ (x1 >>> 8))  & 0x00FF00FF00FF00FFL; x0 ^= t; x1 ^= t << 8;
+        t = (x2 ^ (x3 >>> 8))  & 0x00FF00FF00FF00FFL; x2 ^= t; x3 ^= t << 8;
+        t = (x4 ^ (x5 >>> 8))  & 0x00FF00FF00FF00FFL; x4 ^= t; x5 ^= t << 8;
+        t = (x6 ^ (x7 >>> 8))  & 0x00FF00FF00FF00FFL; x6 ^= t; x7 ^= t << 8;
+
+        blocks[offset]     = x0; blocks[offset + 1] = x1; blocks[offset + 2] = x2; blocks[offset + 3] = x3;
+        blocks[offset + 4] = x4; blocks[offset + 5] = x5; blocks[offset + 6] = x6; blocks[offset + 7] = x7;
+    }
+
+    // 레인별 8비트 덧셈/뺄셈 (자리올림이 옆 레인으로 넘어가지 않음)
+    private static long add(long a, long b) {
+        return ((a & L) + (b & L)) ^ ((a ^ b) & H);
+    }
+
+    private static long sub(long a, long b) {
+        return ((a | H) - (b & L)) ^ ((a ^ ~b) & H);
+    }
+
+    // F0(x) = x<<<1 ^ x<<<2 ^ x<<<7
+    private static long f0(long x) {
+        return ((x << 1) & SHL_1) ^ ((x >>> 7) & SHR_1)
+             ^ ((x << 2) & SHL_2) ^ ((x >>> 6) & SHR_2)
+             ^ ((x << 7) & SHL_7) ^ ((x >>> 1) & SHR_7);
+    }
+
+    // F1(x) = x<<<3 ^ x<<<4 ^ x<<<6
+    private static long f1(long x) {
+        return ((x << 3) & SHL_3) ^ ((x >>> 5) & SHR_3)
+             ^ ((x << 4) & SHL_4) ^ ((x >>> 4) & SHR_4)
+             ^ ((x << 6) & SHL_6) ^ ((x >>> 2) & SHR_6);
+    }
+}
@@ -0,0 +1,165 @@
+package securityapi.securityalgo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import securityapi.config.ConfigLoader;
+
+/**
+ * 큰 값을 여러 코어로 나눠 처리하는 HIGHT 경로
+ *
+ * CTR 블록은 서로 독립적이므로 카운터 구간 단위로 나눠 fork-join 풀에서 처리합니다.
+ * CBC 는 복호화만 병렬화할 수 있습니다. (각 블록은 직전 암호문 블록만 필요)
+ * 결과는 순차 경로와 바이트 단위로 동일합니다.
+ */
+public final class HightParallel {
+
+    private static final int BLOCK_SIZE_HIGHT = HightEngine.BLOCK_SIZE;
+
+    // 이 크기(바이트) 이상인 입력만 병렬로 처리합니다.
+    private static final int THRESHOLD = Integer.parseInt(ConfigLoader.getProperty("hight.parallel.threshold.bytes", "262144"));
+    // 작업 하나가 맡는 최소 구간 크기(바이트)
+    private static final int CHUNK_SIZE = Math.max(BLOCK_SIZE_HIGHT,
+            Integer.parseInt(ConfigLoader.getProperty("hight.parallel.chunk.bytes", "65536")) & ~(BLOCK_SIZE_HIGHT - 1));
+    // 0 이면 공용 풀(ForkJoinPool.commonPool)을 사용합니다.
+    private static final int THREADS = Integer.parseInt(ConfigLoader.getProperty("hight.parallel.threads", "0"));
+
+    private static final ForkJoinPool POOL = THREADS > 0 ? new ForkJoinPool(THREADS) : ForkJoinPool.commonPool();
+
+    private HightParallel() {
+    }
+
+    public static int threshold() {
+        return THRESHOLD;
+    }
+
+    public static boolean shouldParallelize(int length) {
+        return length >= THRESHOLD && POOL.getParallelism() > 1;
+    }
+
+    /**
+     * hight_ctr 형식(블록 단위 0x00 패딩)의 CTR 암/복호화를 병렬로 수행합니다.
+     */
+    public static byte[] ctr(HightKeySchedule key, byte[] iv, byte[] message, int message_offset, int message_length) {
+        int nPadding = (BLOCK_SIZE_HIGHT - (message_length % BLOCK_SIZE_HIGHT)) % BLOCK_SIZE_HIGHT;
+        byte[] out = new byte[message_length + nPadding];
+        System.arraycopy(message, message_offset, out, 0, message_length);
+
+        ctr(key, HightEngine.getLong(iv, 0), out, 0, out, 0, out.length);
+        return out;
+    }
+
+    /**
+     * counter 부터 시작하는 키스트림을 in 에 XOR 해서 out 에 씁니다. (in == out 가능)
+     */
+    public static void ctr(HightKeySchedule key, long counter, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        POOL.invoke(new CtrTask(key, counter, in, in_offset, out, out_offset, 0, length));
+    }
+
+    /**
+     * HIGHT_CBC_Decrypt_Internal 과 같은 결과(패딩 제거, 잘못된 입력이면 null)를 병렬로 만듭니다.
+     */
+    public static byte[] cbcDecrypt(HightKeySchedule key, byte[] iv, byte[] message, int message_offset, int message_length) {
+        if (message_length % BLOCK_SIZE_HIGHT != 0) {
+            return null;
+        }
+
+        byte[] out = new byte[message_length];
+        cbcDecrypt(key, HightEngine.getLong(iv, 0), message, message_offset, out, 0, message_length);
+
+        int nPaddingLeng = HightCbcChain.paddingLength(out, 0, message_length);
+        if (nPaddingLeng < 0) {
+            return null;
+        }
+        byte[] result = new byte[message_length - nPaddingLeng];
+        System.arraycopy(out, 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * CBC 복호화를 구간별로 병렬 수행합니다. 각 구간이 앞 구간의 마지막 암호문 블록을 읽으므로 in 과 out 은 달라야 합니다.
+     */
+    public static void cbcDecrypt(HightKeySchedule key, long iv, byte[] in, int in_offset, byte[] out, int out_offset, int length) {
+        if (in == out) {
+            throw new IllegalArgumentException("Parallel CBC decryption cannot run in place.");
+        }
+        POOL.invoke(new CbcDecryptTask(key, iv, in, in_offset, out, out_offset, 0, length));
+    }
+
+    private static final class CtrTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final HightKeySchedule key;
+        private final long counter;
+        private final byte[] in;
+        private final int in_offset;
+        private final byte[] out;
+        private final int out_offset;
+        private final int from;
+        private final int to;
+
+        CtrTask(HightKeySchedule key, long counter, byte[] in, int in_offset, byte[] out, int out_offset, int from, int to) {
+            this.key        = key;
+            this.counter    = counter;
+            this.in         = in;
+            this.in_offset  = in_offset;
+            this.out        = out;
+            this.out_offset = out_offset;
+            this.from       = from;
+            this.to         = to;
+        }
+
+        @Override
+        protected void compute() {
+            int length = to - from;
+            if (length <= CHUNK_SIZE) {
+                long start = HightCtrKeystream.counterAt(counter, from / BLOCK_SIZE_HIGHT);
+                HightCtrKeystream.apply(key, start, in, in_offset + from, out, out_offset + from, length);
+                return;
+            }
+
+            // 블록 경계에서 나눠야 카운터 계산이 맞습니다.
+            int mid = from + ((length / 2) & ~(BLOCK_SIZE_HIGHT - 1));
+            invokeAll(new CtrTask(key, counter, in, in_offset, out, out_offset, from, mid),
+                      new CtrTask(key, counter, in, in_offset, out, out_offset, mid, to));
+        }
+    }
+
+    private static final class CbcDecryptTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final HightKeySchedule key;
+        private final long iv;
+        private final byte[] in;
+        private final int in_offset;
+        private final byte[] out;
+        private final int out_offset;
+        private final int from;
+        private final int to;
+
+        CbcDecryptTask(HightKeySchedule key, long iv, byte[] in, int in_offset, byte[] out, int out_offset, int from, int to) {
+            this.key        = key;
+            this.iv         = iv;
+            this.in         = in;
+            this.in_offset  = in_offset;
+            this.out        = out;
+            this.out_offset = out_offset;
+            this.from       = from;
+            this.to         = to;
+        }
+
+        @Override
+        protected void compute() {
+            int length = to - from;
+            if (length <= CHUNK_SIZE) {
+                long previous = (from == 0) ? iv : HightEngine.getLong(in, in_offset + from - BLOCK_SIZE_HIGHT);
+                HightCbcChain.decrypt(key, previous, in, in_offset + from, out, out_offset + from, length);
+                return;
+            }
+
+            int mid = from + ((length / 2) & ~(BLOCK_SIZE_HIGHT - 1));
+            invokeAll(new CbcDecryptTask(key, iv, in, in_offset, out, out_offset, from, mid),
+                      new CbcDecryptTask(key, iv, in, in_offset, out, out_offset, mid, to));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package securityapi.securityalgo;
+
+import java.security.Provider;
+import java.security.Security;
+
+/**
+ * HIGHT JCA 프로바이더
+ *
+ * Cipher.getInstance("HIGHT/CBC/PKCS5Padding") 와 Cipher.getInstance("HIGHT/CTR/NoPadding") 를 제공합니다.
+ * 키는 16바이트 SecretKeySpec(알고리즘 "HIGHT"), IV 는 8바이트 IvParameterSpec 을 사용합니다.
+ *
+ * CBC 출력은 hight_cbc 와 같고, CTR 은 JCA 관례대로 입력과 같은 길이를 출력합니다.
+ * (hight_ctr 형식은 여기에 0x00 패딩 블록의 키스트림이 더 붙은 형태입니다.)
+ */
+public final class HightProvider extends Provider {
+    private static final long serialVersionUID = 1L;
+
+    public static final String NAME = "SecurityApiHIGHT";
+
+    public HightProvider() {
+        super(NAME, "1.0", "KISA HIGHT block cipher (CBC/PKCS5Padding, CTR/NoPadding)");
+
+        put("Cipher.HIGHT/CBC/PKCS5Padding", HightCipherSpi.Cbc.class.getName());
+        put("Alg.Alias.Cipher.HIGHT/CBC/PKCS7Padding", "HIGHT/CBC/PKCS5Padding");
+        put("Cipher.HIGHT/CTR/NoPadding", HightCipherSpi.Ctr.class.getName());
+    }
+
+    /**
+     * 아직 등록되지 않았다면 프로바이더를 등록합니다. 여러 번 호출해도 안전합니다.
+     */
+    public static synchronized void install() {
+        if (Security.getProvider(NAME) == null) {
+            Security.addProvider(new HightProvider());
+        }
+    }
+}
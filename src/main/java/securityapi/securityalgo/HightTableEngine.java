@@ -0,0 +1,274 @@
+package securityapi.securityalgo;
+
+/**
+ * 키 전용 라운드 테이블을 사용하는 HIGHT 블록 엔진
+ *
+ * 라운드 키 바이트 rk[j] 를 F 함수 테이블에 미리 합쳐 둔 키별 테이블(HightKeySchedule.roundTables)을 사용합니다.
+ *   j 가 짝수: T[j][x] = F1(x) ^ rk[j]   (덧셈/뺄셈 쪽)
+ *   j 가 홀수: T[j][x] = F0(x) + rk[j]   (XOR 쪽)
+ * 라운드마다 라운드 키 조회와 연산 하나가 줄어들며, 암호화와 복호화가 같은 테이블을 사용합니다.
+ * 테이블은 128 x 256 바이트(32KB) 이며 결과는 HightEngine 과 동일합니다.
+ */
+final class HightTableEngine {
+
+    private HightTableEngine() {
+    }
+
+    /**
+     * rk 로부터 라운드 테이블을 만듭니다. 인덱스는 (j << 8) | x 입니다.
+     */
+    static byte[] buildTables(int[] rk) {
+        byte[] t = new byte[rk.length << 8];
+        for (int j = 0; j < rk.length; j++) {
+            int[] f = (j & 1) == 0 ? HightEngine.F1 : HightEngine.F0;
+            for (int x = 0; x < 256; x++) {
+                t[(j << 8) | x] = (byte)((j & 1) == 0 ? (f[x] ^ rk[j]) : (f[x] + rk[j]));
+            }
+        }
+        return t;
+    }
+
+    static long encryptBlock(HightKeySchedule key, long block) {
+        final byte[] t = key.roundTables;
+        final int[] wk = key.wk;
+
+        // EncIni_Transformation
+        int x0 = ((int)(block >>> 56) + wk[12]) & 0xff;
+        int x1 = (int)(block >>> 48) & 0xff;
+        int x2 = ((int)(block >>> 40) ^ wk[13]) & 0xff;
+        int x3 = (int)(block >>> 32) & 0xff;
+        int x4 = ((int)(block >>> 24) + wk[14]) & 0xff;
+        int x5 = (int)(block >>> 16) & 0xff;
+        int x6 = ((int)(block >>> 8) ^ wk[15]) & 0xff;
+        int x7 = (int)block & 0xff;
+
+        // 32라운드를 모두 풀어 썼습니다. 테이블 오프셋 = 라운드 키 인덱스 * 256 (상수라서 범위 검사가 단순해집니다)
+        x1 = (x1 + t[    0 + x0]) & 0xff;  x3 = (x3 ^ t[  256 + x2]) & 0xff;
+        x5 = (x5 + t[  512 + x4]) & 0xff;  x7 = (x7 ^ t[  768 + x6]) & 0xff;
+
+        x0 = (x0 + t[ 1024 + x7]) & 0xff;  x2 = (x2 ^ t[ 1280 + x1]) & 0xff;
+        x4 = (x4 + t[ 1536 + x3]) & 0xff;  x6 = (x6 ^ t[ 1792 + x5]) & 0xff;
+
+        x7 = (x7 + t[ 2048 + x6]) & 0xff;  x1 = (x1 ^ t[ 2304 + x0]) & 0xff;
+        x3 = (x3 + t[ 2560 + x2]) & 0xff;  x5 = (x5 ^ t[ 2816 + x4]) & 0xff;
+
+        x6 = (x6 + t[ 3072 + x5]) & 0xff;  x0 = (x0 ^ t[ 3328 + x7]) & 0xff;
+        x2 = (x2 + t[ 3584 + x1]) & 0xff;  x4 = (x4 ^ t[ 3840 + x3]) & 0xff;
+
+        x5 = (x5 + t[ 4096 + x4]) & 0xff;  x7 = (x7 ^ t[ 4352 + x6]) & 0xff;
+        x1 = (x1 + t[ 4608 + x0]) & 0xff;  x3 = (x3 ^ t[ 4864 + x2]) & 0xff;
+
+        x4 = (x4 + t[ 5120 + x3]) & 0xff;  x6 = (x6 ^ t[ 5376 + x5]) & 0xff;
+        x0 = (x0 + t[ 5632 + x7]) & 0xff;  x2 = (x2 ^ t[ 5888 + x1]) & 0xff;
+
+        x3 = (x3 + t[ 6144 + x2]) & 0xff;  x5 = (x5 ^ t[ 6400 + x4]) & 0xff;
+        x7 = (x7 + t[ 6656 + x6]) & 0xff;  x1 = (x1 ^ t[ 6912 + x0]) & 0xff;
+
+        x2 = (x2 + t[ 7168 + x1]) & 0xff;  x4 = (x4 ^ t[ 7424 + x3]) & 0xff;
+        x6 = (x6 + t[ 7680 + x5]) & 0xff;  x0 = (x0 ^ t[ 7936 + x7]) & 0xff;
+
+        x1 = (x1 + t[ 8192 + x0]) & 0xff;  x3 = (x3 ^ t[ 8448 + x2]) & 0xff;
+        x5 = (x5 + t[ 8704 + x4]) & 0xff;  x7 = (x7 ^ t[ 8960 + x6]) & 0xff;
+
+        x0 = (x0 + t[ 9216 + x7]) & 0xff;  x2 = (x2 ^ t[ 9472 + x1]) & 0xff;
+        x4 = (x4 + t[ 9728 + x3]) & 0xff;  x6 = (x6 ^ t[ 9984 + x5]) & 0xff;
+
+        x7 = (x7 + t[10240 + x6]) & 0xff;  x1 = (x1 ^ t[10496 + x0]) & 0xff;
+        x3 = (x3 + t[10752 + x2]) & 0xff;  x5 = (x5 ^ t[11008 + x4]) & 0xff;
+
+        x6 = (x6 + t[11264 + x5]) & 0xff;  x0 = (x0 ^ t[11520 + x7]) & 0xff;
+        x2 = (x2 + t[11776 + x1]) & 0xff;  x4 = (x4 ^ t[12032 + x3]) & 0xff;
+
+        x5 = (x5 + t[12288 + x4]) & 0xff;  x7 = (x7 ^ t[12544 + x6]) & 0xff;
+        x1 = (x1 + t[12800 + x0]) & 0xff;  x3 = (x3 ^ t[13056 + x2]) & 0xff;
+
+        x4 = (x4 + t[13312 + x3]) & 0xff;  x6 = (x6 ^ t[13568 + x5]) & 0xff;
+        x0 = (x0 + t[13824 + x7]) & 0xff;  x2 = (x2 ^ t[14080 + x1]) & 0xff;
+
+        x3 = (x3 + t[14336 + x2]) & 0xff;  x5 = (x5 ^ t[14592 + x4]) & 0xff;
+        x7 = (x7 + t[14848 + x6]) & 0xff;  x1 = (x1 ^ t[15104 + x0]) & 0xff;
+
+        x2 = (x2 + t[15360 + x1]) & 0xff;  x4 = (x4 ^ t[15616 + x3]) & 0xff;
+        x6 = (x6 + t[15872 + x5]) & 0xff;  x0 = (x0 ^ t[16128 + x7]) & 0xff;
+
+        x1 = (x1 + t[16384 + x0]) & 0xff;  x3 = (x3 ^ t[16640 + x2]) & 0xff;
+        x5 = (x5 + t[16896 + x4]) & 0xff;  x7 = (x7 ^ t[17152 + x6]) & 0xff;
+
+        x0 = (x0 + t[17408 + x7]) & 0xff;  x2 = (x2 ^ t[17664 + x1]) & 0xff;
+        x4 = (x4 + t[17920 + x3]) & 0xff;  x6 = (x6 ^ t[18176 + x5]) & 0xff;
+
+        x7 = (x7 + t[18432 + x6]) & 0xff;  x1 = (x1 ^ t[18688 + x0]) & 0xff;
+        x3 = (x3 + t[18944 + x2]) & 0xff;  x5 = (x5 ^ t[19200 + x4]) & 0xff;
+
+        x6 = (x6 + t[19456 + x5]) & 0xff;  x0 = (x0 ^ t[19712 + x7]) & 0xff;
+        x2 = (x2 + t[19968 + x1]) & 0xff;  x4 = (x4 ^ t[20224 + x3]) & 0xff;
+
+        x5 = (x5 + t[20480 + x4]) & 0xff;  x7 = (x7 ^ t[20736 + x6]) & 0xff;
+        x1 = (x1 + t[20992 + x0]) & 0xff;  x3 = (x3 ^ t[21248 + x2]) & 0xff;
+
+        x4 = (x4 + t[21504 + x3]) & 0xff;  x6 = (x6 ^ t[21760 + x5]) & 0xff;
+        x0 = (x0 + t[22016 + x7]) & 0xff;  x2 = (x2 ^ t[22272 + x1]) & 0xff;
+
+        x3 = (x3 + t[22528 + x2]) & 0xff;  x5 = (x5 ^ t[22784 + x4]) & 0xff;
+        x7 = (x7 + t[23040 + x6]) & 0xff;  x1 = (x1 ^ t[23296 + x0]) & 0xff;
+
+        x2 = (x2 + t[23552 + x1]) & 0xff;  x4 = (x4 ^ t[23808 + x3]) & 0xff;
+        x6 = (x6 + t[24064 + x5]) & 0xff;  x0 = (x0 ^ t[24320 + x7]) & 0xff;
+
+        x1 = (x1 + t[24576 + x0]) & 0xff;  x3 = (x3 ^ t[24832 + x2]) & 0xff;
+        x5 = (x5 + t[25088 + x4]) & 0xff;  x7 = (x7 ^ t[25344 + x6]) & 0xff;
+
+        x0 = (x0 + t[25600 + x7]) & 0xff;  x2 = (x2 ^ t[25856 + x1]) & 0xff;
+        x4 = (x4 + t[26112 + x3]) & 0xff;  x6 = (x6 ^ t[26368 + x5]) & 0xff;
+
+        x7 = (x7 + t[26624 + x6]) & 0xff;  x1 = (x1 ^ t[26880 + x0]) & 0xff;
+        x3 = (x3 + t[27136 + x2]) & 0xff;  x5 = (x5 ^ t[27392 + x4]) & 0xff;
+
+        x6 = (x6 + t[27648 + x5]) & 0xff;  x0 = (x0 ^ t[27904 + x7]) & 0xff;
+        x2 = (x2 + t[28160 + x1]) & 0xff;  x4 = (x4 ^ t[28416 + x3]) & 0xff;
+
+        x5 = (x5 + t[28672 + x4]) & 0xff;  x7 = (x7 ^ t[28928 + x6]) & 0xff;
+        x1 = (x1 + t[29184 + x0]) & 0xff;  x3 = (x3 ^ t[29440 + x2]) & 0xff;
+
+        x4 = (x4 + t[29696 + x3]) & 0xff;  x6 = (x6 ^ t[29952 + x5]) & 0xff;
+        x0 = (x0 + t[30208 + x7]) & 0xff;  x2 = (x2 ^ t[30464 + x1]) & 0xff;
+
+        x3 = (x3 + t[30720 + x2]) & 0xff;  x5 = (x5 ^ t[30976 + x4]) & 0xff;
+        x7 = (x7 + t[31232 + x6]) & 0xff;  x1 = (x1 ^ t[31488 + x0]) & 0xff;
+
+        x2 = (x2 + t[31744 + x1]) & 0xff;  x4 = (x4 ^ t[32000 + x3]) & 0xff;
+        x6 = (x6 + t[32256 + x5]) & 0xff;  x0 = (x0 ^ t[32512 + x7]) & 0xff;
+
+        // EncFin_Transformation
+        return ((long)((x1 + wk[0]) & 0xff) << 56)
+             | ((long)x2                    << 48)
+             | ((long)((x3 ^ wk[1]) & 0xff) << 40)
+             | ((long)x4                    << 32)
+             | ((long)((x5 + wk[2]) & 0xff) << 24)
+             | ((long)x6                    << 16)
+             | ((long)((x7 ^ wk[3]) & 0xff) << 8)
+             |  (long)x0;
+    }
+
+    static long decryptBlock(HightKeySchedule key, long block) {
+        final byte[] t = key.roundTables;
+        final int[] wk = key.wk;
+
+        // DecIni_Transformation
+        int x0 = ((int)(block >>> 56) - wk[0]) & 0xff;
+        int x1 = (int)(block >>> 48) & 0xff;
+        int x2 = ((int)(block >>> 40) ^ wk[1]) & 0xff;
+        int x3 = (int)(block >>> 32) & 0xff;
+        int x4 = ((int)(block >>> 24) - wk[2]) & 0xff;
+        int x5 = (int)(block >>> 16) & 0xff;
+        int x6 = ((int)(block >>> 8) ^ wk[3]) & 0xff;
+        int x7 = (int)block & 0xff;
+
+        // 암호화와 같은 테이블을 라운드 키 역순으로 사용합니다.
+        x1 = (x1 - t[31744 + x0]) & 0xff;  x3 = (x3 ^ t[32000 + x2]) & 0xff;
+        x5 = (x5 - t[32256 + x4]) & 0xff;  x7 = (x7 ^ t[32512 + x6]) & 0xff;
+
+        x2 = (x2 - t[30720 + x1]) & 0xff;  x4 = (x4 ^ t[30976 + x3]) & 0xff;
+        x6 = (x6 - t[31232 + x5]) & 0xff;  x0 = (x0 ^ t[31488 + x7]) & 0xff;
+
+        x3 = (x3 - t[29696 + x2]) & 0xff;  x5 = (x5 ^ t[29952 + x4]) & 0xff;
+        x7 = (x7 - t[30208 + x6]) & 0xff;  x1 = (x1 ^ t[30464 + x0]) & 0xff;
+
+        x4 = (x4 - t[28672 + x3]) & 0xff;  x6 = (x6 ^ t[28928 + x5]) & 0xff;
+        x0 = (x0 - t[29184 + x7]) & 0xff;  x2 = (x2 ^ t[29440 + x1]) & 0xff;
+
+        x5 = (x5 - t[27648 + x4]) & 0xff;  x7 = (x7 ^ t[27904 + x6]) & 0xff;
+        x1 = (x1 - t[28160 + x0]) & 0xff;  x3 = (x3 ^ t[28416 + x2]) & 0xff;
+
+        x6 = (x6 - t[26624 + x5]) & 0xff;  x0 = (x0 ^ t[26880 + x7]) & 0xff;
+        x2 = (x2 - t[27136 + x1]) & 0xff;  x4 = (x4 ^ t[27392 + x3]) & 0xff;
+
+        x7 = (x7 - t[25600 + x6]) & 0xff;  x1 = (x1 ^ t[25856 + x0]) & 0xff;
+        x3 = (x3 - t[26112 + x2]) & 0xff;  x5 = (x5 ^ t[26368 + x4]) & 0xff;
+
+        x0 = (x0 - t[24576 + x7]) & 0xff;  x2 = (x2 ^ t[24832 + x1]) & 0xff;
+        x4 = (x4 - t[25088 + x3]) & 0xff;  x6 = (x6 ^ t[25344 + x5]) & 0xff;
+
+        x1 = (x1 - t[23552 + x0]) & 0xff;  x3 = (x3 ^ t[23808 + x2]) & 0xff;
+        x5 = (x5 - t[24064 + x4]) & 0xff;  x7 = (x7 ^ t[24320 + x6]) & 0xff;
+
+        x2 = (x2 - t[22528 + x1]) & 0xff;  x4 = (x4 ^ t[22784 + x3]) & 0xff;
+        x6 = (x6 - t[23040 + x5]) & 0xff;  x0 = (x0 ^ t[23296 + x7]) & 0xff;
+
+        x3 = (x3 - t[21504 + x2]) & 0xff;  x5 = (x5 ^ t[21760 + x4]) & 0xff;
+        x7 = (x7 - t[22016 + x6]) & 0xff;  x1 = (x1 ^ t[22272 + x0]) & 0xff;
+
+        x4 = (x4 - t[20480 + x3]) & 0xff;  x6 = (x6 ^ t[20736 + x5]) & 0xff;
+        x0 = (x0 - t[20992 + x7]) & 0xff;  x2 = (x2 ^ t[21248 + x1]) & 0xff;
+
+        x5 = (x5 - t[19456 + x4]) & 0xff;  x7 = (x7 ^ t[19712 + x6]) & 0xff;
+        x1 = (x1 - t[19968 + x0]) & 0xff;  x3 = (x3 ^ t[20224 + x2]) & 0xff;
+
+        x6 = (x6 - t[18432 + x5]) & 0xff;  x0 = (x0 ^ t[18688 + x7]) & 0xff;
+        x2 = (x2 - t[18944 + x1]) & 0xff;  x4 = (x4 ^ t[19200 + x3]) & 0xff;
+
+        x7 = (x7 - t[17408 + x6]) & 0xff;  x1 = (x1 ^ t[17664 + x0]) & 0xff;
+        x3 = (x3 - t[17920 + x2]) & 0xff;  x5 = (x5 ^ t[18176 + x4]) & 0xff;
+
+        x0 = (x0 - t[16384 + x7]) & 0xff;  x2 = (x2 ^ t[16640 + x1]) & 0xff;
+        x4 = (x4 - t[16896 + x3]) & 0xff;  x6 = (x6 ^ t[17152 + x5]) & 0xff;
+
+        x1 = (x1 - t[15360 + x0]) & 0xff;  x3 = (x3 ^ t[15616 + x2]) & 0xff;
+        x5 = (x5 - t[15872 + x4]) & 0xff;  x7 = (x7 ^ t[16128 + x6]) & 0xff;
+
+        x2 = (x2 - t[14336 + x1]) & 0xff;  x4 = (x4 ^ t[14592 + x3]) & 0xff;
+        x6 = (x6 - t[14848 + x5]) & 0xff;  x0 = (x0 ^ t[15104 + x7]) & 0xff;
+
+        x3 = (x3 - t[13312 + x2]) & 0xff;  x5 = (x5 ^ t[13568 + x4]) & 0xff;
+        x7 = (x7 - t[13824 + x6]) & 0xff;  x1 = (x1 ^ t[14080 + x0]) & 0xff;
+
+        x4 = (x4 - t[12288 + x3]) & 0xff;  x6 = (x6 ^ t[12544 + x5]) & 0xff;
+        x0 = (x0 - t[12800 + x7]) & 0xff;  x2 = (x2 ^ t[13056 + x1]) & 0xff;
+
+        x5 = (x5 - t[11264 + x4]) & 0xff;  x7 = (x7 ^ t[11520 + x6]) & 0xff;
+        x1 = (x1 - t[11776 + x0]) & 0xff;  x3 = (x3 ^ t[12032 + x2]) & 0xff;
+
+        x6 = (x6 - t[10240 + x5]) & 0xff;  x0 = (x0 ^ t[10496 + x7]) & 0xff;
+        x2 = (x2 - t[10752 + x1]) & 0xff;  x4 = (x4 ^ t[11008 + x3]) & 0xff;
+
+        x7 = (x7 - t[ 9216 + x6]) & 0xff;  x1 = (x1 ^ t[ 9472 + x0]) & 0xff;
+        x3 = (x3 - t[ 9728 + x2]) & 0xff;  x5 = (x5 ^ t[ 9984 + x4]) & 0xff;
+
+        x0 = (x0 - t[ 8192 + x7]) & 0xff;  x2 = (x2 ^ t[ 8448 + x1]) & 0xff;
+        x4 = (x4 - t[ 8704 + x3]) & 0xff;  x6 = (x6 ^ t[ 8960 + x5]) & 0xff;
+
+        x1 = (x1 - t[ 7168 + x0]) & 0xff;  x3 = (x3 ^ t[ 7424 + x2]) & 0xff;
+        x5 = (x5 - t[ 7680 + x4]) & 0xff;  x7 = (x7 ^ t[ 7936 + x6]) & 0xff;
+
+        x2 = (x2 - t[ 6144 + x1]) & 0xff;  x4 = (x4 ^ t[ 6400 + x3]) & 0xff;
+        x6 = (x6 - t[ 6656 + x5]) & 0xff;  x0 = (x0 ^ t[ 6912 + x7]) & 0xff;
+
+        x3 = (x3 - t[ 5120 + x2]) & 0xff;  x5 = (x5 ^ t[ 5376 + x4]) & 0xff;
+        x7 = (x7 - t[ 5632 + x6]) & 0xff;  x1 = (x1 ^ t[ 5888 + x0]) & 0xff;
+
+        x4 = (x4 - t[ 4096 + x3]) & 0xff;  x6 = (x6 ^ t[ 4352 + x5]) & 0xff;
+        x0 = (x0 - t[ 4608 + x7]) & 0xff;  x2 = (x2 ^ t[ 4864 + x1]) & 0xff;
+
+        x5 = (x5 - t[ 3072 + x4]) & 0xff;  x7 = (x7 ^ t[ 3328 + x6]) & 0xff;
+        x1 = (x1 - t[ 3584 + x0]) & 0xff;  x3 = (x3 ^ t[ 3840 + x2]) & 0xff;
+
+        x6 = (x6 - t[ 2048 + x5]) & 0xff;  x0 = (x0 ^ t[ 2304 + x7]) & 0xff;
+        x2 = (x2 - t[ 2560 + x1]) & 0xff;  x4 = (x4 ^ t[ 2816 + x3]) & 0xff;
+
+        x7 = (x7 - t[ 1024 + x6]) & 0xff;  x1 = (x1 ^ t[ 1280 + x0]) & 0xff;
+        x3 = (x3 - t[ 1536 + x2]) & 0xff;  x5 = (x5 ^ t[ 1792 + x4]) & 0xff;
+
+        x0 = (x0 - t[    0 + x7]) & 0xff;  x2 = (x2 ^ t[  256 + x1]) & 0xff;
+        x4 = (x4 - t[  512 + x3]) & 0xff;  x6 = (x6 ^ t[  768 + x5]) & 0xff;
+
+        // DecFin_Transformation
+        return ((long)((x7 - wk[12]) & 0xff) << 56)
+             | ((long)x0                     << 48)
+             | ((long)((x1 ^ wk[13]) & 0xff) << 40)
+             | ((long)x2                     << 32)
+             | ((long)((x3 - wk[14]) & 0xff) << 24)
+             | ((long)x4                     << 16)
+             | ((long)((x5 ^ wk[15]) & 0xff) << 8)
+             |  (long)x6;
+    }
+}
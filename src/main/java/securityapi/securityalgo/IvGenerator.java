@@ -0,0 +1,297 @@
+package securityapi.securityalgo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import securityapi.config.ConfigLoader;
+
+/**
+ * HIGHT IV(8바이트) 생성기
+ *
+ * random: 스레드마다 DRBG(SecureRandom "DRBG") 하나를 만들어 두고, IV 64개 분량을 한 번에 뽑아 버퍼에 담아 둡니다.
+ *         호출마다 SecureRandom 을 새로 만들고 시드하는 비용이 없고, 스레드 간 경합도 없습니다.
+ *
+ * counter: CTR 용 카운터 nonce. 64비트 카운터를 [epoch 24비트][순번 20비트][블록 20비트] 로 나눕니다.
+ *          순번 하나(슬롯)가 블록 2^20 개(8 MiB) 범위이고, 값 길이를 알면 그만큼 연속된 슬롯을 예약합니다.
+ *          (nextCounter(blocks), nextCtrNonce(dst, offset, length)) 예약은 nonce 하나를 값 하나에만 쓸 때 의미가 있습니다.
+ *          길이를 미리 모르는 경우(hight_ctr 행 IV, 스트리밍 암호화)는 슬롯 하나만 쓰므로 checkCtrNonceRange 로 길이를 막습니다.
+ *          epoch 는 처음 nextCounter 를 부를 때와 순번이 다 찰 때마다 새로 정합니다. (random 모드에서는 예약하지 않음)
+ *          - iv.counter.epoch.file 이 있으면 그 파일을 잠근 채 epoch 를 0 부터 차례로 예약합니다.
+ *            같은 키를 쓰는 모든 인스턴스가 같은 파일을 공유해야 하며, 그러면 재시작과 인스턴스 사이에서도 겹치지 않습니다.
+ *          - 없으면 epoch 를 무작위(24비트)로 뽑습니다. 한 프로세스 안에서만 겹치지 않고, 프로세스 사이에서는
+ *            생일 한계에 따라 시작 횟수가 약 2^12 를 넘으면 epoch 가 겹칠 수 있습니다. 이 경우 random 이 더 안전합니다.
+ *          블록 위치가 하위 48비트 안에 있으므로 hight_ctr 의 카운터 자리올림 특이 동작도 일어나지 않습니다.
+ *
+ * 처리량과 경합은 metrics() 로 확인할 수 있습니다.
+ */
+public final class IvGenerator {
+
+    public static final int IV_LENGTH = HightEngine.BLOCK_SIZE;
+
+    /** counter nonce 하나가 예약하는 블록 수의 비트 수 */
+    public static final int COUNTER_BLOCK_BITS = 20;
+    /** 슬롯 하나(counter nonce 하나)로 암호화할 수 있는 최대 바이트 */
+    public static final long COUNTER_RANGE_BYTES = (long) IV_LENGTH << COUNTER_BLOCK_BITS;
+    private static final long SLOT_BLOCKS   = 1L << COUNTER_BLOCK_BITS;
+    private static final int SEQUENCE_BITS = 20;
+    private static final int EPOCH_BITS    = 64 - COUNTER_BLOCK_BITS - SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long EPOCH_MASK    = (1L << EPOCH_BITS) - 1;
+
+    private static final int BUFFERED_IVS = 64;
+
+    // CTR 값별 nonce 를 카운터 nonce 로 발급할지 여부 (iv.ctr.nonce)
+    private static final boolean COUNTER_NONCE_FOR_CTR = "counter".equalsIgnoreCase(ConfigLoader.getProperty("iv.ctr.nonce", "random").trim());
+    // epoch 예약 파일 (없으면 무작위 epoch)
+    private static final Path EPOCH_FILE = epochFile(ConfigLoader.getProperty("iv.counter.epoch.file", "").trim());
+
+    private static final ThreadLocal<Pool> POOLS = ThreadLocal.withInitial(Pool::new);
+
+    private static final LongAdder RANDOM_IVS      = new LongAdder();
+    private static final LongAdder COUNTER_NONCES  = new LongAdder();
+    private static final LongAdder REFILLS         = new LongAdder();
+    private static final LongAdder REFILL_NANOS    = new LongAdder();
+    private static final LongAdder DRBG_INSTANCES  = new LongAdder();
+    private static final LongAdder EPOCH_CHANGES   = new LongAdder();
+    private static final LongAdder EPOCH_FILE_NANOS = new LongAdder();
+    private static final LongAdder CAS_RETRIES     = new LongAdder();
+
+    // 마지막으로 발급한 [epoch][순번]. nonce 는 이 값을 COUNTER_BLOCK_BITS 만큼 올린 값입니다.
+    // epoch 예약 파일을 쓸데없이 잠그지 않도록 첫 nextCounter 에서 만듭니다. (counterState)
+    private static volatile AtomicLong counterState;
+
+    private IvGenerator() {
+    }
+
+    /**
+     * 스레드별 DRBG 버퍼에서 무작위 IV 를 꺼내 dst[offset..offset+8) 에 씁니다.
+     */
+    public static void nextRandom(byte[] dst, int offset) {
+        POOLS.get().next(dst, offset);
+        RANDOM_IVS.increment();
+    }
+
+    /**
+     * dst[offset..offset+length) 를 무작위 바이트로 채웁니다. (IV 길이가 8바이트가 아닌 알고리즘용)
+     */
+    public static void nextRandom(byte[] dst, int offset, int length) {
+        Pool pool = POOLS.get();
+        int end = offset + length;
+        for (; end - offset >= IV_LENGTH; offset += IV_LENGTH) {
+            pool.next(dst, offset);
+            RANDOM_IVS.increment();
+        }
+        if (offset < end) {
+            byte[] tail = new byte[IV_LENGTH];
+            pool.next(tail, 0);
+            RANDOM_IVS.increment();
+            System.arraycopy(tail, 0, dst, offset, end - offset);
+            Arrays.fill(tail, (byte) 0);
+        }
+    }
+
+    public static byte[] nextRandom() {
+        byte[] iv = new byte[IV_LENGTH];
+        nextRandom(iv, 0);
+        return iv;
+    }
+
+    /**
+     * 슬롯 하나(2^COUNTER_BLOCK_BITS 블록)짜리 CTR 초기 카운터. nextCounter(0) 과 같습니다.
+     */
+    public static long nextCounter() {
+        return nextCounter(0);
+    }
+
+    /**
+     * blocks 블록을 암호화할 CTR 초기 카운터를 돌려줍니다. ceil(blocks / 2^COUNTER_BLOCK_BITS) 개(최소 1개)의
+     * 연속된 슬롯을 예약하므로 카운터가 다른 nonce 의 범위로 넘어가지 않습니다. 돌려받은 카운터는 값 하나에만 써야 합니다.
+     * 겹치지 않는 범위는 클래스 설명의 epoch 규칙을 따릅니다.
+     */
+    public static long nextCounter(long blocks) {
+        long slots = Math.max(1, (blocks + SLOT_BLOCKS - 1) >>> COUNTER_BLOCK_BITS);
+        if (blocks < 0 || slots > SEQUENCE_MASK) {
+            throw new IllegalArgumentException("Too many blocks for one counter nonce: " + blocks);
+        }
+        AtomicLong state = counterState();
+        long current;
+        long first;
+        boolean newEpoch;
+        while (true) {
+            current = state.get();
+            long sequence = current & SEQUENCE_MASK;
+            long epoch    = current >>> SEQUENCE_BITS;
+            // 이번 epoch 에 남은 순번이 모자라면 새 epoch 의 0 번부터
+            newEpoch = sequence + slots > SEQUENCE_MASK;
+            first = newEpoch ? newEpoch(epoch) << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, first + slots - 1)) {
+                break;
+            }
+            CAS_RETRIES.increment();
+        }
+        if (newEpoch) {
+            EPOCH_CHANGES.increment();
+        }
+        COUNTER_NONCES.increment();
+        return first << COUNTER_BLOCK_BITS;
+    }
+
+    /**
+     * 길이를 미리 알 수 없어 슬롯 하나만 쓰는 CTR(hight_ctr 의 행 IV, 스트리밍 암호화)에서 bytes 바이트를 암호화해도 되는지 확인합니다.
+     * iv.ctr.nonce=counter 이면 COUNTER_RANGE_BYTES 까지이고, random 이면 제한하지 않습니다.
+     *
+     * @throws IllegalArgumentException 다음 nonce 의 키스트림과 겹치게 될 때
+     */
+    public static void checkCtrNonceRange(long bytes) {
+        if (COUNTER_NONCE_FOR_CTR && bytes > COUNTER_RANGE_BYTES) {
+            throw new IllegalArgumentException("HIGHT-CTR input of " + bytes + " bytes exceeds the "
+                + COUNTER_RANGE_BYTES + "-byte range of one counter nonce (iv.ctr.nonce=counter).");
+        }
+    }
+
+    /**
+     * iv.ctr.nonce=counter 인지 여부
+     */
+    public static boolean counterNonceForCtr() {
+        return COUNTER_NONCE_FOR_CTR;
+    }
+
+    /**
+     * length 바이트짜리 CTR 값 하나에 쓸 nonce 를 dst[offset..offset+8) 에 씁니다.
+     * iv.ctr.nonce=counter 이면 그 길이만큼 슬롯을 예약한 nextCounter, 아니면 무작위입니다.
+     */
+    public static void nextCtrNonce(byte[] dst, int offset, long length) {
+        if (COUNTER_NONCE_FOR_CTR) {
+            HightEngine.putLong(dst, offset, nextCounter((length + IV_LENGTH - 1) / IV_LENGTH));
+        } else {
+            nextRandom(dst, offset);
+        }
+    }
+
+    public static byte[] nextCounterIv() {
+        byte[] iv = new byte[IV_LENGTH];
+        HightEngine.putLong(iv, 0, nextCounter());
+        return iv;
+    }
+
+    /**
+     * 누적 지표. refillNanos 는 DRBG 에서 버퍼를 채우는 데 쓴 시간, casRetries 는 counter nonce 발급 시 경합 횟수,
+     * epochFileNanos 는 epoch 예약 파일을 잠그고 갱신하는 데 쓴 시간입니다.
+     */
+    public static Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("randomIvs", RANDOM_IVS.sum());
+        metrics.put("counterNonces", COUNTER_NONCES.sum());
+        metrics.put("refills", REFILLS.sum());
+        metrics.put("refillNanos", REFILL_NANOS.sum());
+        metrics.put("drbgInstances", DRBG_INSTANCES.sum());
+        metrics.put("epochChanges", EPOCH_CHANGES.sum());
+        metrics.put("epochFileNanos", EPOCH_FILE_NANOS.sum());
+        metrics.put("casRetries", CAS_RETRIES.sum());
+        return metrics;
+    }
+
+    private static AtomicLong counterState() {
+        AtomicLong state = counterState;
+        if (state == null) {
+            synchronized (IvGenerator.class) {
+                state = counterState;
+                if (state == null) {
+                    state = new AtomicLong(newEpoch(0) << SEQUENCE_BITS);
+                    counterState = state;
+                }
+            }
+        }
+        return state;
+    }
+
+    // 다음 epoch. 예약 파일이 있으면 파일에서, 없으면 이전 epoch 와 다른 무작위 값
+    private static long newEpoch(long previous) {
+        if (EPOCH_FILE != null) {
+            return reserveEpoch();
+        }
+        byte[] bytes = new byte[IV_LENGTH];
+        long epoch;
+        do {
+            POOLS.get().next(bytes, 0);
+            epoch = HightEngine.getLong(bytes, 0) & EPOCH_MASK;
+        } while (epoch == previous);
+        return epoch;
+    }
+
+    /*
+     * 파일에 저장된 다음 epoch(8바이트, 빈 파일이면 0)를 읽고 1 늘려 씁니다.
+     * 파일 잠금은 프로세스 사이, counterState 의 CAS 는 프로세스 안의 동시 예약을 막습니다.
+     * (CAS 에서 진 스레드가 예약한 epoch 는 쓰이지 않고 버려집니다.)
+     */
+    private static long reserveEpoch() {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(EPOCH_FILE, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            ByteBuffer state = ByteBuffer.allocate(Long.BYTES);
+            long epoch = 0;
+            if (channel.read(state, 0) == Long.BYTES) {
+                epoch = state.getLong(0);
+            }
+            if (epoch < 0 || epoch > EPOCH_MASK) {
+                throw new IllegalStateException("Counter nonce epochs in " + EPOCH_FILE + " are exhausted.");
+            }
+            state.clear();
+            state.putLong(0, epoch + 1);
+            channel.write(state, 0);
+            channel.force(true);
+            return epoch;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot reserve a counter nonce epoch in " + EPOCH_FILE, e);
+        } finally {
+            EPOCH_FILE_NANOS.add(System.nanoTime() - start);
+        }
+    }
+
+    private static Path epochFile(String path) {
+        return path.isEmpty() ? null : Paths.get(path);
+    }
+
+    private static SecureRandom newDrbg() {
+        DRBG_INSTANCES.increment();
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    // 스레드 하나가 쓰는 DRBG 와 IV 버퍼
+    private static final class Pool {
+        private final SecureRandom drbg = newDrbg();
+        private final byte[] buffer = new byte[IV_LENGTH * BUFFERED_IVS];
+        private int position = buffer.length;
+
+        void next(byte[] dst, int offset) {
+            if (position == buffer.length) {
+                long start = System.nanoTime();
+                drbg.nextBytes(buffer);
+                REFILL_NANOS.add(System.nanoTime() - start);
+                REFILLS.increment();
+                position = 0;
+            }
+            System.arraycopy(buffer, position, dst, offset, IV_LENGTH);
+            // 한 번 내보낸 바이트는 버퍼에 남기지 않습니다.
+            Arrays.fill(buffer, position, position + IV_LENGTH, (byte) 0);
+            position += IV_LENGTH;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package securityapi.securityalgo;
+
+/**
+ * 알고리즘 인스턴스들이 함께 쓰는 키 재료 (불변 객체)
+ *
+ * EncryptionService 가 16바이트 키 하나로 한 번만 만들어 모든 AlgorithmProvider.create 에 넘깁니다.
+ * 같은 블록 암호를 쓰는 알고리즘끼리 라운드 키를 다시 만들지 않고 공유합니다.
+ */
+public final class KeyMaterial {
+
+    private final byte[] userKey;
+    private final HightKeySchedule hight;
+    private final LeaKeySchedule lea;
+
+    public KeyMaterial(byte[] userKey, HightEngineType engine) {
+        this.userKey = userKey.clone();
+        this.hight   = HightKeySchedule.of(userKey, engine);
+        this.lea     = LeaKeySchedule.of(userKey);
+    }
+
+    // 용도별 키 유도(HMAC 등)에 쓰는 원본 키의 사본
+    public byte[] userKey() {
+        return userKey.clone();
+    }
+
+    public HightKeySchedule hight() {
+        return hight;
+    }
+
+    public LeaKeySchedule lea() {
+        return lea;
+    }
+}
@@ -0,0 +1,135 @@
+package securityapi.securityalgo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import securityapi.securityalgo.AlgorithmInfo.Feature;
+import securityapi.securityalgo.AlgorithmInfo.Padding;
+
+/**
+ * LEA-128 계열 알고리즘 (lea_cbc, lea_ctr). IV 는 16바이트입니다.
+ *
+ * 블록 연산 자체가 빨라 여러 값도 값마다 처리합니다.
+ */
+public final class LeaAlgorithms {
+
+    private static final int BLOCK_SIZE_LEA = LeaEngine.BLOCK_SIZE;
+    // lea_ctr 이 값마다 앞에 붙이는 nonce(초기 카운터) 길이
+    private static final int NONCE_LENGTH = LeaEngine.BLOCK_SIZE;
+
+    private LeaAlgorithms() {
+    }
+
+    /** PKCS7 패딩 CBC. 복호화 시 패딩 바이트 전체를 검사합니다. */
+    public static final class CbcProvider implements AlgorithmProvider {
+        private static final AlgorithmInfo INFO = new AlgorithmInfo(EncryptionService.LEA_CBC, BLOCK_SIZE_LEA, BLOCK_SIZE_LEA,
+                Padding.PKCS7, 0, EnumSet.noneOf(Feature.class));
+
+        @Override
+        public AlgorithmInfo info() {
+            return INFO;
+        }
+
+        @Override
+        public CipherAlgorithm create(KeyMaterial keys) {
+            return new Cbc(INFO, keys.lea());
+        }
+    }
+
+    /**
+     * 패딩 없는 CTR (128비트 빅엔디안 카운터). 암호문은 [값별 nonce 16바이트][평문과 같은 길이] 이며
+     * 키스트림은 행의 IV 가 아니라 그 nonce 에서 시작하므로 한 행의 컬럼들이 키스트림을 공유하지 않습니다.
+     */
+    public static final class CtrProvider implements AlgorithmProvider {
+        private static final AlgorithmInfo INFO = new AlgorithmInfo(EncryptionService.LEA_CTR, BLOCK_SIZE_LEA, BLOCK_SIZE_LEA,
+                Padding.NONE, NONCE_LENGTH, EnumSet.of(Feature.COUNTER_NONCE));
+
+        @Override
+        public AlgorithmInfo info() {
+            return INFO;
+        }
+
+        @Override
+        public CipherAlgorithm create(KeyMaterial keys) {
+            return new Ctr(INFO, keys.lea());
+        }
+    }
+
+    private static final class Cbc implements CipherAlgorithm {
+        private final AlgorithmInfo info;
+        private final LeaKeySchedule key;
+        private final lea_cbc processor = new lea_cbc();
+
+        Cbc(AlgorithmInfo info, LeaKeySchedule key) {
+            this.info = info;
+            this.key  = key;
+        }
+
+        @Override
+        public AlgorithmInfo info() {
+            return info;
+        }
+
+        @Override
+        public byte[] encrypt(byte[] iv, String column, byte[] plain) {
+            return this.processor.process(plain, this.key, iv, true);
+        }
+
+        @Override
+        public String decrypt(byte[] iv, String column, byte[] buffer, int length) {
+            int plainLength = lea_cbc.decrypt(this.key, iv, buffer, 0, length);
+            if (plainLength < 0) {
+                throw new IllegalArgumentException("Invalid LEA-CBC ciphertext.");
+            }
+            return new String(buffer, 0, plainLength, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Ctr implements CipherAlgorithm {
+        private final AlgorithmInfo info;
+        private final LeaKeySchedule key;
+
+        Ctr(AlgorithmInfo info, LeaKeySchedule key) {
+            this.info = info;
+            this.key  = key;
+        }
+
+        @Override
+        public AlgorithmInfo info() {
+            return info;
+        }
+
+        @Override
+        public byte[] encrypt(byte[] iv, String column, byte[] plain) {
+            // [nonce][평문] 을 만든 뒤 평문 구간을 제자리에서 XOR
+            byte[] encryptedBytes = new byte[NONCE_LENGTH + plain.length];
+            byte[] nonce = newNonce();
+            System.arraycopy(nonce, 0, encryptedBytes, 0, NONCE_LENGTH);
+            System.arraycopy(plain, 0, encryptedBytes, NONCE_LENGTH, plain.length);
+            lea_ctr.apply(this.key, nonce, encryptedBytes, NONCE_LENGTH, plain.length);
+            return encryptedBytes;
+        }
+
+        @Override
+        public String decrypt(byte[] iv, String column, byte[] buffer, int length) {
+            if (length < NONCE_LENGTH) {
+                throw new IllegalArgumentException("LEA-CTR ciphertext is shorter than its nonce.");
+            }
+            lea_ctr.apply(this.key, Arrays.copyOf(buffer, NONCE_LENGTH), buffer, NONCE_LENGTH, length - NONCE_LENGTH);
+            return new String(buffer, NONCE_LENGTH, length - NONCE_LENGTH, StandardCharsets.UTF_8);
+        }
+
+        // iv.ctr.nonce=counter 이면 앞 8바이트에 카운터 nonce, 뒤 8바이트(블록 카운터)는 0. 아니면 무작위 16바이트
+        // 블록 카운터가 nonce 밖에 따로 있으므로 길이와 관계없이 슬롯 하나면 됩니다.
+        private static byte[] newNonce() {
+            byte[] nonce = new byte[NONCE_LENGTH];
+            if (IvGenerator.counterNonceForCtr()) {
+                IvGenerator.nextCtrNonce(nonce, 0, 0);
+            } else {
+                IvGenerator.nextRandom(nonce, 0, NONCE_LENGTH);
+            }
+            return nonce;
+        }
+    }
+}
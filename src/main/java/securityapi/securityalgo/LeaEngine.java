@@ -0,0 +1,98 @@
+package securityapi.securityalgo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * LEA-128 블록 암/복호화 엔진 (KISA LEA, 128비트 블록, 24라운드)
+ *
+ * 32비트 덧셈/회전/XOR 만 쓰는 ARX 구조라 64비트 서버에서 HIGHT 보다 바이트당 훨씬 빠릅니다.
+ * 블록 하나를 처리하는 동안 힙 할당이 없으며, 워드 읽기/쓰기는 리틀엔디안 VarHandle 로 한 번에 합니다.
+ */
+public final class LeaEngine {
+
+    public static final int BLOCK_SIZE = 16;
+
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private LeaEngine() {
+    }
+
+    static int getInt(byte[] src, int offset) {
+        return (int) INT_LE.get(src, offset);
+    }
+
+    static void putInt(byte[] dst, int offset, int value) {
+        INT_LE.set(dst, offset, value);
+    }
+
+    /**
+     * in[in_offset..+16) 을 암호화해서 out[out_offset..+16) 에 씁니다. (in == out 가능)
+     */
+    public static void encryptBlock(LeaKeySchedule key, byte[] in, int in_offset, byte[] out, int out_offset) {
+        final int[] rk = key.rk;
+        int x0 = getInt(in, in_offset);
+        int x1 = getInt(in, in_offset + 4);
+        int x2 = getInt(in, in_offset + 8);
+        int x3 = getInt(in, in_offset + 12);
+
+        // 4라운드마다 워드 위치가 제자리로 돌아오므로 4라운드씩 풀어서 대입을 없앱니다.
+        for (int j = 0; j < LeaKeySchedule.ROUNDS_LEA * 6; j += 24) {
+            x3 = Integer.rotateRight((x2 ^ rk[j + 4]) + (x3 ^ rk[j + 5]), 3);
+            x2 = Integer.rotateRight((x1 ^ rk[j + 2]) + (x2 ^ rk[j + 3]), 5);
+            x1 = Integer.rotateLeft((x0 ^ rk[j]) + (x1 ^ rk[j + 1]), 9);
+
+            x0 = Integer.rotateRight((x3 ^ rk[j + 10]) + (x0 ^ rk[j + 11]), 3);
+            x3 = Integer.rotateRight((x2 ^ rk[j + 8]) + (x3 ^ rk[j + 9]), 5);
+            x2 = Integer.rotateLeft((x1 ^ rk[j + 6]) + (x2 ^ rk[j + 7]), 9);
+
+            x1 = Integer.rotateRight((x0 ^ rk[j + 16]) + (x1 ^ rk[j + 17]), 3);
+            x0 = Integer.rotateRight((x3 ^ rk[j + 14]) + (x0 ^ rk[j + 15]), 5);
+            x3 = Integer.rotateLeft((x2 ^ rk[j + 12]) + (x3 ^ rk[j + 13]), 9);
+
+            x2 = Integer.rotateRight((x1 ^ rk[j + 22]) + (x2 ^ rk[j + 23]), 3);
+            x1 = Integer.rotateRight((x0 ^ rk[j + 20]) + (x1 ^ rk[j + 21]), 5);
+            x0 = Integer.rotateLeft((x3 ^ rk[j + 18]) + (x0 ^ rk[j + 19]), 9);
+        }
+
+        putInt(out, out_offset, x0);
+        putInt(out, out_offset + 4, x1);
+        putInt(out, out_offset + 8, x2);
+        putInt(out, out_offset + 12, x3);
+    }
+
+    /**
+     * in[in_offset..+16) 을 복호화해서 out[out_offset..+16) 에 씁니다. (in == out 가능)
+     */
+    public static void decryptBlock(LeaKeySchedule key, byte[] in, int in_offset, byte[] out, int out_offset) {
+        final int[] rk = key.rk;
+        int x0 = getInt(in, in_offset);
+        int x1 = getInt(in, in_offset + 4);
+        int x2 = getInt(in, in_offset + 8);
+        int x3 = getInt(in, in_offset + 12);
+
+        for (int j = (LeaKeySchedule.ROUNDS_LEA - 4) * 6; j >= 0; j -= 24) {
+            x0 = (Integer.rotateRight(x0, 9) - (x3 ^ rk[j + 18])) ^ rk[j + 19];
+            x1 = (Integer.rotateLeft(x1, 5) - (x0 ^ rk[j + 20])) ^ rk[j + 21];
+            x2 = (Integer.rotateLeft(x2, 3) - (x1 ^ rk[j + 22])) ^ rk[j + 23];
+
+            x3 = (Integer.rotateRight(x3, 9) - (x2 ^ rk[j + 12])) ^ rk[j + 13];
+            x0 = (Integer.rotateLeft(x0, 5) - (x3 ^ rk[j + 14])) ^ rk[j + 15];
+            x1 = (Integer.rotateLeft(x1, 3) - (x0 ^ rk[j + 16])) ^ rk[j + 17];
+
+            x2 = (Integer.rotateRight(x2, 9) - (x1 ^ rk[j + 6])) ^ rk[j + 7];
+            x3 = (Integer.rotateLeft(x3, 5) - (x2 ^ rk[j + 8])) ^ rk[j + 9];
+            x0 = (Integer.rotateLeft(x0, 3) - (x3 ^ rk[j + 10])) ^ rk[j + 11];
+
+            x1 = (Integer.rotateRight(x1, 9) - (x0 ^ rk[j])) ^ rk[j + 1];
+            x2 = (Integer.rotateLeft(x2, 5) - (x1 ^ rk[j + 2])) ^ rk[j + 3];
+            x3 = (Integer.rotateLeft(x3, 3) - (x2 ^ rk[j + 4])) ^ rk[j + 5];
+        }
+
+        putInt(out, out_offset, x0);
+        putInt(out, out_offset + 4, x1);
+        putInt(out, out_offset + 8, x2);
+        putInt(out, out_offset + 12, x3);
+    }
+}
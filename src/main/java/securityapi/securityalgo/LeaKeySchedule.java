@@ -0,0 +1,54 @@
+package securityapi.securityalgo;
+
+/**
+ * LEA-128 확장 키 (불변 객체)
+ *
+ * 16바이트 마스터 키로부터 24라운드 x 6워드 라운드 키를 한 번만 생성해 보관합니다.
+ * 워드는 KISA LEA 규격대로 리틀엔디안이며, 생성 이후 배열은 변경되지 않으므로 여러 스레드에서 공유해도 안전합니다.
+ */
+public final class LeaKeySchedule {
+
+    static final int KEY_SIZE_LEA = 16;
+    static final int ROUNDS_LEA = 24;
+
+    private static final int[] DELTA = {
+        0xc3efe9db, 0x44626b02, 0x79e27c8a, 0x78df30ec,
+        0x715ea49e, 0xc785da0a, 0xe04ef22a, 0xe5c40957
+    };
+
+    // 라운드 i 의 키는 rk[6i .. 6i+5] (RK0 ~ RK5)
+    final int[] rk;
+
+    private LeaKeySchedule(int[] rk) {
+        this.rk = rk;
+    }
+
+    public static LeaKeySchedule of(byte[] key) {
+        if (key == null || key.length != KEY_SIZE_LEA) {
+            throw new IllegalArgumentException("LEA-128 key must be 16 bytes.");
+        }
+
+        int t0 = LeaEngine.getInt(key, 0);
+        int t1 = LeaEngine.getInt(key, 4);
+        int t2 = LeaEngine.getInt(key, 8);
+        int t3 = LeaEngine.getInt(key, 12);
+
+        int[] rk = new int[ROUNDS_LEA * 6];
+        for (int i = 0; i < ROUNDS_LEA; i++) {
+            int delta = DELTA[i & 3];
+            t0 = Integer.rotateLeft(t0 + Integer.rotateLeft(delta, i), 1);
+            t1 = Integer.rotateLeft(t1 + Integer.rotateLeft(delta, i + 1), 3);
+            t2 = Integer.rotateLeft(t2 + Integer.rotateLeft(delta, i + 2), 6);
+            t3 = Integer.rotateLeft(t3 + Integer.rotateLeft(delta, i + 3), 11);
+
+            int j = i * 6;
+            rk[j]     = t0;
+            rk[j + 1] = t1;
+            rk[j + 2] = t2;
+            rk[j + 3] = t1;
+            rk[j + 4] = t3;
+            rk[j + 5] = t1;
+        }
+        return new LeaKeySchedule(rk);
+    }
+}
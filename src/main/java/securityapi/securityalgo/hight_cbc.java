@@ -1,6 +1,8 @@
 // Ariatest/hight_cbc.java
 package securityapi.securityalgo;
 
+import java.util.Arrays;
+
 /**
 @file KISA_HIGHT_CBC.java
 @brief HIGHT CBC 암호 알고리즘 Wrapper
@@ -14,98 +16,6 @@ public class hight_cbc implements algorithm {
     // DEFAULT : JAVA = BIG_ENDIAN
     private static int ENDIAN = Common.BIG_ENDIAN;
 
-    private static final byte[] Delta = new byte[]
-    {
-        (byte)0x5A,(byte)0x6D,(byte)0x36,(byte)0x1B,(byte)0x0D,(byte)0x06,(byte)0x03,(byte)0x41,
-        (byte)0x60,(byte)0x30,(byte)0x18,(byte)0x4C,(byte)0x66,(byte)0x33,(byte)0x59,(byte)0x2C,
-        (byte)0x56,(byte)0x2B,(byte)0x15,(byte)0x4A,(byte)0x65,(byte)0x72,(byte)0x39,(byte)0x1C,
-        (byte)0x4E,(byte)0x67,(byte)0x73,(byte)0x79,(byte)0x3C,(byte)0x5E,(byte)0x6F,(byte)0x37,
-        (byte)0x5B,(byte)0x2D,(byte)0x16,(byte)0x0B,(byte)0x05,(byte)0x42,(byte)0x21,(byte)0x50,
-        (byte)0x28,(byte)0x54,(byte)0x2A,(byte)0x55,(byte)0x6A,(byte)0x75,(byte)0x7A,(byte)0x7D,
-        (byte)0x3E,(byte)0x5F,(byte)0x2F,(byte)0x17,(byte)0x4B,(byte)0x25,(byte)0x52,(byte)0x29,
-        (byte)0x14,(byte)0x0A,(byte)0x45,(byte)0x62,(byte)0x31,(byte)0x58,(byte)0x6C,(byte)0x76,
-        (byte)0x3B,(byte)0x1D,(byte)0x0E,(byte)0x47,(byte)0x63,(byte)0x71,(byte)0x78,(byte)0x7C,
-        (byte)0x7E,(byte)0x7F,(byte)0x3F,(byte)0x1F,(byte)0x0F,(byte)0x07,(byte)0x43,(byte)0x61,
-        (byte)0x70,(byte)0x38,(byte)0x5C,(byte)0x6E,(byte)0x77,(byte)0x7B,(byte)0x3D,(byte)0x1E,
-        (byte)0x4F,(byte)0x27,(byte)0x53,(byte)0x69,(byte)0x34,(byte)0x1A,(byte)0x4D,(byte)0x26,
-        (byte)0x13,(byte)0x49,(byte)0x24,(byte)0x12,(byte)0x09,(byte)0x04,(byte)0x02,(byte)0x01,
-        (byte)0x40,(byte)0x20,(byte)0x10,(byte)0x08,(byte)0x44,(byte)0x22,(byte)0x11,(byte)0x48,
-        (byte)0x64,(byte)0x32,(byte)0x19,(byte)0x0C,(byte)0x46,(byte)0x23,(byte)0x51,(byte)0x68,
-        (byte)0x74,(byte)0x3A,(byte)0x5D,(byte)0x2E,(byte)0x57,(byte)0x6B,(byte)0x35,(byte)0x5A
-    };
-
-    private static final byte F0[] = new byte[]
-    {
-        (byte)0x00,(byte)0x86,(byte)0x0D,(byte)0x8B,(byte)0x1A,(byte)0x9C,(byte)0x17,(byte)0x91,
-        (byte)0x34,(byte)0xB2,(byte)0x39,(byte)0xBF,(byte)0x2E,(byte)0xA8,(byte)0x23,(byte)0xA5,
-        (byte)0x68,(byte)0xEE,(byte)0x65,(byte)0xE3,(byte)0x72,(byte)0xF4,(byte)0x7F,(byte)0xF9,
-        (byte)0x5C,(byte)0xDA,(byte)0x51,(byte)0xD7,(byte)0x46,(byte)0xC0,(byte)0x4B,(byte)0xCD,
-        (byte)0xD0,(byte)0x56,(byte)0xDD,(byte)0x5B,(byte)0xCA,(byte)0x4C,(byte)0xC7,(byte)0x41,
-        (byte)0xE4,(byte)0x62,(byte)0xE9,(byte)0x6F,(byte)0xFE,(byte)0x78,(byte)0xF3,(byte)0x75,
-        (byte)0xB8,(byte)0x3E,(byte)0xB5,(byte)0x33,(byte)0xA2,(byte)0x24,(byte)0xAF,(byte)0x29,
-        (byte)0x8C,(byte)0x0A,(byte)0x81,(byte)0x07,(byte)0x96,(byte)0x10,(byte)0x9B,(byte)0x1D,
-        (byte)0xA1,(byte)0x27,(byte)0xAC,(byte)0x2A,(byte)0xBB,(byte)0x3D,(byte)0xB6,(byte)0x30,
-        (byte)0x95,(byte)0x13,(byte)0x98,(byte)0x1E,(byte)0x8F,(byte)0x09,(byte)0x82,(byte)0x04,
-        (byte)0xC9,(byte)0x4F,(byte)0xC4,(byte)0x42,(byte)0xD3,(byte)0x55,(byte)0xDE,(byte)0x58,
-        (byte)0xFD,(byte)0x7B,(byte)0xF0,(byte)0x76,(byte)0xE7,(byte)0x61,(byte)0xEA,(byte)0x6C,
-        (byte)0x71,(byte)0xF7,(byte)0x7C,(byte)0xFA,(byte)0x6B,(byte)0xED,(byte)0x66,(byte)0xE0,
-        (byte)0x45,(byte)0xC3,(byte)0x48,(byte)0xCE,(byte)0x5F,(byte)0xD9,(byte)0x52,(byte)0xD4,
-        (byte)0x19,(byte)0x9F,(byte)0x14,(byte)0x92,(byte)0x03,(byte)0x85,(byte)0x0E,(byte)0x88,
-        (byte)0x2D,(byte)0xAB,(byte)0x20,(byte)0xA6,(byte)0x37,(byte)0xB1,(byte)0x3A,(byte)0xBC,
-        (byte)0x43,(byte)0xC5,(byte)0x4E,(byte)0xC8,(byte)0x59,(byte)0xDF,(byte)0x54,(byte)0xD2,
-        (byte)0x77,(byte)0xF1,(byte)0x7A,(byte)0xFC,(byte)0x6D,(byte)0xEB,(byte)0x60,(byte)0xE6,
-        (byte)0x2B,(byte)0xAD,(byte)0x26,(byte)0xA0,(byte)0x31,(byte)0xB7,(byte)0x3C,(byte)0xBA,
-        (byte)0x1F,(byte)0x99,(byte)0x12,(byte)0x94,(byte)0x05,(byte)0x83,(byte)0x08,(byte)0x8E,
-        (byte)0x93,(byte)0x15,(byte)0x9E,(byte)0x18,(byte)0x89,(byte)0x0F,(byte)0x84,(byte)0x02,
-        (byte)0xA7,(byte)0x21,(byte)0xAA,(byte)0x2C,(byte)0xBD,(byte)0x3B,(byte)0xB0,(byte)0x36,
-        (byte)0xFB,(byte)0x7D,(byte)0xF6,(byte)0x70,(byte)0xE1,(byte)0x67,(byte)0xEC,(byte)0x6A,
-        (byte)0xCF,(byte)0x49,(byte)0xC2,(byte)0x44,(byte)0xD5,(byte)0x53,(byte)0xD8,(byte)0x5E,
-        (byte)0xE2,(byte)0x64,(byte)0xEF,(byte)0x69,(byte)0xF8,(byte)0x7E,(byte)0xF5,(byte)0x73,
-        (byte)0xD6,(byte)0x50,(byte)0xDB,(byte)0x5D,(byte)0xCC,(byte)0x4A,(byte)0xC1,(byte)0x47,
-        (byte)0x8A,(byte)0x0C,(byte)0x87,(byte)0x01,(byte)0x90,(byte)0x16,(byte)0x9D,(byte)0x1B,
-        (byte)0xBE,(byte)0x38,(byte)0xB3,(byte)0x35,(byte)0xA4,(byte)0x22,(byte)0xA9,(byte)0x2F,
-        (byte)0x32,(byte)0xB4,(byte)0x3F,(byte)0xB9,(byte)0x28,(byte)0xAE,(byte)0x25,(byte)0xA3,
-        (byte)0x06,(byte)0x80,(byte)0x0B,(byte)0x8D,(byte)0x1C,(byte)0x9A,(byte)0x11,(byte)0x97,
-        (byte)0x5A,(byte)0xDC,(byte)0x57,(byte)0xD1,(byte)0x40,(byte)0xC6,(byte)0x4D,(byte)0xCB,
-        (byte)0x6E,(byte)0xE8,(byte)0x63,(byte)0xE5,(byte)0x74,(byte)0xF2,(byte)0x79,(byte)0xFF
-    };
-
-    private static final byte F1[] = new byte[]
-    {
-        (byte)0x00,(byte)0x58,(byte)0xB0,(byte)0xE8,(byte)0x61,(byte)0x39,(byte)0xD1,(byte)0x89,
-        (byte)0xC2,(byte)0x9A,(byte)0x72,(byte)0x2A,(byte)0xA3,(byte)0xFB,(byte)0x13,(byte)0x4B,
-        (byte)0x85,(byte)0xDD,(byte)0x35,(byte)0x6D,(byte)0xE4,(byte)0xBC,(byte)0x54,(byte)0x0C,
-        (byte)0x47,(byte)0x1F,(byte)0xF7,(byte)0xAF,(byte)0x26,(byte)0x7E,(byte)0x96,(byte)0xCE,
-        (byte)0x0B,(byte)0x53,(byte)0xBB,(byte)0xE3,(byte)0x6A,(byte)0x32,(byte)0xDA,(byte)0x82,
-        (byte)0xC9,(byte)0x91,(byte)0x79,(byte)0x21,(byte)0xA8,(byte)0xF0,(byte)0x18,(byte)0x40,
-        (byte)0x8E,(byte)0xD6,(byte)0x3E,(byte)0x66,(byte)0xEF,(byte)0xB7,(byte)0x5F,(byte)0x07,
-        (byte)0x4C,(byte)0x14,(byte)0xFC,(byte)0xA4,(byte)0x2D,(byte)0x75,(byte)0x9D,(byte)0xC5,
-        (byte)0x16,(byte)0x4E,(byte)0xA6,(byte)0xFE,(byte)0x77,(byte)0x2F,(byte)0xC7,(byte)0x9F,
-        (byte)0xD4,(byte)0x8C,(byte)0x64,(byte)0x3C,(byte)0xB5,(byte)0xED,(byte)0x05,(byte)0x5D,
-        (byte)0x93,(byte)0xCB,(byte)0x23,(byte)0x7B,(byte)0xF2,(byte)0xAA,(byte)0x42,(byte)0x1A,
-        (byte)0x51,(byte)0x09,(byte)0xE1,(byte)0xB9,(byte)0x30,(byte)0x68,(byte)0x80,(byte)0xD8,
-        (byte)0x1D,(byte)0x45,(byte)0xAD,(byte)0xF5,(byte)0x7C,(byte)0x24,(byte)0xCC,(byte)0x94,
-        (byte)0xDF,(byte)0x87,(byte)0x6F,(byte)0x37,(byte)0xBE,(byte)0xE6,(byte)0x0E,(byte)0x56,
-        (byte)0x98,(byte)0xC0,(byte)0x28,(byte)0x70,(byte)0xF9,(byte)0xA1,(byte)0x49,(byte)0x11,
-        (byte)0x5A,(byte)0x02,(byte)0xEA,(byte)0xB2,(byte)0x3B,(byte)0x63,(byte)0x8B,(byte)0xD3,
-        (byte)0x2C,(byte)0x74,(byte)0x9C,(byte)0xC4,(byte)0x4D,(byte)0x15,(byte)0xFD,(byte)0xA5,
-        (byte)0xEE,(byte)0xB6,(byte)0x5E,(byte)0x06,(byte)0x8F,(byte)0xD7,(byte)0x3F,(byte)0x67,
-        (byte)0xA9,(byte)0xF1,(byte)0x19,(byte)0x41,(byte)0xC8,(byte)0x90,(byte)0x78,(byte)0x20,
-        (byte)0x6B,(byte)0x33,(byte)0xDB,(byte)0x83,(byte)0x0A,(byte)0x52,(byte)0xBA,(byte)0xE2,
-        (byte)0x27,(byte)0x7F,(byte)0x97,(byte)0xCF,(byte)0x46,(byte)0x1E,(byte)0xF6,(byte)0xAE,
-        (byte)0xE5,(byte)0xBD,(byte)0x55,(byte)0x0D,(byte)0x84,(byte)0xDC,(byte)0x34,(byte)0x6C,
-        (byte)0xA2,(byte)0xFA,(byte)0x12,(byte)0x4A,(byte)0xC3,(byte)0x9B,(byte)0x73,(byte)0x2B,
-        (byte)0x60,(byte)0x38,(byte)0xD0,(byte)0x88,(byte)0x01,(byte)0x59,(byte)0xB1,(byte)0xE9,
-        (byte)0x3A,(byte)0x62,(byte)0x8A,(byte)0xD2,(byte)0x5B,(byte)0x03,(byte)0xEB,(byte)0xB3,
-        (byte)0xF8,(byte)0xA0,(byte)0x48,(byte)0x10,(byte)0x99,(byte)0xC1,(byte)0x29,(byte)0x71,
-        (byte)0xBF,(byte)0xE7,(byte)0x0F,(byte)0x57,(byte)0xDE,(byte)0x86,(byte)0x6E,(byte)0x36,
-        (byte)0x7D,(byte)0x25,(byte)0xCD,(byte)0x95,(byte)0x1C,(byte)0x44,(byte)0xAC,(byte)0xF4,
-        (byte)0x31,(byte)0x69,(byte)0x81,(byte)0xD9,(byte)0x50,(byte)0x08,(byte)0xE0,(byte)0xB8,
-        (byte)0xF3,(byte)0xAB,(byte)0x43,(byte)0x1B,(byte)0x92,(byte)0xCA,(byte)0x22,(byte)0x7A,
-        (byte)0xB4,(byte)0xEC,(byte)0x04,(byte)0x5C,(byte)0xD5,(byte)0x8D,(byte)0x65,(byte)0x3D,
-        (byte)0x76,(byte)0x2E,(byte)0xC6,(byte)0x9E,(byte)0x17,(byte)0x4F,(byte)0xA7,(byte)0xFF
-    };
-    
     private static final int BLOCK_SIZE_HIGHT = 8;
     private static final int BLOCK_SIZE_HIGHT_INT = 2;
     
@@ -114,197 +24,17 @@ public class hight_cbc implements algorithm {
         OUT_VALUE[out_value_offset+1] = (in_value1_offset+1<IN_VALUE1.length?IN_VALUE1[in_value1_offset+1]:0) ^ (in_value2_offset+1<IN_VALUE2.length?IN_VALUE2[in_value2_offset+1]:0);
     }
     
-    private static void EncIni_Transformation(int[] t, byte x0, byte x2, byte x4, byte x6, byte mk0, byte mk1, byte mk2, byte mk3) {
-        t[0] = ((0x0ff&(int)x0) + (0x0ff&(int)mk0)) & 0x0ff;
-        t[2] = ((0x0ff&(int)x2) ^ (0x0ff&(int)mk1)) & 0x0ff;
-        t[4] = ((0x0ff&(int)x4) + (0x0ff&(int)mk2)) & 0x0ff;
-        t[6] = ((0x0ff&(int)x6) ^ (0x0ff&(int)mk3)) & 0x0ff;
-    }
-    
-    private static void EncFin_Transformation(byte[] out, int x0, int x2, int x4, int x6, int mk0, int mk1, int mk2, int mk3) {
-        out[0] = (byte)(x0 + mk0);
-        out[2] = (byte)(x2 ^ mk1);
-        out[4] = (byte)(x4 + mk2);
-        out[6] = (byte)(x6 ^ mk3);
-    }
-    
-    private static void Round(int[] x, int i7, int i6, int i5, int i4, int i3, int i2, int i1, int i0, byte[] key, int key_offset) {
-        x[i1] = (x[i1] + ((F1[x[i0]] ^ key[key_offset+0])&0x0ff)) & 0x0ff;
-        x[i3] = (x[i3] ^ ((F0[x[i2]] + key[key_offset+1])&0x0ff)) & 0x0ff;
-        x[i5] = (x[i5] + ((F1[x[i4]] ^ key[key_offset+2])&0x0ff)) & 0x0ff;
-        x[i7] = (x[i7] ^ ((F0[x[i6]] + key[key_offset+3])&0x0ff)) & 0x0ff;
-    }
-
-    private static void KISA_HIGHT_ECB_encrypt_forCBC(byte[] pbszIN_Key128, byte[] pbszUserKey, final int[] in, int in_offset, int[] out, int out_offset) {
-        int in_length = in.length - in_offset;
-        int out_length = out.length - out_offset;
-        byte[] b_in = new byte[in_length * 4];
-        byte[] b_out = new byte[out_length * 4];
-        
-        for(int i=0; i<in_length; i++) {
-            Common.int_to_byte(b_in, i*4, in, in_offset+i, ENDIAN);
-        }
-        
-        for(int i=0; i<out_length; i++) {
-            Common.int_to_byte(b_out, i*4, out, out_offset+i, ENDIAN);
-        }
-        
-        KISA_HIGHT_ECB_encrypt_forCBC(pbszIN_Key128, pbszUserKey, b_in, b_out);
-        
-        for(int i=0; i<in_length; i++) {
-            Common.byte_to_int(in, in_offset+i, b_in, i*4, ENDIAN);
-        }
-        
-        for(int i=0; i<out_length; i++) {
-            Common.byte_to_int(out, out_offset+i, b_out, i*4, ENDIAN);
-        }
-        
-    }
-    
-    private static void KISA_HIGHT_ECB_encrypt_forCBC(byte[] pbszIN_Key128, byte[] pbszUserKey, final byte[] in, byte[] out) {
-        int[] t = new int[] { 0, 0, 0, 0, 0, 0, 0, 0 };
-        byte[] key, key2;
-        int key_offset = 0;
-        
-        key = pbszIN_Key128;
-        key2 = pbszUserKey;
-        
-        t[1] = in[1]; t[3] = in[3]; t[5] = in[5]; t[7] = in[7];
-        EncIni_Transformation(t, in[0], in[2], in[4], in[6], key2[12], key2[13], key2[14], key2[15] );
-        
-        Round(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset); key_offset += 4;        // 1
-        Round(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset); key_offset += 4;        // 2
-        Round(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset); key_offset += 4;        // 3
-        Round(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset); key_offset += 4;        // 4
-        Round(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset); key_offset += 4;        // 5
-        Round(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset); key_offset += 4;        // 6
-        Round(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset); key_offset += 4;        // 7
-        Round(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset); key_offset += 4;        // 8
-        Round(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset); key_offset += 4;        // 9
-        Round(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset); key_offset += 4;        // 10
-        Round(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset); key_offset += 4;        // 11
-        Round(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset); key_offset += 4;        // 12
-        Round(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset); key_offset += 4;        // 13
-        Round(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset); key_offset += 4;        // 14
-        Round(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset); key_offset += 4;        // 15
-        Round(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset); key_offset += 4;        // 16
-        Round(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset); key_offset += 4;        // 17
-        Round(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset); key_offset += 4;        // 18
-        Round(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset); key_offset += 4;        // 19
-        Round(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset); key_offset += 4;        // 20
-        Round(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset); key_offset += 4;        // 21
-        Round(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset); key_offset += 4;        // 22
-        Round(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset); key_offset += 4;        // 23
-        Round(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset); key_offset += 4;        // 24
-        Round(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset); key_offset += 4;        // 25
-        Round(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset); key_offset += 4;        // 26
-        Round(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset); key_offset += 4;        // 27
-        Round(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset); key_offset += 4;        // 28
-        Round(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset); key_offset += 4;        // 29
-        Round(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset); key_offset += 4;        // 30
-        Round(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset); key_offset += 4;        // 31
-        Round(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset);                        // 32
-        
-        EncFin_Transformation(out, t[1], t[3], t[5], t[7], key2[0], key2[1], key2[2], key2[3] );
-        
-        out[1] = (byte)t[2]; out[3] = (byte)t[4]; out[5] = (byte)t[6]; out[7] = (byte)t[0];
+    // KISA int[2] 블록을 HightEngine 으로 처리합니다. 블록마다 임시 배열을 만들지 않습니다.
+    private static void KISA_HIGHT_ECB_encrypt_forCBC(HightKeySchedule pKeySchedule, final int[] in, int in_offset, int[] out, int out_offset) {
+        long block = HightEngine.encryptBlock(pKeySchedule, HightEngine.toLong(in[in_offset], in[in_offset+1]));
+        out[out_offset]   = (int)(block >>> 32);
+        out[out_offset+1] = (int)block;
     }
 
-    private static void DecIni_Transformation(int[] t, byte x0, byte x2, byte x4, byte x6, byte mk0, byte mk1, byte mk2, byte mk3) {
-        t[0] = (((0x0ff&(int)x0) - (0x0ff&(int)mk0))) & 0x0ff;
-        t[2] = (((0x0ff&(int)x2) ^ (0x0ff&(int)mk1))) & 0x0ff;
-        t[4] = (((0x0ff&(int)x4) - (0x0ff&(int)mk2))) & 0x0ff;
-        t[6] = (((0x0ff&(int)x6) ^ (0x0ff&(int)mk3))) & 0x0ff;
-    }
-    
-    private static void DecFin_Transformation(byte[] out, int x0, int x2, int x4, int x6, int mk0, int mk1, int mk2, int mk3) {
-        out[0] = (byte)(x0 - mk0);
-        out[2] = (byte)(x2 ^ mk1);
-        out[4] = (byte)(x4 - mk2);
-        out[6] = (byte)(x6 ^ mk3);
-    }
-
-    private static void DRound(int[] x, int i7, int i6, int i5, int i4, int i3, int i2, int i1, int i0, byte[] key, int key_offset) {
-        x[i1] = (x[i1] - ((F1[x[i0]] ^ key[key_offset+0])&0x0ff)) & 0x0ff;
-        x[i3] = (x[i3] ^ ((F0[x[i2]] + key[key_offset+1])&0x0ff)) & 0x0ff;
-        x[i5] = (x[i5] - ((F1[x[i4]] ^ key[key_offset+2])&0x0ff)) & 0x0ff;
-        x[i7] = (x[i7] ^ ((F0[x[i6]] + key[key_offset+3])&0x0ff)) & 0x0ff;
-    }
-
-    private static void KISA_HIGHT_ECB_decrypt_forCBC(byte[] pbszIN_Key128, byte[] pbszUserKey, final int[] in, int in_offset, int[] out, int out_offset) {
-        int in_length = in.length - in_offset;
-        int out_length = out.length - out_offset;
-        byte[] b_in = new byte[in_length * 4];
-        byte[] b_out = new byte[out_length * 4];
-        
-        for(int i=0; i<in_length; i++) {
-            Common.int_to_byte(b_in, i*4, in, in_offset+i, ENDIAN);
-        }
-        
-        for(int i=0; i<out_length; i++) {
-            Common.int_to_byte(b_out, i*4, out, out_offset+i, ENDIAN);
-        }
-        
-        KISA_HIGHT_ECB_decrypt_forCBC(pbszIN_Key128, pbszUserKey, b_in, b_out);
-        
-        for(int i=0; i<in_length; i++) {
-            Common.byte_to_int(in, in_offset+i, b_in, i*4, ENDIAN);
-        }
-        
-        for(int i=0; i<out_length; i++) {
-            Common.byte_to_int(out, out_offset+i, b_out, i*4, ENDIAN);
-        }
-        
-    }
-
-    private static void KISA_HIGHT_ECB_decrypt_forCBC(byte[] pbszIN_Key128, byte[] pbszUserKey, final byte[] in, byte[] out) {
-        int[] t = new int[8];
-        byte[] key, key2;
-        int key_offset;
-        
-        key = pbszIN_Key128;
-        key2 = pbszUserKey;
-        key_offset = 124;
-        
-        t[1] = in[1]; t[3] = in[3]; t[5] = in[5]; t[7] = in[7];
-        DecIni_Transformation(t, in[0], in[2], in[4], in[6], key2[0], key2[1], key2[2], key2[3] );
-        
-        DRound(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset); key_offset -= 4;
-        DRound(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset); key_offset -= 4;
-        DRound(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset); key_offset -= 4;
-        DRound(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset); key_offset -= 4;
-        DRound(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset); key_offset -= 4;
-        DRound(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset); key_offset -= 4;
-        DRound(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset); key_offset -= 4;
-        DRound(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset); key_offset -= 4;
-        DRound(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset); key_offset -= 4;
-        DRound(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset); key_offset -= 4;
-        DRound(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset); key_offset -= 4;
-        DRound(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset); key_offset -= 4;
-        DRound(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset); key_offset -= 4;
-        DRound(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset); key_offset -= 4;
-        DRound(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset); key_offset -= 4;
-        DRound(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset); key_offset -= 4;
-        DRound(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset); key_offset -= 4;
-        DRound(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset); key_offset -= 4;
-        DRound(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset); key_offset -= 4;
-        DRound(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset); key_offset -= 4;
-        DRound(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset); key_offset -= 4;
-        DRound(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset); key_offset -= 4;
-        DRound(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset); key_offset -= 4;
-        DRound(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset); key_offset -= 4;
-        DRound(t, 7, 6, 5, 4, 3, 2, 1, 0, key, key_offset); key_offset -= 4;
-        DRound(t, 0, 7, 6, 5, 4, 3, 2, 1, key, key_offset); key_offset -= 4;
-        DRound(t, 1, 0, 7, 6, 5, 4, 3, 2, key, key_offset); key_offset -= 4;
-        DRound(t, 2, 1, 0, 7, 6, 5, 4, 3, key, key_offset); key_offset -= 4;
-        DRound(t, 3, 2, 1, 0, 7, 6, 5, 4, key, key_offset); key_offset -= 4;
-        DRound(t, 4, 3, 2, 1, 0, 7, 6, 5, key, key_offset); key_offset -= 4;
-        DRound(t, 5, 4, 3, 2, 1, 0, 7, 6, key, key_offset); key_offset -= 4;
-        DRound(t, 6, 5, 4, 3, 2, 1, 0, 7, key, key_offset);
-        
-        DecFin_Transformation(out, t[7], t[1], t[3], t[5], key2[12], key2[13], key2[14], key2[15]);
-        
-        out[1] = (byte)t[0]; out[3] = (byte)t[2]; out[5] = (byte)t[4]; out[7] = (byte)t[6];
+    private static void KISA_HIGHT_ECB_decrypt_forCBC(HightKeySchedule pKeySchedule, final int[] in, int in_offset, int[] out, int out_offset) {
+        long block = HightEngine.decryptBlock(pKeySchedule, HightEngine.toLong(in[in_offset], in[in_offset+1]));
+        out[out_offset]   = (int)(block >>> 32);
+        out[out_offset+1] = (int)block;
     }
     
 
@@ -351,25 +81,28 @@ public class hight_cbc implements algorithm {
 
     public static int HIGHT_CBC_init( KISA_HIGHT_INFO pInfo, KISA_ENC_DEC enc, byte[] pUserKey, byte[] pbszIV )
     {
-        byte i, j;
-
         if( null == pInfo || 
             null == pUserKey ||
             null == pbszIV )
             return 0;
 
-        pInfo.encrypt = enc.value;
-        Common.memcpy(pInfo.ivec, pbszIV, 8, ENDIAN);
-        Common.arraycopy(pInfo.userKey, pUserKey, 16);
+        return HIGHT_CBC_init( pInfo, enc, HightKeySchedule.of(pUserKey), pbszIV );
+    }
 
-        for(i=0 ; i < BLOCK_SIZE_HIGHT ; i++)
-        {
-            for(j=0 ; j < BLOCK_SIZE_HIGHT ; j++)
-                pInfo.hight_key.key_data[ 16*i + j ] = (byte)(pUserKey[(j-i)&7    ] + Delta[ 16*i + j ]);
 
-            for(j=0 ; j < BLOCK_SIZE_HIGHT ; j++)
-                pInfo.hight_key.key_data[ 16*i + j + 8 ] = (byte)(pUserKey[((j-i)&7)+8] + Delta[ 16*i + j + 8 ]);
-        }
+    // 미리 만들어 둔 확장 키를 사용합니다. 라운드 키는 복사하지 않고 그대로 참조합니다.
+    public static int HIGHT_CBC_init( KISA_HIGHT_INFO pInfo, KISA_ENC_DEC enc, HightKeySchedule pKeySchedule, byte[] pbszIV )
+    {
+        if( null == pInfo || 
+            null == pKeySchedule ||
+            null == pbszIV )
+            return 0;
+
+        pInfo.encrypt = enc.value;
+        Common.memcpy(pInfo.ivec, pbszIV, 8, ENDIAN);
+        pInfo.userKey = pKeySchedule.userKey();
+        pInfo.hight_key.key_data = pKeySchedule.roundKeys();
+        pInfo.key_schedule = pKeySchedule;
         
         return 1;
     }
@@ -403,7 +136,7 @@ public class hight_cbc implements algorithm {
             {
                 BLOCK_XOR_HIGHT( out, out_offset, in, in_offset, pdwXOR, pdwXOR_offset );
 
-                KISA_HIGHT_ECB_encrypt_forCBC( pInfo.hight_key.key_data, pInfo.userKey, out, out_offset, out, out_offset );
+                KISA_HIGHT_ECB_encrypt_forCBC( pInfo.key_schedule, out, out_offset, out, out_offset );
 
                 pdwXOR = out;
                 pdwXOR_offset = out_offset;
@@ -430,7 +163,7 @@ public class hight_cbc implements algorithm {
 
             while( nCurrentCount <= inLen )
             {
-                KISA_HIGHT_ECB_decrypt_forCBC( pInfo.hight_key.key_data, pInfo.userKey, in, in_offset, out, out_offset );
+                KISA_HIGHT_ECB_decrypt_forCBC( pInfo.key_schedule, in, in_offset, out, out_offset );
                 
                 BLOCK_XOR_HIGHT( out, out_offset, out, out_offset, pdwXOR, pdwXOR_offset );
 
@@ -472,7 +205,7 @@ public class hight_cbc implements algorithm {
             
             BLOCK_XOR_HIGHT( out, out_offset, pInfo.cbc_buffer, 0, pInfo.ivec, 0 );
 
-            KISA_HIGHT_ECB_encrypt_forCBC( pInfo.hight_key.key_data, pInfo.userKey, out, out_offset, out, out_offset );
+            KISA_HIGHT_ECB_encrypt_forCBC( pInfo.key_schedule, out, out_offset, out, out_offset );
 
             outLen[0] = BLOCK_SIZE_HIGHT;
 
@@ -507,6 +240,12 @@ public class hight_cbc implements algorithm {
     
 
     public static byte[] HIGHT_CBC_Encrypt_Internal( byte[] pbszUserKey, byte[] pszbIV, byte[] message, int message_offset, int message_length )
+    {
+        return HIGHT_CBC_Encrypt_Internal( HightKeySchedule.of(pbszUserKey), pszbIV, message, message_offset, message_length );
+    }
+
+
+    public static byte[] HIGHT_CBC_Encrypt_Internal( HightKeySchedule pKeySchedule, byte[] pszbIV, byte[] message, int message_offset, int message_length )
     {
         KISA_HIGHT_INFO info = new KISA_HIGHT_INFO();
         int[] outbuf;
@@ -527,7 +266,7 @@ public class hight_cbc implements algorithm {
         
         byte[] pbszCipherText = new byte[newpbszPlainText.length];
         
-        HIGHT_CBC_init( info, KISA_ENC_DEC.KISA_ENCRYPT, pbszUserKey, pszbIV );
+        HIGHT_CBC_init( info, KISA_ENC_DEC.KISA_ENCRYPT, pKeySchedule, pszbIV );
 
         outlen = ( (newpbszPlainText.length/BLOCK_SIZE_HIGHT)  ) * BLOCK_SIZE_HIGHT_INT;
         outbuf = new int[outlen];
@@ -549,6 +288,19 @@ public class hight_cbc implements algorithm {
 
     public static byte[] HIGHT_CBC_Decrypt_Internal( byte[] pbszUserKey, byte[] pszbIV, byte[] message, int message_offset, int message_length )
     {
+        return HIGHT_CBC_Decrypt_Internal( HightKeySchedule.of(pbszUserKey), pszbIV, message, message_offset, message_length );
+    }
+
+
+    public static byte[] HIGHT_CBC_Decrypt_Internal( HightKeySchedule pKeySchedule, byte[] pszbIV, byte[] message, int message_offset, int message_length )
+    {
+        // 큰 암호문은 구간으로 나눠 병렬 복호화합니다. (결과는 아래 순차 경로와 동일)
+        if( HightParallel.shouldParallelize(message_length) )
+            return HightParallel.cbcDecrypt( pKeySchedule, pszbIV, message, message_offset, message_length );
+        // 8블록 이상이면 다중 블록 커널을 쓰는 경로로 처리합니다.
+        if( HightMultiBlock.isEnabled() && message_length >= HightMultiBlock.LANES * BLOCK_SIZE_HIGHT )
+            return HightCbcChain.decryptUnpadded( pKeySchedule, pszbIV, message, message_offset, message_length );
+
         KISA_HIGHT_INFO info = new KISA_HIGHT_INFO();
         int[] outbuf;
         int[] data;
@@ -572,7 +324,7 @@ public class hight_cbc implements algorithm {
             
         nCipherTextLen = newpbszCipherText.length;
 
-        HIGHT_CBC_init( info, KISA_ENC_DEC.KISA_DECRYPT, pbszUserKey, pszbIV );
+        HIGHT_CBC_init( info, KISA_ENC_DEC.KISA_DECRYPT, pKeySchedule, pszbIV );
 
         outlen = ( (nCipherTextLen/BLOCK_SIZE_HIGHT) ) *4 ;
         outbuf = new int[outlen];
@@ -642,6 +394,7 @@ public class hight_cbc implements algorithm {
         public int cbc_buffer[] = new int[2];
         public int buffer_length;
         public int[] cbc_last_block = new int[2];
+        public HightKeySchedule key_schedule;
         
         public KISA_HIGHT_INFO() {
             encrypt = 0;
@@ -678,27 +431,19 @@ public class hight_cbc implements algorithm {
         public static final int LITTLE_ENDIAN = 1;
 
         public static void arraycopy(byte[] dst, byte[] src, int length) {
-            for(int i=0; i<length; i++) {
-                dst[i] = src[i];
-            }
+            System.arraycopy(src, 0, dst, 0, length);
         }
 
         public static void arraycopy_offset(byte[] dst, int dst_offset, byte[] src, int src_offset, int length) {
-            for(int i=0; i<length; i++) {
-                dst[dst_offset+i] = src[src_offset+i];
-            }
+            System.arraycopy(src, src_offset, dst, dst_offset, length);
         }
 
         public static void arrayinit(byte[] dst, byte value, int length) {
-            for(int i=0; i<length; i++) {
-                dst[i] = value;
-            }
+            Arrays.fill(dst, 0, length, value);
         }
         
         public static void arrayinit_offset(byte[] dst, int dst_offset, byte value, int length) {
-            for(int i=0; i<length; i++) {
-                dst[dst_offset+i] = value;
-            }
+            Arrays.fill(dst, dst_offset, dst_offset + length, value);
         }
 
         public static void memcpy(int[] dst, byte[] src, int length, int ENDIAN) {
@@ -710,9 +455,7 @@ public class hight_cbc implements algorithm {
 
         public static void memcpy(int[] dst, int[] src, int src_offset, int length) {
             int iLen = length / 4 + ((length % 4 != 0)?1:0);
-            for(int i=0; i<iLen; i++) {
-                dst[i] = src[src_offset+i];
-            }
+            System.arraycopy(src, src_offset, dst, 0, iLen);
         }
 
         public static void set_byte_for_int(int[] dst, int b_offset, byte value, int ENDIAN) {
@@ -1341,6 +1084,11 @@ public class hight_cbc implements algorithm {
     
     @Override
     public byte[] process(byte[] data, byte[] key, byte[] ivOrCounter, boolean encryptMode) {
+        return process(data, HightKeySchedule.of(key), ivOrCounter, encryptMode);
+    }
+
+    // 확장 키를 직접 받는 진입점. 같은 키로 반복 호출할 때 키 스케줄을 다시 만들지 않습니다.
+    public byte[] process(byte[] data, HightKeySchedule key, byte[] ivOrCounter, boolean encryptMode) {
         System.out.println("hight_cbc (통합된) 알고리즘으로 데이터를 처리합니다.");
 
         System.out.print("원본 데이터 (byte[]): ");
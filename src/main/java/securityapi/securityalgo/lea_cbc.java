@@ -0,0 +1,87 @@
+package securityapi.securityalgo;
+
+import java.util.Arrays;
+
+/**
+ * LEA-128 CBC 모드 (PKCS7 패딩, IV 16바이트)
+ *
+ * hight_cbc 와 같은 algorithm 구현이며, 복호화 시 패딩이 올바르지 않으면 null 을 돌려줍니다.
+ * hight_cbc 와 달리 패딩 바이트 전체를 검사합니다.
+ */
+public class lea_cbc implements algorithm {
+
+    private static final int BLOCK_SIZE_LEA = LeaEngine.BLOCK_SIZE;
+
+    @Override
+    public byte[] process(byte[] data, byte[] key, byte[] iv, boolean encryptMode) {
+        return process(data, LeaKeySchedule.of(key), iv, encryptMode);
+    }
+
+    // 확장 키를 직접 받는 진입점. 같은 키로 반복 호출할 때 키 스케줄을 다시 만들지 않습니다.
+    public byte[] process(byte[] data, LeaKeySchedule key, byte[] iv, boolean encryptMode) {
+        if (encryptMode) {
+            int nPaddingLeng = BLOCK_SIZE_LEA - (data.length % BLOCK_SIZE_LEA);
+            byte[] out = Arrays.copyOf(data, data.length + nPaddingLeng);
+            Arrays.fill(out, data.length, out.length, (byte) nPaddingLeng);
+            encrypt(key, iv, out, 0, out.length);
+            return out;
+        }
+
+        byte[] out = data.clone();
+        int length = decrypt(key, iv, out, 0, out.length);
+        return length < 0 ? null : Arrays.copyOf(out, length);
+    }
+
+    /**
+     * buf[offset, offset+length) 를 제자리에서 CBC 암호화합니다. length 는 16의 배수여야 합니다.
+     */
+    static void encrypt(LeaKeySchedule key, byte[] iv, byte[] buf, int offset, int length) {
+        byte[] previous = iv;
+        int previous_offset = 0;
+        for (int i = offset; i < offset + length; i += BLOCK_SIZE_LEA) {
+            for (int j = 0; j < BLOCK_SIZE_LEA; j += 4) {
+                LeaEngine.putInt(buf, i + j, LeaEngine.getInt(buf, i + j) ^ LeaEngine.getInt(previous, previous_offset + j));
+            }
+            LeaEngine.encryptBlock(key, buf, i, buf, i);
+            previous = buf;
+            previous_offset = i;
+        }
+    }
+
+    /**
+     * buf[offset, offset+length) 를 제자리에서 CBC 복호화하고 PKCS7 패딩을 검사합니다.
+     *
+     * @return 패딩을 뺀 평문 길이, 길이나 패딩이 올바르지 않으면 -1
+     */
+    static int decrypt(LeaKeySchedule key, byte[] iv, byte[] buf, int offset, int length) {
+        if (length == 0 || length % BLOCK_SIZE_LEA != 0) {
+            return -1;
+        }
+
+        // 뒤 블록부터 복호화하면 직전 암호문 블록이 아직 남아 있으므로 따로 보관할 필요가 없습니다.
+        for (int i = offset + length - BLOCK_SIZE_LEA; i >= offset; i -= BLOCK_SIZE_LEA) {
+            LeaEngine.decryptBlock(key, buf, i, buf, i);
+            byte[] previous = i == offset ? iv : buf;
+            int previous_offset = i == offset ? 0 : i - BLOCK_SIZE_LEA;
+            for (int j = 0; j < BLOCK_SIZE_LEA; j += 4) {
+                LeaEngine.putInt(buf, i + j, LeaEngine.getInt(buf, i + j) ^ LeaEngine.getInt(previous, previous_offset + j));
+            }
+        }
+
+        int nPaddingLeng = buf[offset + length - 1] & 0xff;
+        if (nPaddingLeng == 0 || nPaddingLeng > BLOCK_SIZE_LEA) {
+            return -1;
+        }
+        for (int i = offset + length - nPaddingLeng; i < offset + length; i++) {
+            if ((buf[i] & 0xff) != nPaddingLeng) {
+                return -1;
+            }
+        }
+        return length - nPaddingLeng;
+    }
+
+    @Override
+    public String getName() {
+        return "lea_cbc";
+    }
+}
@@ -0,0 +1,60 @@
+package securityapi.securityalgo;
+
+/**
+ * LEA-128 CTR 모드 (IV 16바이트 = 초기 카운터, 128비트 빅엔디안 증가)
+ *
+ * 블록 패딩이 없어 암호문 길이가 평문 길이와 같습니다. 암호화와 복호화는 같은 연산입니다.
+ */
+public class lea_ctr implements algorithm {
+
+    private static final int BLOCK_SIZE_LEA = LeaEngine.BLOCK_SIZE;
+
+    @Override
+    public byte[] process(byte[] data, byte[] key, byte[] iv, boolean encryptMode) {
+        return process(data, LeaKeySchedule.of(key), iv, encryptMode);
+    }
+
+    // 확장 키를 직접 받는 진입점. 같은 키로 반복 호출할 때 키 스케줄을 다시 만들지 않습니다.
+    public byte[] process(byte[] data, LeaKeySchedule key, byte[] iv, boolean encryptMode) {
+        byte[] out = data.clone();
+        apply(key, iv, out, 0, out.length);
+        return out;
+    }
+
+    /**
+     * buf[offset, offset+length) 에 iv 부터 시작하는 키스트림을 제자리에서 XOR 합니다.
+     * 마지막 블록이 16바이트보다 짧으면 필요한 바이트만 XOR 합니다.
+     */
+    static void apply(LeaKeySchedule key, byte[] iv, byte[] buf, int offset, int length) {
+        byte[] counter = iv.clone();
+        byte[] keystream = new byte[BLOCK_SIZE_LEA];
+        int end = offset + length;
+
+        for (int i = offset; i < end; i += BLOCK_SIZE_LEA) {
+            LeaEngine.encryptBlock(key, counter, 0, keystream, 0);
+            if (end - i >= BLOCK_SIZE_LEA) {
+                for (int j = 0; j < BLOCK_SIZE_LEA; j += 4) {
+                    LeaEngine.putInt(buf, i + j, LeaEngine.getInt(buf, i + j) ^ LeaEngine.getInt(keystream, j));
+                }
+            } else {
+                for (int j = 0; j < end - i; j++) {
+                    buf[i + j] ^= keystream[j];
+                }
+            }
+            increment(counter);
+        }
+    }
+
+    private static void increment(byte[] counter) {
+        for (int i = BLOCK_SIZE_LEA - 1; i >= 0; i--) {
+            if (++counter[i] != 0) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "lea_ctr";
+    }
+}
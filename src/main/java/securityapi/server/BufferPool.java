@@ -0,0 +1,69 @@
+package securityapi.server;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 크기의 다이렉트 ByteBuffer 풀
+ *
+ * 다이렉트 버퍼는 만들고 해제하는 비용이 커서, 다 쓴 버퍼를 최대 maxPooled 개까지 보관했다가 다시 씁니다.
+ * 여러 스레드에서 동시에 acquire/release 할 수 있습니다.
+ */
+final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder reused    = new LongAdder();
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled  = maxPooled;
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    // 비어 있는(position 0, limit = capacity) 버퍼
+    ByteBuffer acquire() {
+        ByteBuffer buffer = this.free.poll();
+        if (buffer != null) {
+            this.pooled.decrementAndGet();
+            this.reused.increment();
+            buffer.clear();
+            return buffer;
+        }
+        this.allocated.increment();
+        return ByteBuffer.allocateDirect(this.bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != this.bufferSize) {
+            return;
+        }
+        if (this.pooled.incrementAndGet() <= this.maxPooled) {
+            buffer.clear();
+            this.free.offer(buffer);
+        } else {
+            this.pooled.decrementAndGet();
+        }
+    }
+
+    long allocated() {
+        return this.allocated.sum();
+    }
+
+    long reused() {
+        return this.reused.sum();
+    }
+
+    int pooled() {
+        return this.pooled.get();
+    }
+}
@@ -0,0 +1,528 @@
+package securityapi.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.sun.net.httpserver.Headers;
+
+/**
+ * NIO 프런트엔드의 연결 하나
+ *
+ * 읽기, 요청 파싱, 소켓 쓰기는 연결을 맡은 selector 스레드만 합니다.
+ * 핸들러 스레드는 응답 버퍼를 출력 큐(output)에 넣고 selector 를 깨우기만 하며, 큐와 응답 완료 표시는 this 로 동기화합니다.
+ *
+ * 파이프라인: 한 연결에서 받은 요청은 순서대로 pipeline 에 쌓이고, 한 번에 하나만 핸들러로 넘깁니다.
+ * 앞 요청의 응답을 소켓에 다 쓴 뒤 다음 요청을 넘기므로 응답 순서가 요청 순서와 같습니다.
+ * 쌓인 요청 수(MAX_PIPELINED)나 바이트(maxBufferedBytes)가 한도에 닿으면 앞 요청이 끝날 때까지 읽기를 멈춥니다.
+ */
+final class NioConnection {
+
+    // 한 연결에서 미리 파싱해 둘 최대 요청 수. 넘으면 읽기를 멈춥니다.
+    private static final int MAX_PIPELINED = 16;
+    private static final byte[] EMPTY = new byte[0];
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final NioHttpServer server;
+    private final NioHttpServer.SelectorLoop loop;
+    private final SocketChannel channel;
+    private final InetSocketAddress remoteAddress;
+    private final InetSocketAddress localAddress;
+    private SelectionKey key;
+
+    // --- selector 스레드 전용 ---
+    private byte[] in = EMPTY;
+    private int inStart;
+    private int inEnd;
+    private RequestHead pendingHead;
+    // in[inStart, inStart+headerScanned) 까지는 헤더 끝(\r\n\r\n)이 없음을 확인했습니다.
+    private int headerScanned;
+    private final ArrayDeque<NioRequest> pipeline = new ArrayDeque<>();
+    // pipeline 에 있는 요청 본문 바이트 합
+    private long pipelinedBytes;
+    private boolean inFlight;
+    private boolean broken;
+    private boolean readShutdown;
+    private long requestCount;
+    private ByteBuffer writing;
+    long lastActive = System.currentTimeMillis();
+
+    // --- 핸들러 스레드와 공유 (this 로 동기화) ---
+    private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+    private long pendingBytes;
+    private boolean responseDone;
+    private boolean closeAfterResponse;
+    private volatile boolean closed;
+
+    NioConnection(NioHttpServer server, NioHttpServer.SelectorLoop loop, SocketChannel channel) throws IOException {
+        this.server = server;
+        this.loop = loop;
+        this.channel = channel;
+        this.remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+        this.localAddress = (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    void attach(SelectionKey key) {
+        this.key = key;
+    }
+
+    InetSocketAddress remoteAddress() {
+        return remoteAddress;
+    }
+
+    InetSocketAddress localAddress() {
+        return localAddress;
+    }
+
+    boolean isIdle(long now, long timeoutMillis) {
+        return !this.inFlight && this.pipeline.isEmpty() && now - this.lastActive > timeoutMillis;
+    }
+
+    // ===== selector 스레드 =====
+
+    void onReadable(ByteBuffer readBuffer) {
+        try {
+            while (canRead()) {
+                readBuffer.clear();
+                int n = this.channel.read(readBuffer);
+                if (n < 0) {
+                    this.readShutdown = true;
+                    break;
+                }
+                if (n == 0) {
+                    break;
+                }
+                this.server.bytesRead.add(n);
+                this.lastActive = System.currentTimeMillis();
+                readBuffer.flip();
+                append(readBuffer);
+                parseInput();
+            }
+        } catch (IOException e) {
+            close();
+            return;
+        }
+        dispatchNext();
+        if (this.readShutdown && !this.inFlight && this.pipeline.isEmpty()) {
+            close();
+            return;
+        }
+        updateInterest();
+    }
+
+    void onWritable() {
+        flush();
+    }
+
+    /**
+     * 출력 큐를 소켓에 씁니다. 응답이 끝났으면 다음 파이프라인 요청을 넘기거나 연결을 닫습니다.
+     */
+    void flush() {
+        if (this.closed) {
+            return;
+        }
+        try {
+            while (true) {
+                if (this.writing == null) {
+                    synchronized (this) {
+                        this.writing = this.output.poll();
+                        if (this.writing != null) {
+                            this.pendingBytes -= this.writing.remaining();
+                            notifyAll();
+                        }
+                    }
+                    if (this.writing == null) {
+                        break;
+                    }
+                }
+                this.server.bytesWritten.add(this.channel.write(this.writing));
+                if (this.writing.hasRemaining()) {
+                    updateInterest();
+                    return;
+                }
+                this.server.buffers.release(this.writing);
+                this.writing = null;
+            }
+        } catch (IOException e) {
+            close();
+            return;
+        }
+
+        boolean done;
+        boolean closeAfter;
+        synchronized (this) {
+            done = this.responseDone && this.output.isEmpty();
+            closeAfter = this.closeAfterResponse;
+            if (done) {
+                this.responseDone = false;
+                this.closeAfterResponse = false;
+            }
+        }
+        if (done) {
+            this.inFlight = false;
+            this.lastActive = System.currentTimeMillis();
+            if (closeAfter || (this.readShutdown && this.pipeline.isEmpty())) {
+                close();
+                return;
+            }
+            parseInput();
+            dispatchNext();
+        }
+        updateInterest();
+    }
+
+    private void updateInterest() {
+        if (this.closed || !this.key.isValid()) {
+            return;
+        }
+        int ops = 0;
+        if (!this.readShutdown && canRead()) {
+            ops |= SelectionKey.OP_READ;
+        } else if (!this.readShutdown && !this.broken && (this.key.interestOps() & SelectionKey.OP_READ) != 0) {
+            this.server.readPauses.increment();
+        }
+        if (this.writing != null) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        if (this.key.interestOps() != ops) {
+            this.key.interestOps(ops);
+        }
+    }
+
+    /*
+     * 더 읽어도 되는지. 쌓인 바이트가 한도를 넘어도 처리 중이거나 대기 중인 요청이 없으면 계속 읽습니다.
+     * (그래야 한도보다 큰 요청 하나도 끝까지 받을 수 있고, 그 크기는 maxHeaderBytes / maxBodyBytes 가 제한합니다.)
+     */
+    private boolean canRead() {
+        if (this.broken || this.pipeline.size() >= MAX_PIPELINED) {
+            return false;
+        }
+        long buffered = this.pipelinedBytes + (this.inEnd - this.inStart);
+        return buffered < this.server.maxBufferedBytes || (!this.inFlight && this.pipeline.isEmpty());
+    }
+
+    private void append(ByteBuffer src) {
+        int n = src.remaining();
+        if (this.inStart == this.inEnd) {
+            this.inStart = 0;
+            this.inEnd = 0;
+        }
+        if (this.in.length - this.inEnd < n) {
+            int used = this.inEnd - this.inStart;
+            if (this.in.length - used >= n && this.inStart > 0) {
+                System.arraycopy(this.in, this.inStart, this.in, 0, used);
+            } else {
+                byte[] grown = new byte[Math.max(used + n, Math.max(this.in.length * 2, this.server.buffers.bufferSize()))];
+                System.arraycopy(this.in, this.inStart, grown, 0, used);
+                this.in = grown;
+            }
+            this.inStart = 0;
+            this.inEnd = used;
+        }
+        src.get(this.in, this.inEnd, n);
+        this.inEnd += n;
+    }
+
+    // 받은 바이트에서 완성된 요청을 모두 꺼내 pipeline 에 넣습니다.
+    private void parseInput() {
+        while (!this.broken && this.pipeline.size() < MAX_PIPELINED) {
+            NioRequest request;
+            try {
+                request = parseNext();
+            } catch (HttpParseException e) {
+                this.server.badRequests.increment();
+                this.broken = true;
+                this.in = EMPTY;
+                this.inStart = 0;
+                this.inEnd = 0;
+                this.headerScanned = 0;
+                this.pipeline.add(NioRequest.error(e.status));
+                return;
+            }
+            if (request == null) {
+                break;
+            }
+            if (this.inFlight || !this.pipeline.isEmpty()) {
+                this.server.pipelinedRequests.increment();
+            }
+            this.pipeline.add(request);
+            this.pipelinedBytes += request.body.length;
+        }
+        // 쉬는 연결이 큰 버퍼를 붙잡고 있지 않도록
+        if (this.inStart == this.inEnd && this.in.length > this.server.buffers.bufferSize()) {
+            this.in = EMPTY;
+            this.inStart = 0;
+            this.inEnd = 0;
+        }
+    }
+
+    private NioRequest parseNext() throws HttpParseException {
+        if (this.pendingHead == null) {
+            int end = indexOfHeaderEnd();
+            if (end < 0) {
+                if (this.inEnd - this.inStart > this.server.maxHeaderBytes) {
+                    throw new HttpParseException(431);
+                }
+                return null;
+            }
+            if (end - this.inStart > this.server.maxHeaderBytes) {
+                throw new HttpParseException(431);
+            }
+            this.pendingHead = RequestHead.parse(this.in, this.inStart, end, this.server.maxBodyBytes);
+            this.inStart = end + 4;
+            this.headerScanned = 0;
+
+            if (this.pendingHead.expectContinue && this.inEnd - this.inStart < this.pendingHead.contentLength
+                    && !this.inFlight && this.pipeline.isEmpty()) {
+                ByteBuffer buffer = acquireBuffer();
+                buffer.put(CONTINUE).flip();
+                synchronized (this) {
+                    this.output.add(buffer);
+                    this.pendingBytes += buffer.remaining();
+                }
+                flushLater();
+            }
+        }
+
+        int length = (int) this.pendingHead.contentLength;
+        if (this.inEnd - this.inStart < length) {
+            return null;
+        }
+        byte[] body = length == 0 ? EMPTY : Arrays.copyOfRange(this.in, this.inStart, this.inStart + length);
+        this.inStart += length;
+        NioRequest request = this.pendingHead.toRequest(body);
+        this.pendingHead = null;
+        return request;
+    }
+
+    // 헤더 끝 위치. 이전 읽기에서 확인한 구간은 다시 훑지 않습니다. (경계에 걸친 \r\n\r\n 을 위해 3바이트는 겹쳐 봄)
+    private int indexOfHeaderEnd() {
+        byte[] b = this.in;
+        for (int i = this.inStart + Math.max(0, this.headerScanned - 3); i + 3 < this.inEnd; i++) {
+            if (b[i] == '\r' && b[i + 1] == '\n' && b[i + 2] == '\r' && b[i + 3] == '\n') {
+                return i;
+            }
+        }
+        this.headerScanned = this.inEnd - this.inStart;
+        return -1;
+    }
+
+    // 앞 응답이 끝났으면 다음 요청을 핸들러(또는 오류 응답)로 넘깁니다.
+    private void dispatchNext() {
+        if (this.inFlight || this.closed) {
+            return;
+        }
+        NioRequest request = this.pipeline.poll();
+        if (request == null) {
+            return;
+        }
+        this.pipelinedBytes -= request.body.length;
+        this.inFlight = true;
+        this.server.requests.increment();
+        if (++this.requestCount > 1) {
+            this.server.keepAliveRequests.increment();
+        }
+
+        if (request.errorStatus != 0) {
+            respondSimple(request, request.errorStatus, true);
+            return;
+        }
+        NioHttpContext context = this.server.findContext(request.uri.getPath());
+        if (context == null) {
+            respondSimple(request, 404, !request.keepAlive);
+            return;
+        }
+        if (!this.server.dispatch(new NioHttpExchange(this, request, context))) {
+            this.server.rejectedRequests.increment();
+            respondSimple(request, 503, true);
+        }
+    }
+
+    // 핸들러를 거치지 않는 짧은 JSON 오류 응답
+    private void respondSimple(NioRequest request, int status, boolean close) {
+        String reason = NioHttpServer.reasonPhrase(status);
+        byte[] body = ("{\"error\":\"" + reason + "\"}").getBytes(StandardCharsets.UTF_8);
+        String head = request.protocol + " " + status + " " + reason + "\r\n"
+                + "Content-Type: application/json; charset=utf-8\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + (close ? "Connection: close\r\n" : "")
+                + "\r\n";
+        ByteBuffer buffer = acquireBuffer();
+        buffer.put(head.getBytes(StandardCharsets.ISO_8859_1));
+        if (!request.isHead()) {
+            buffer.put(body);
+        }
+        buffer.flip();
+        synchronized (this) {
+            this.output.add(buffer);
+            this.pendingBytes += buffer.remaining();
+            this.responseDone = true;
+            this.closeAfterResponse = close;
+        }
+        flushLater();
+    }
+
+    private void flushLater() {
+        this.loop.requestFlush(this);
+    }
+
+    void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            for (ByteBuffer buffer : this.output) {
+                this.server.buffers.release(buffer);
+            }
+            this.output.clear();
+            this.pendingBytes = 0;
+            notifyAll();
+        }
+        if (this.writing != null) {
+            this.server.buffers.release(this.writing);
+            this.writing = null;
+        }
+        if (this.key != null) {
+            this.key.cancel();
+        }
+        try {
+            this.channel.close();
+        } catch (IOException ignore) {
+            // 이미 끊긴 연결
+        }
+        this.server.connectionClosed();
+    }
+
+    // ===== 핸들러 스레드 =====
+
+    ByteBuffer acquireBuffer() {
+        return this.server.buffers.acquire();
+    }
+
+    void releaseBuffer(ByteBuffer buffer) {
+        this.server.buffers.release(buffer);
+    }
+
+    /**
+     * 다 채운 응답 버퍼를 출력 큐에 넣습니다. 큐에 쌓인 양이 기준을 넘으면 selector 가 내보낼 때까지 기다립니다.
+     */
+    void enqueue(ByteBuffer buffer) throws IOException {
+        synchronized (this) {
+            if (this.closed) {
+                this.server.buffers.release(buffer);
+                throw new IOException("connection closed");
+            }
+            this.output.add(buffer);
+            this.pendingBytes += buffer.remaining();
+        }
+        flushLater();
+        synchronized (this) {
+            while (this.pendingBytes > this.server.writeHighWater && !this.closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while waiting for the client to read", e);
+                }
+            }
+            if (this.closed) {
+                throw new IOException("connection closed");
+            }
+        }
+    }
+
+    // 핸들러가 응답을 끝냈을 때 (NioHttpExchange.close)
+    void responseComplete(boolean closeAfter) {
+        synchronized (this) {
+            this.responseDone = true;
+            this.closeAfterResponse = closeAfter;
+        }
+        flushLater();
+    }
+
+    static final class HttpParseException extends Exception {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        HttpParseException(int status) {
+            super(NioHttpServer.reasonPhrase(status), null, false, false);
+            this.status = status;
+        }
+    }
+
+    // 요청줄과 헤더까지 파싱한 상태 (본문 대기 중)
+    private static final class RequestHead {
+        String method;
+        URI uri;
+        String protocol;
+        Headers headers;
+        long contentLength;
+        boolean keepAlive;
+        boolean expectContinue;
+
+        static RequestHead parse(byte[] b, int start, int end, long maxBodyBytes) throws HttpParseException {
+            String[] lines = new String(b, start, end - start, StandardCharsets.ISO_8859_1).split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+                throw new HttpParseException(400);
+            }
+            RequestHead head = new RequestHead();
+            head.method = requestLine[0];
+            head.protocol = requestLine[2];
+            try {
+                head.uri = new URI(requestLine[1]);
+            } catch (URISyntaxException e) {
+                throw new HttpParseException(400);
+            }
+
+            head.headers = new Headers();
+            for (int i = 1; i < lines.length; i++) {
+                String line = lines[i];
+                int colon = line.indexOf(':');
+                if (colon <= 0 || line.charAt(0) == ' ' || line.charAt(0) == '\t') {
+                    throw new HttpParseException(400);
+                }
+                head.headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+
+            if (head.headers.containsKey("Transfer-Encoding")) {
+                // chunked 요청 본문은 받지 않습니다. (클라이언트는 Content-Length 로 다시 보내면 됨)
+                throw new HttpParseException(411);
+            }
+            String contentLength = head.headers.getFirst("Content-Length");
+            if (contentLength != null) {
+                try {
+                    head.contentLength = Long.parseLong(contentLength.trim());
+                } catch (NumberFormatException e) {
+                    throw new HttpParseException(400);
+                }
+                if (head.contentLength < 0) {
+                    throw new HttpParseException(400);
+                }
+                if (head.contentLength > maxBodyBytes) {
+                    throw new HttpParseException(413);
+                }
+            }
+
+            String connection = head.headers.getFirst("Connection");
+            String token = connection == null ? "" : connection.toLowerCase(Locale.ROOT);
+            head.keepAlive = "HTTP/1.0".equals(head.protocol) ? token.contains("keep-alive") : !token.contains("close");
+            String expect = head.headers.getFirst("Expect");
+            head.expectContinue = expect != null && "100-continue".equalsIgnoreCase(expect.trim());
+            return head;
+        }
+
+        NioRequest toRequest(byte[] body) {
+            return new NioRequest(method, uri, protocol, headers, body, keepAlive);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package securityapi.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.net.httpserver.Authenticator;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * NioHttpServer 의 경로 ↔ 핸들러 연결
+ *
+ * 기존 HttpHandler 가 exchange.getHttpContext() 를 호출해도 동작하도록 HttpContext 를 구현합니다.
+ * HttpServer 인스턴스가 없으므로 getServer() 는 null 이며, 필터와 Authenticator 는 적용하지 않습니다.
+ */
+final class NioHttpContext extends HttpContext {
+
+    private final String path;
+    private volatile HttpHandler handler;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<Filter> filters = new ArrayList<>();
+    private Authenticator authenticator;
+
+    NioHttpContext(String path, HttpHandler handler) {
+        this.path = path;
+        this.handler = handler;
+    }
+
+    @Override
+    public HttpHandler getHandler() {
+        return handler;
+    }
+
+    @Override
+    public void setHandler(HttpHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public HttpServer getServer() {
+        return null;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public List<Filter> getFilters() {
+        return filters;
+    }
+
+    @Override
+    public Authenticator setAuthenticator(Authenticator auth) {
+        Authenticator previous = this.authenticator;
+        this.authenticator = auth;
+        return previous;
+    }
+
+    @Override
+    public Authenticator getAuthenticator() {
+        return authenticator;
+    }
+}
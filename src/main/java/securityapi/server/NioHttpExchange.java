@@ -0,0 +1,389 @@
+package securityapi.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+/**
+ * NIO 연결 위의 요청 하나를 com.sun.net.httpserver.HttpExchange 로 감싼 어댑터
+ *
+ * 기존 핸들러가 그대로 동작하도록 sendResponseHeaders 규칙을 JDK HttpServer 와 맞췄습니다.
+ * (길이 > 0: Content-Length, 0: chunked, -1: 본문 없음)
+ * 응답 본문은 풀에서 빌린 다이렉트 버퍼에 바로 쓰고, 버퍼가 차면 연결의 출력 큐로 넘깁니다.
+ * 큐에 쌓인 양이 많으면 selector 가 소켓으로 내보낼 때까지 핸들러 스레드가 기다리므로, 큰 응답도 메모리 사용량이 일정합니다.
+ */
+final class NioHttpExchange extends HttpExchange {
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static volatile long cachedDateSecond;
+    private static volatile String cachedDate = "";
+
+    private final NioConnection connection;
+    private final NioRequest request;
+    private final NioHttpContext context;
+    private final Headers responseHeaders = new Headers();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final ResponseStream responseStream;
+
+    private InputStream requestBody;
+    private OutputStream responseBody;
+    private int responseCode = -1;
+    private boolean closeConnection;
+    private boolean closed;
+
+    NioHttpExchange(NioConnection connection, NioRequest request, NioHttpContext context) {
+        this.connection = connection;
+        this.request = request;
+        this.context = context;
+        this.responseStream = new ResponseStream();
+        this.requestBody = new ByteArrayInputStream(request.body);
+        this.responseBody = this.responseStream;
+        this.closeConnection = !request.keepAlive;
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return request.headers;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return request.uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return request.method;
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return context;
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return requestBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return responseBody;
+    }
+
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength) throws IOException {
+        if (this.responseCode >= 0) {
+            throw new IOException("headers already sent");
+        }
+        this.responseCode = rCode;
+
+        boolean noBody = responseLength < 0 || rCode == 204 || rCode == 304 || rCode < 200;
+        if (noBody) {
+            this.responseStream.mode = BodyMode.NONE;
+            if (rCode != 204 && rCode != 304 && rCode >= 200) {
+                this.responseHeaders.set("Content-Length", "0");
+            }
+        } else if (responseLength > 0) {
+            this.responseStream.mode = BodyMode.FIXED;
+            this.responseStream.remaining = responseLength;
+            this.responseHeaders.set("Content-Length", Long.toString(responseLength));
+        } else if (this.request.isHttp10()) {
+            // HTTP/1.0 은 chunked 가 없으므로 연결을 닫아 본문 끝을 알립니다.
+            this.responseStream.mode = BodyMode.UNTIL_CLOSE;
+            this.closeConnection = true;
+        } else {
+            this.responseStream.mode = BodyMode.CHUNKED;
+            this.responseHeaders.set("Transfer-Encoding", "chunked");
+        }
+        if (this.request.isHead()) {
+            this.responseStream.mode = BodyMode.NONE;
+        }
+
+        if (this.closeConnection) {
+            this.responseHeaders.set("Connection", "close");
+        } else if (this.request.isHttp10()) {
+            this.responseHeaders.set("Connection", "keep-alive");
+        }
+        if (!this.responseHeaders.containsKey("Date")) {
+            this.responseHeaders.set("Date", httpDate());
+        }
+
+        StringBuilder head = new StringBuilder(256);
+        head.append(this.request.protocol).append(' ').append(rCode).append(' ').append(NioHttpServer.reasonPhrase(rCode)).append("\r\n");
+        for (Map.Entry<String, List<String>> header : this.responseHeaders.entrySet()) {
+            for (String value : header.getValue()) {
+                head.append(header.getKey()).append(": ").append(value).append("\r\n");
+            }
+        }
+        head.append("\r\n");
+        this.responseStream.writeRaw(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return connection.remoteAddress();
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return connection.localAddress();
+    }
+
+    @Override
+    public String getProtocol() {
+        return request.protocol;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        if (i != null) {
+            this.requestBody = i;
+        }
+        if (o != null) {
+            this.responseBody = o;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    /**
+     * 응답을 마무리하고 연결이 다음 (파이프라인) 요청으로 넘어가게 합니다. 여러 번 호출해도 한 번만 처리합니다.
+     * 핸들러가 응답 헤더를 보내지 않았으면 500 을 보내고 연결을 닫습니다.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (this.responseCode < 0) {
+                this.closeConnection = true;
+                sendResponseHeaders(500, -1);
+            }
+            this.responseStream.close();
+        } catch (IOException e) {
+            this.closeConnection = true;
+            this.responseStream.discard();
+        }
+        this.connection.responseComplete(this.closeConnection);
+    }
+
+    // 핸들러가 예외로 끝났을 때. 응답이 이미 나가기 시작했으면 온전히 끝낼 수 없으므로
+    // 마지막 chunk 를 쓰지 않고 남은 버퍼를 버린 뒤 연결을 닫아 클라이언트가 잘린 응답임을 알게 합니다.
+    void abort() {
+        if (this.closed || this.responseCode < 0) {
+            close();
+            return;
+        }
+        this.closed = true;
+        this.closeConnection = true;
+        this.responseStream.discard();
+        this.connection.responseComplete(true);
+    }
+
+    private static String httpDate() {
+        long second = System.currentTimeMillis() / 1000;
+        if (second != cachedDateSecond) {
+            cachedDate = HTTP_DATE.format(ZonedDateTime.now(ZoneOffset.UTC));
+            cachedDateSecond = second;
+        }
+        return cachedDate;
+    }
+
+    private enum BodyMode { NONE, FIXED, CHUNKED, UNTIL_CLOSE }
+
+    /**
+     * 응답 본문 스트림. chunked 이면 버퍼마다 앞에 크기 자리(CHUNK_HEADER)를 비워 두었다가 내보낼 때 채웁니다.
+     */
+    private final class ResponseStream extends OutputStream {
+        // "xxxxxxxx\r\n" (앞자리 0 을 포함한 고정 폭 16진수 크기)
+        private static final int CHUNK_HEADER = 10;
+        private static final int CHUNK_TRAILER = 2;
+
+        BodyMode mode = BodyMode.NONE;
+        long remaining;
+        private ByteBuffer current;
+        private int chunkStart = -1;
+        private boolean finished;
+
+        // 상태줄과 헤더. 본문보다 먼저, chunk 틀 없이 씁니다.
+        void writeRaw(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (this.current == null) {
+                    this.current = connection.acquireBuffer();
+                } else if (!this.current.hasRemaining()) {
+                    send();
+                    continue;
+                }
+                int n = Math.min(bytes.length - offset, this.current.remaining());
+                this.current.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (this.finished) {
+                throw new IOException("response body already closed");
+            }
+            if (responseCode < 0) {
+                throw new IOException("sendResponseHeaders must be called before writing the body");
+            }
+            if (this.mode == BodyMode.NONE) {
+                if (len > 0 && !request.isHead()) {
+                    throw new IOException("response has no body");
+                }
+                return;
+            }
+            if (this.mode == BodyMode.FIXED) {
+                if (len > this.remaining) {
+                    throw new IOException("too many bytes to write to stream");
+                }
+                this.remaining -= len;
+            }
+            while (len > 0) {
+                int room = room();
+                int n = Math.min(len, room);
+                this.current.put(b, off, n);
+                off += n;
+                len -= n;
+                if (n == room) {
+                    send();
+                }
+            }
+        }
+
+        // 지금 버퍼에 본문을 더 쓸 수 있는 바이트 수 (필요하면 새 버퍼/chunk 를 엽니다)
+        private int room() throws IOException {
+            boolean chunked = this.mode == BodyMode.CHUNKED;
+            if (this.current != null) {
+                int needed = 1 + (chunked ? CHUNK_TRAILER : 0) + (chunked && this.chunkStart < 0 ? CHUNK_HEADER : 0);
+                if (this.current.remaining() < needed) {
+                    send();
+                }
+            }
+            if (this.current == null) {
+                this.current = connection.acquireBuffer();
+            }
+            if (chunked && this.chunkStart < 0) {
+                this.chunkStart = this.current.position();
+                this.current.position(this.chunkStart + CHUNK_HEADER);
+            }
+            return this.current.remaining() - (chunked ? CHUNK_TRAILER : 0);
+        }
+
+        // chunk 를 닫고 지금 버퍼를 출력 큐로 넘깁니다.
+        private void send() throws IOException {
+            if (this.current == null) {
+                return;
+            }
+            closeChunk();
+            ByteBuffer buffer = this.current;
+            this.current = null;
+            buffer.flip();
+            if (buffer.hasRemaining()) {
+                connection.enqueue(buffer);
+            } else {
+                connection.releaseBuffer(buffer);
+            }
+        }
+
+        private void closeChunk() {
+            if (this.chunkStart < 0) {
+                return;
+            }
+            int length = this.current.position() - this.chunkStart - CHUNK_HEADER;
+            if (length == 0) {
+                this.current.position(this.chunkStart);
+            } else {
+                String size = String.format("%08x", length);
+                for (int i = 0; i < 8; i++) {
+                    this.current.put(this.chunkStart + i, (byte) size.charAt(i));
+                }
+                this.current.put(this.chunkStart + 8, (byte) '\r');
+                this.current.put(this.chunkStart + 9, (byte) '\n');
+                this.current.put((byte) '\r').put((byte) '\n');
+            }
+            this.chunkStart = -1;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!this.finished) {
+                send();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.finished) {
+                return;
+            }
+            if (this.mode == BodyMode.CHUNKED) {
+                if (this.current != null) {
+                    closeChunk();
+                }
+                writeRaw("0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            }
+            this.finished = true;
+            send();
+            if (this.mode == BodyMode.FIXED && this.remaining > 0) {
+                // 선언한 길이보다 적게 썼으면 클라이언트가 본문 끝을 알 수 없으므로 연결을 닫습니다.
+                closeConnection = true;
+            }
+        }
+
+        void discard() {
+            this.finished = true;
+            connection.releaseBuffer(this.current);
+            this.current = null;
+        }
+    }
+}
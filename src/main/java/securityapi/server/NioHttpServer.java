@@ -0,0 +1,447 @@
+package securityapi.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpHandler;
+
+import securityapi.config.ConfigLoader;
+
+/**
+ * JDK NIO selector 기반 HTTP/1.1 프런트엔드 (server.frontend=nio)
+ *
+ * - acceptor 스레드가 연결을 받아 selector 스레드들에 돌아가며 나눠 줍니다.
+ * - selector 스레드는 논블로킹으로 읽고 쓰기만 하며, 핸들러는 RequestExecutor 에서 실행합니다.
+ * - 연결은 keep-alive 로 유지하고, 한 연결에 연달아 들어온 요청(파이프라이닝)은 받은 순서대로 응답합니다.
+ * - 소켓 읽기/쓰기는 BufferPool 의 다이렉트 버퍼를 쓰므로, 쉬고 있는 연결은 작은 연결 객체 외에 버퍼를 잡고 있지 않습니다.
+ * - 기존 HttpHandler 는 NioHttpExchange 어댑터를 통해 그대로 사용합니다.
+ *
+ * 요청 본문은 Content-Length 로 받은 것만 지원합니다. (chunked 요청은 411)
+ */
+public final class NioHttpServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NioHttpServer.class);
+
+    private static final Map<Integer, String> REASONS = new LinkedHashMap<>();
+
+    static {
+        REASONS.put(100, "Continue");
+        REASONS.put(200, "OK");
+        REASONS.put(201, "Created");
+        REASONS.put(204, "No Content");
+        REASONS.put(304, "Not Modified");
+        REASONS.put(400, "Bad Request");
+        REASONS.put(401, "Unauthorized");
+        REASONS.put(403, "Forbidden");
+        REASONS.put(404, "Not Found");
+        REASONS.put(405, "Method Not Allowed");
+        REASONS.put(411, "Length Required");
+        REASONS.put(413, "Payload Too Large");
+        REASONS.put(431, "Request Header Fields Too Large");
+        REASONS.put(500, "Internal Server Error");
+        REASONS.put(503, "Service Unavailable");
+    }
+
+    private final InetSocketAddress address;
+    private final int backlog;
+    private final int acceptorCount;
+    private final int selectorCount;
+    final int maxHeaderBytes;
+    final long maxBodyBytes;
+    // 한 연결이 처리 대기 중으로 들고 있을 수 있는 요청 바이트 (받은 입력 + 파싱해 둔 본문)
+    final long maxBufferedBytes;
+    final long idleTimeoutMillis;
+    // 출력 큐에 이만큼 넘게 쌓이면 응답을 쓰는 핸들러 스레드가 기다립니다.
+    final long writeHighWater;
+    final BufferPool buffers;
+
+    private final Map<String, NioHttpContext> contexts = new ConcurrentHashMap<>();
+    private Executor executor;
+    private ServerSocketChannel serverChannel;
+    private SelectorLoop[] loops;
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private volatile boolean running;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final LongAdder acceptedConnections = new LongAdder();
+    private final LongAdder idleClosed = new LongAdder();
+    final LongAdder requests          = new LongAdder();
+    final LongAdder keepAliveRequests = new LongAdder();
+    final LongAdder pipelinedRequests = new LongAdder();
+    final LongAdder rejectedRequests  = new LongAdder();
+    final LongAdder badRequests       = new LongAdder();
+    final LongAdder readPauses        = new LongAdder();
+    final LongAdder bytesRead         = new LongAdder();
+    final LongAdder bytesWritten      = new LongAdder();
+
+    /**
+     * @param acceptors      연결을 받는 스레드 수
+     * @param selectors      읽기/쓰기를 맡는 selector 스레드 수
+     * @param bufferSize     다이렉트 버퍼 하나의 크기
+     * @param pooledBuffers  풀에 보관할 최대 버퍼 수
+     * @param maxBufferedBytes 연결 하나가 쌓아 둘 수 있는 요청 바이트. 넘으면 앞 요청이 처리될 때까지 읽기를 멈춥니다.
+     *                         (요청 하나는 이보다 커도 받습니다. 그 크기는 maxHeaderBytes / maxBodyBytes 로 제한)
+     */
+    public NioHttpServer(InetSocketAddress address, int backlog, int acceptors, int selectors, int bufferSize, int pooledBuffers,
+                         int maxHeaderBytes, long maxBodyBytes, long maxBufferedBytes, long idleTimeoutMillis) {
+        this.address = address;
+        this.backlog = backlog;
+        this.acceptorCount = Math.max(1, acceptors);
+        this.selectorCount = selectors > 0 ? selectors : Runtime.getRuntime().availableProcessors();
+        this.buffers = new BufferPool(bufferSize, pooledBuffers);
+        this.maxHeaderBytes = maxHeaderBytes;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.writeHighWater = 8L * bufferSize;
+    }
+
+    /**
+     * config.properties 의 server.nio.* 설정으로 만듭니다.
+     */
+    public static NioHttpServer fromConfig(InetSocketAddress address, int backlog) {
+        return new NioHttpServer(address, backlog,
+                intProperty("server.nio.acceptors", "1"),
+                intProperty("server.nio.selectors", "0"),
+                intProperty("server.nio.buffer.bytes", "16384"),
+                intProperty("server.nio.buffer.pool", "1024"),
+                intProperty("server.nio.max.header.bytes", "65536"),
+                Long.parseLong(ConfigLoader.getProperty("server.nio.max.body.bytes", "16777216").trim()),
+                Long.parseLong(ConfigLoader.getProperty("server.nio.max.buffered.bytes", "4194304").trim()),
+                Long.parseLong(ConfigLoader.getProperty("server.nio.idle.timeout.ms", "60000").trim()));
+    }
+
+    private static int intProperty(String key, String defaultValue) {
+        return Integer.parseInt(ConfigLoader.getProperty(key, defaultValue).trim());
+    }
+
+    public void createContext(String path, HttpHandler handler) {
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException("Context path must start with '/': " + path);
+        }
+        if (this.contexts.putIfAbsent(path, new NioHttpContext(path, handler)) != null) {
+            throw new IllegalArgumentException("Context already exists: " + path);
+        }
+    }
+
+    /**
+     * 핸들러를 실행할 Executor. selector 스레드를 막으면 안 되므로 server.executor=dispatcher 는 쓸 수 없습니다.
+     */
+    public void setExecutor(Executor executor) {
+        if (executor instanceof RequestExecutor && ((RequestExecutor) executor).mode() == RequestExecutor.Mode.DISPATCHER) {
+            throw new IllegalArgumentException("server.executor=dispatcher cannot be used with server.frontend=nio");
+        }
+        this.executor = executor;
+    }
+
+    public synchronized void start() throws IOException {
+        if (this.running) {
+            throw new IllegalStateException("already started");
+        }
+        if (this.executor == null) {
+            this.executor = RequestExecutor.create(RequestExecutor.Mode.POOL, 0, 1024);
+        }
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        this.serverChannel.bind(this.address, this.backlog);
+        this.running = true;
+
+        this.loops = new SelectorLoop[this.selectorCount];
+        for (int i = 0; i < this.loops.length; i++) {
+            this.loops[i] = new SelectorLoop(Selector.open(), this.buffers.acquire());
+            startThread(this.loops[i], "nio-selector-" + (i + 1));
+        }
+        for (int i = 0; i < this.acceptorCount; i++) {
+            startThread(this::acceptLoop, "nio-acceptor-" + (i + 1));
+        }
+    }
+
+    private void startThread(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        this.threads.add(thread);
+        thread.start();
+    }
+
+    /**
+     * 새 연결을 받지 않고, 모든 연결을 닫은 뒤 스레드를 멈춥니다.
+     */
+    public synchronized void stop() {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        try {
+            this.serverChannel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close the listening socket", e);
+        }
+        for (SelectorLoop loop : this.loops) {
+            loop.selector.wakeup();
+        }
+        for (Thread thread : this.threads) {
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        this.threads.clear();
+    }
+
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) this.serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            return this.address;
+        }
+    }
+
+    private void acceptLoop() {
+        while (this.running) {
+            SocketChannel channel;
+            try {
+                channel = this.serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                // 파일 디스크립터 부족 등. 잠시 쉬고 계속 받습니다.
+                logger.warn("accept failed: {}", e.toString());
+                pause();
+                continue;
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                this.acceptedConnections.increment();
+                this.openConnections.incrementAndGet();
+                this.loops[Math.floorMod(this.nextLoop.getAndIncrement(), this.loops.length)].register(channel);
+            } catch (IOException e) {
+                this.openConnections.decrementAndGet();
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignore) {
+            // 닫는 중 오류는 무시
+        }
+    }
+
+    // HttpServer 와 같이 요청 경로가 컨텍스트 경로로 시작하는 것 중 가장 긴 것을 고릅니다.
+    NioHttpContext findContext(String path) {
+        if (path == null) {
+            return null;
+        }
+        NioHttpContext best = null;
+        for (NioHttpContext context : this.contexts.values()) {
+            if (path.startsWith(context.getPath()) && (best == null || context.getPath().length() > best.getPath().length())) {
+                best = context;
+            }
+        }
+        return best;
+    }
+
+    // 핸들러 실행을 Executor 에 넘깁니다. 여유가 없으면 false (selector 가 503 으로 응답)
+    boolean dispatch(NioHttpExchange exchange) {
+        Runnable task = () -> handle(exchange);
+        if (this.executor instanceof RequestExecutor) {
+            return ((RequestExecutor) this.executor).tryExecute(task);
+        }
+        try {
+            this.executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private static void handle(NioHttpExchange exchange) {
+        try {
+            exchange.getHttpContext().getHandler().handle(exchange);
+            exchange.close();
+        } catch (Exception | Error e) {
+            logger.warn("Handler failed for {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            exchange.abort();
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    void connectionClosed() {
+        this.openConnections.decrementAndGet();
+    }
+
+    static String reasonPhrase(int status) {
+        return REASONS.getOrDefault(status, "");
+    }
+
+    /**
+     * 누적 지표 (연결/요청 수, 파이프라이닝·keep-alive 재사용, 거절, 읽고 쓴 바이트, 버퍼 풀 상태)
+     */
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("openConnections", (long) this.openConnections.get());
+        metrics.put("acceptedConnections", this.acceptedConnections.sum());
+        metrics.put("idleClosed", this.idleClosed.sum());
+        metrics.put("requests", this.requests.sum());
+        metrics.put("keepAliveRequests", this.keepAliveRequests.sum());
+        metrics.put("pipelinedRequests", this.pipelinedRequests.sum());
+        metrics.put("rejectedRequests", this.rejectedRequests.sum());
+        metrics.put("badRequests", this.badRequests.sum());
+        metrics.put("readPauses", this.readPauses.sum());
+        metrics.put("bytesRead", this.bytesRead.sum());
+        metrics.put("bytesWritten", this.bytesWritten.sum());
+        metrics.put("buffersAllocated", this.buffers.allocated());
+        metrics.put("buffersReused", this.buffers.reused());
+        metrics.put("buffersPooled", (long) this.buffers.pooled());
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "nio(selectors=" + this.selectorCount + ", acceptors=" + this.acceptorCount + ")";
+    }
+
+    /**
+     * selector 스레드 하나. 맡은 연결의 읽기/쓰기와 유휴 연결 정리를 합니다.
+     * 다른 스레드는 register/requestFlush 로 작업을 넘기고 selector 를 깨웁니다.
+     */
+    final class SelectorLoop implements Runnable {
+        final Selector selector;
+        private final ByteBuffer readBuffer;
+        private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+        private final Queue<NioConnection> flushRequests = new ConcurrentLinkedQueue<>();
+        private long lastIdleCheck = System.currentTimeMillis();
+
+        SelectorLoop(Selector selector, ByteBuffer readBuffer) {
+            this.selector = selector;
+            this.readBuffer = readBuffer;
+        }
+
+        void register(SocketChannel channel) {
+            this.newChannels.add(channel);
+            this.selector.wakeup();
+        }
+
+        void requestFlush(NioConnection connection) {
+            this.flushRequests.add(connection);
+            this.selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    this.selector.select(1000);
+                    registerNewChannels();
+
+                    Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        NioConnection connection = (NioConnection) key.attachment();
+                        if (key.isValid() && key.isWritable()) {
+                            connection.onWritable();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            connection.onReadable(this.readBuffer);
+                        }
+                    }
+
+                    NioConnection connection;
+                    while ((connection = this.flushRequests.poll()) != null) {
+                        connection.flush();
+                    }
+                    closeIdleConnections();
+                } catch (IOException | RuntimeException e) {
+                    logger.error("NIO selector loop error", e);
+                }
+            }
+            closeAll();
+        }
+
+        private void registerNewChannels() {
+            SocketChannel channel;
+            while ((channel = this.newChannels.poll()) != null) {
+                try {
+                    NioConnection connection = new NioConnection(NioHttpServer.this, this, channel);
+                    connection.attach(channel.register(this.selector, SelectionKey.OP_READ, connection));
+                } catch (IOException e) {
+                    connectionClosed();
+                    closeQuietly(channel);
+                }
+            }
+        }
+
+        private void closeIdleConnections() {
+            long now = System.currentTimeMillis();
+            if (idleTimeoutMillis <= 0 || now - this.lastIdleCheck < 1000) {
+                return;
+            }
+            this.lastIdleCheck = now;
+            for (SelectionKey key : this.selector.keys()) {
+                NioConnection connection = (NioConnection) key.attachment();
+                if (connection != null && connection.isIdle(now, idleTimeoutMillis)) {
+                    idleClosed.increment();
+                    connection.close();
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : this.selector.keys()) {
+                NioConnection connection = (NioConnection) key.attachment();
+                if (connection != null) {
+                    connection.close();
+                }
+            }
+            SocketChannel channel;
+            while ((channel = this.newChannels.poll()) != null) {
+                connectionClosed();
+                closeQuietly(channel);
+            }
+            try {
+                this.selector.close();
+            } catch (IOException ignore) {
+                // 종료 중
+            }
+            buffers.release(this.readBuffer);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package securityapi.server;
+
+import java.net.URI;
+
+import com.sun.net.httpserver.Headers;
+
+/**
+ * NIO 프런트엔드가 파싱한 요청 하나 (본문까지 모두 받은 상태)
+ *
+ * errorStatus 가 0 이 아니면 파싱에 실패한 자리표시 요청으로, 파이프라인 순서를 지키기 위해
+ * 앞선 응답이 끝난 뒤 그 상태 코드로 응답하고 연결을 닫습니다.
+ */
+final class NioRequest {
+
+    final String method;
+    final URI uri;
+    final String protocol;
+    final Headers headers;
+    final byte[] body;
+    final boolean keepAlive;
+    final int errorStatus;
+
+    NioRequest(String method, URI uri, String protocol, Headers headers, byte[] body, boolean keepAlive) {
+        this.method = method;
+        this.uri = uri;
+        this.protocol = protocol;
+        this.headers = headers;
+        this.body = body;
+        this.keepAlive = keepAlive;
+        this.errorStatus = 0;
+    }
+
+    private NioRequest(int errorStatus) {
+        this.method = null;
+        this.uri = null;
+        this.protocol = "HTTP/1.1";
+        this.headers = new Headers();
+        this.body = new byte[0];
+        this.keepAlive = false;
+        this.errorStatus = errorStatus;
+    }
+
+    static NioRequest error(int status) {
+        return new NioRequest(status);
+    }
+
+    boolean isHead() {
+        return "HEAD".equals(this.method);
+    }
+
+    boolean isHttp10() {
+        return "HTTP/1.0".equals(this.protocol);
+    }
+}
@@ -0,0 +1,236 @@
+package securityapi.server;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import securityapi.config.ConfigLoader;
+
+/**
+ * HTTP 핸들러를 실행하는 Executor (server.executor)
+ *
+ * pool:       크기가 정해진 플랫폼 스레드 풀과 길이 제한 큐. 큐까지 가득 차면 호출한 스레드(디스패처)에서 바로 실행해
+ *             새 요청을 받는 속도를 늦춥니다. (요청을 버리지 않는 역압)
+ * virtual:    요청마다 가상 스레드 하나 (JDK 21 이상). 낮은 JDK 에서는 pool 로 대신합니다.
+ * dispatcher: 기존 동작. 디스패처 스레드 하나가 모든 요청을 처리합니다.
+ *
+ * 스레드 수, 큐 길이, 처리 건수는 metrics() 로 확인할 수 있고,
+ * server.executor.metrics.log.seconds 가 0 보다 크면 그 주기로 로그에 남깁니다.
+ */
+public final class RequestExecutor implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestExecutor.class);
+
+    public enum Mode {
+        POOL, VIRTUAL, DISPATCHER;
+
+        public static Mode fromConfig(String value) {
+            if (value == null || value.isBlank()) {
+                return POOL;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown server.executor: " + value);
+            }
+        }
+    }
+
+    private final Mode mode;
+    // DISPATCHER 이면 null
+    private final ExecutorService delegate;
+    // POOL 일 때만 (스레드 수, 큐 길이 지표용)
+    private final ThreadPoolExecutor pool;
+    private final int queueCapacity;
+
+    private final LongAdder submitted  = new LongAdder();
+    private final LongAdder completed  = new LongAdder();
+    private final LongAdder failed     = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder rejected   = new LongAdder();
+    private final AtomicInteger active     = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+
+    private RequestExecutor(Mode mode, ExecutorService delegate, ThreadPoolExecutor pool, int queueCapacity) {
+        this.mode = mode;
+        this.delegate = delegate;
+        this.pool = pool;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * config.properties 의 server.executor* 설정으로 만듭니다.
+     */
+    public static RequestExecutor fromConfig() {
+        Mode mode   = Mode.fromConfig(ConfigLoader.getProperty("server.executor", "pool"));
+        int threads = Integer.parseInt(ConfigLoader.getProperty("server.executor.threads", "0").trim());
+        int queue   = Integer.parseInt(ConfigLoader.getProperty("server.executor.queue", "1024").trim());
+        long logSeconds = Long.parseLong(ConfigLoader.getProperty("server.executor.metrics.log.seconds", "0").trim());
+
+        RequestExecutor executor = create(mode, threads, queue);
+        if (logSeconds > 0) {
+            executor.startMetricsLog(logSeconds);
+        }
+        return executor;
+    }
+
+    /**
+     * @param threads pool 의 스레드 수 (0 = CPU 수 x 2)
+     * @param queue   pool 의 대기 큐 길이 (0 = 큐 없이 바로 넘김)
+     */
+    public static RequestExecutor create(Mode mode, int threads, int queue) {
+        if (mode == Mode.DISPATCHER) {
+            return new RequestExecutor(mode, null, null, 0);
+        }
+        if (mode == Mode.VIRTUAL) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) {
+                return new RequestExecutor(mode, virtual, null, 0);
+            }
+            logger.warn("Virtual threads need JDK 21 or later (running {}). Falling back to server.executor=pool.",
+                    System.getProperty("java.version"));
+        }
+
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors() * 2;
+        BlockingQueue<Runnable> workQueue = queue > 0 ? new ArrayBlockingQueue<>(queue) : new SynchronousQueue<>();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS, workQueue, namedThreads("http-worker-", false));
+        return new RequestExecutor(Mode.POOL, pool, pool, Math.max(queue, 0));
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() 가 있으면 (JDK 21+) 호출하고, 없으면 null
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        this.submitted.increment();
+        Runnable tracked = () -> runTracked(task);
+        if (this.delegate == null) {
+            tracked.run();
+            return;
+        }
+        try {
+            this.delegate.execute(tracked);
+        } catch (RejectedExecutionException e) {
+            if (this.delegate.isShutdown()) {
+                throw e;
+            }
+            // 스레드와 큐가 모두 찼을 때: 호출한 스레드에서 실행
+            this.callerRuns.increment();
+            tracked.run();
+        }
+    }
+
+    /**
+     * execute 와 같지만, 스레드와 큐가 모두 찼으면 호출한 스레드에서 실행하지 않고 false 를 돌려줍니다.
+     * selector 스레드처럼 막히면 안 되는 호출자용입니다. (dispatcher 모드에서는 바로 실행)
+     */
+    public boolean tryExecute(Runnable task) {
+        if (this.delegate == null) {
+            execute(task);
+            return true;
+        }
+        this.submitted.increment();
+        try {
+            this.delegate.execute(() -> runTracked(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            this.submitted.decrement();
+            this.rejected.increment();
+            return false;
+        }
+    }
+
+    private void runTracked(Runnable task) {
+        int running = this.active.incrementAndGet();
+        this.peakActive.accumulateAndGet(running, Math::max);
+        try {
+            task.run();
+        } catch (RuntimeException | Error e) {
+            this.failed.increment();
+            throw e;
+        } finally {
+            this.active.decrementAndGet();
+            this.completed.increment();
+        }
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * 누적 지표. active 는 지금 실행 중인 요청 수(가상 스레드 모드에서는 곧 스레드 수), callerRuns 는 풀이 가득 차
+     * 호출한 스레드에서 실행한 횟수, rejected 는 tryExecute 가 거절한 횟수입니다. poolSize/largestPoolSize/queueDepth/queueCapacity 는 pool 모드에서만 0 이 아닙니다.
+     */
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("submitted", this.submitted.sum());
+        metrics.put("completed", this.completed.sum());
+        metrics.put("failed", this.failed.sum());
+        metrics.put("callerRuns", this.callerRuns.sum());
+        metrics.put("rejected", this.rejected.sum());
+        metrics.put("active", (long) this.active.get());
+        metrics.put("peakActive", (long) this.peakActive.get());
+        metrics.put("poolSize", this.pool == null ? 0L : this.pool.getPoolSize());
+        metrics.put("largestPoolSize", this.pool == null ? 0L : this.pool.getLargestPoolSize());
+        metrics.put("queueDepth", this.pool == null ? 0L : this.pool.getQueue().size());
+        metrics.put("queueCapacity", (long) this.queueCapacity);
+        return metrics;
+    }
+
+    private void startMetricsLog(long seconds) {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(namedThreads("http-executor-metrics-", true));
+        timer.scheduleAtFixedRate(() -> logger.info("request executor ({}) {}", this.mode, metrics()), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 새 작업을 더 받지 않고, 실행 중인 요청이 끝날 때까지 최대 timeout 만큼 기다립니다.
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        if (this.delegate != null) {
+            this.delegate.shutdown();
+            this.delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (this.pool != null) {
+            return "pool(threads=" + this.pool.getCorePoolSize() + ", queue=" + this.queueCapacity + ")";
+        }
+        return this.mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    static ThreadFactory namedThreads(String prefix, boolean daemon) {
+        AtomicInteger sequence = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + sequence.incrementAndGet());
+            thread.setDaemon(daemon);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,346 @@
+package securityapi.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import securityapi.config.ConfigLoader;
+
+/**
+ * Accept-Encoding 협상에 따른 응답 압축 (gzip, deflate)
+ *
+ * send(): 길이를 아는 응답. server.compression.min.bytes 보다 작거나 압축해도 줄지 않으면 그대로 보냅니다.
+ * sendStreaming(): chunked 응답. 전체 길이를 미리 알 수 없으므로 클라이언트가 받아들이면 항상 압축합니다.
+ *
+ * 두 경로 모두 jdk, nio 프런트엔드에서 똑같이 동작합니다.
+ * compressNanos 는 deflate 와 CRC 계산에 쓴 시간만 잽니다. (소켓 쓰기 제외)
+ * server.compression.metrics.log.seconds 가 0 보다 크면 그 주기로 metrics() 를 로그에 남깁니다.
+ */
+public final class ResponseCompression {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCompression.class);
+
+    enum Encoding {
+        GZIP("gzip"), DEFLATE("deflate"), IDENTITY("identity");
+
+        final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private static final LongAdder GZIP_RESPONSES     = new LongAdder();
+    private static final LongAdder DEFLATE_RESPONSES  = new LongAdder();
+    private static final LongAdder IDENTITY_RESPONSES = new LongAdder();
+    private static final LongAdder BELOW_THRESHOLD    = new LongAdder();
+    private static final LongAdder NOT_SMALLER        = new LongAdder();
+    private static final LongAdder BYTES_IN           = new LongAdder();
+    private static final LongAdder BYTES_OUT          = new LongAdder();
+    private static final LongAdder COMPRESS_NANOS     = new LongAdder();
+
+    private static final boolean ENABLED   = Boolean.parseBoolean(ConfigLoader.getProperty("server.compression.enabled", "true").trim());
+    // 서버가 선호하는 순서. q 값이 같으면 앞쪽을 고릅니다.
+    private static final List<Encoding> ENCODINGS = parseEncodings(ConfigLoader.getProperty("server.compression.encodings", "gzip,deflate"));
+    private static final int MIN_BYTES = Integer.parseInt(ConfigLoader.getProperty("server.compression.min.bytes", "1024").trim());
+    private static final int LEVEL     = Integer.parseInt(ConfigLoader.getProperty("server.compression.level", "6").trim());
+
+    static {
+        if (LEVEL != Deflater.DEFAULT_COMPRESSION && (LEVEL < Deflater.BEST_SPEED || LEVEL > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalStateException("server.compression.level must be 1-9 or -1: " + LEVEL);
+        }
+        long logSeconds = Long.parseLong(ConfigLoader.getProperty("server.compression.metrics.log.seconds", "0").trim());
+        if (logSeconds > 0) {
+            ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(RequestExecutor.namedThreads("http-compression-metrics-", true));
+            timer.scheduleAtFixedRate(() -> logger.info("response compression {}", metrics()), logSeconds, logSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private ResponseCompression() {
+    }
+
+    /**
+     * 응답 헤더와 본문을 보냅니다. sendResponseHeaders(statusCode, body.length) + 본문 쓰기를 대신합니다.
+     */
+    public static void send(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        Encoding encoding = negotiate(exchange);
+        if (encoding != Encoding.IDENTITY && body.length < MIN_BYTES) {
+            BELOW_THRESHOLD.increment();
+            encoding = Encoding.IDENTITY;
+        }
+        if (encoding != Encoding.IDENTITY) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2);
+            CompressingOutputStream out  = new CompressingOutputStream(encoding, buffer, false);
+            out.write(body);
+            out.close();
+            // 압축에 쓴 시간은 결과를 쓰지 않더라도 셉니다.
+            COMPRESS_NANOS.add(out.nanos);
+            if (buffer.size() < body.length) {
+                BYTES_IN.add(out.bytesIn);
+                BYTES_OUT.add(out.bytesOut);
+                exchange.getResponseHeaders().set("Content-Encoding", encoding.token);
+                body = buffer.toByteArray();
+            } else {
+                NOT_SMALLER.increment();
+                encoding = Encoding.IDENTITY;
+            }
+        }
+        count(encoding);
+
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    /**
+     * chunked 응답 헤더를 보내고 본문을 쓸 스트림을 돌려줍니다. 협상된 경우 압축 스트림이며,
+     * 닫아야 압축이 끝나고 마지막 chunk 가 나갑니다.
+     */
+    public static OutputStream sendStreaming(HttpExchange exchange, int statusCode) throws IOException {
+        Encoding encoding = negotiate(exchange);
+        count(encoding);
+        if (encoding == Encoding.IDENTITY) {
+            exchange.sendResponseHeaders(statusCode, 0);
+            return exchange.getResponseBody();
+        }
+        exchange.getResponseHeaders().set("Content-Encoding", encoding.token);
+        exchange.sendResponseHeaders(statusCode, 0);
+        return new CompressingOutputStream(encoding, exchange.getResponseBody(), true);
+    }
+
+    /**
+     * 누적 지표. bytesIn/bytesOut/savedBytes 는 압축해서 보낸 본문만, compressNanos 는 압축을 시도한 모든 본문을 셉니다.
+     * belowThreshold, notSmaller 는 협상은 됐지만 압축하지 않고 보낸 응답 수입니다.
+     */
+    public static Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        long bytesIn  = BYTES_IN.sum();
+        long bytesOut = BYTES_OUT.sum();
+        metrics.put("gzipResponses", GZIP_RESPONSES.sum());
+        metrics.put("deflateResponses", DEFLATE_RESPONSES.sum());
+        metrics.put("identityResponses", IDENTITY_RESPONSES.sum());
+        metrics.put("belowThreshold", BELOW_THRESHOLD.sum());
+        metrics.put("notSmaller", NOT_SMALLER.sum());
+        metrics.put("bytesIn", bytesIn);
+        metrics.put("bytesOut", bytesOut);
+        metrics.put("savedBytes", bytesIn - bytesOut);
+        metrics.put("compressNanos", COMPRESS_NANOS.sum());
+        return metrics;
+    }
+
+    private static void count(Encoding encoding) {
+        switch (encoding) {
+            case GZIP:    GZIP_RESPONSES.increment(); break;
+            case DEFLATE: DEFLATE_RESPONSES.increment(); break;
+            default:      IDENTITY_RESPONSES.increment(); break;
+        }
+    }
+
+    // 압축 여부와 관계없이 응답이 Accept-Encoding 에 따라 달라짐을 캐시에 알립니다.
+    private static Encoding negotiate(HttpExchange exchange) {
+        if (!ENABLED || ENCODINGS.isEmpty() || exchange.getResponseHeaders().containsKey("Content-Encoding")) {
+            return Encoding.IDENTITY;
+        }
+        exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        return negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
+    /**
+     * Accept-Encoding 값에서 q 가 가장 큰 인코딩을 고릅니다. 명시되지 않은 인코딩은 "*" 의 q 를 따르고,
+     * "*" 도 없으면 받지 않는 것으로 봅니다.
+     */
+    static Encoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return Encoding.IDENTITY;
+        }
+        double[] quality = new double[Encoding.values().length];
+        double wildcard  = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String token    = params[0].trim().toLowerCase(Locale.ROOT);
+            double q        = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if ("*".equals(token)) {
+                wildcard = q;
+            } else if ("gzip".equals(token) || "x-gzip".equals(token)) {
+                quality[Encoding.GZIP.ordinal()] = q + 1;
+            } else if ("deflate".equals(token)) {
+                quality[Encoding.DEFLATE.ordinal()] = q + 1;
+            }
+        }
+
+        Encoding best = Encoding.IDENTITY;
+        double bestQ  = 0;
+        for (Encoding encoding : ENCODINGS) {
+            // 0 = 언급 없음, 그 외에는 q + 1 로 저장해 두었습니다.
+            double q = quality[encoding.ordinal()] > 0 ? quality[encoding.ordinal()] - 1 : wildcard;
+            if (q > bestQ) {
+                best  = encoding;
+                bestQ = q;
+            }
+        }
+        return best;
+    }
+
+    private static List<Encoding> parseEncodings(String value) {
+        List<Encoding> encodings = new ArrayList<>();
+        for (String token : value.split(",")) {
+            String name = token.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            if ("gzip".equals(name)) {
+                encodings.add(Encoding.GZIP);
+            } else if ("deflate".equals(name)) {
+                encodings.add(Encoding.DEFLATE);
+            } else {
+                throw new IllegalStateException("Unknown server.compression.encodings entry: " + token);
+            }
+        }
+        return encodings;
+    }
+
+    /**
+     * gzip(RFC 1952) 또는 deflate(zlib, RFC 1950) 압축 스트림
+     *
+     * GZIPOutputStream 과 달리 deflate 호출 구간만 시간을 잽니다.
+     * recordOnClose 면 close() 에서 지표에 한 번에 반영하며, 끝까지 닫히지 않은(중단된) 응답은 세지 않습니다.
+     */
+    private static final class CompressingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final Deflater deflater;
+        // gzip 일 때만 사용
+        private final CRC32 crc;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final boolean recordOnClose;
+        private long bytesIn;
+        private long bytesOut;
+        private long nanos;
+        private boolean closed;
+
+        CompressingOutputStream(Encoding encoding, OutputStream out, boolean recordOnClose) throws IOException {
+            boolean gzip  = encoding == Encoding.GZIP;
+            this.out      = out;
+            this.recordOnClose = recordOnClose;
+            this.deflater = new Deflater(LEVEL, gzip);
+            this.crc      = gzip ? new CRC32() : null;
+            if (gzip) {
+                out.write(GZIP_HEADER);
+                this.bytesOut += GZIP_HEADER.length;
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (this.closed) {
+                throw new IOException("Stream closed");
+            }
+            if (len == 0) {
+                return;
+            }
+            long start = System.nanoTime();
+            if (this.crc != null) {
+                this.crc.update(b, off, len);
+            }
+            this.deflater.setInput(b, off, len);
+            this.bytesIn += len;
+            while (!this.deflater.needsInput()) {
+                int n = this.deflater.deflate(this.buffer);
+                this.nanos += System.nanoTime() - start;
+                writeOut(n);
+                start = System.nanoTime();
+            }
+            this.nanos += System.nanoTime() - start;
+        }
+
+        // 압축률을 지키기 위해 deflate 버퍼는 비우지 않고(SYNC_FLUSH 없음) 아래 스트림만 flush 합니다. (GZIPOutputStream 기본 동작과 동일)
+        @Override
+        public void flush() throws IOException {
+            this.out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            try {
+                long start = System.nanoTime();
+                this.deflater.finish();
+                while (!this.deflater.finished()) {
+                    int n = this.deflater.deflate(this.buffer);
+                    this.nanos += System.nanoTime() - start;
+                    writeOut(n);
+                    start = System.nanoTime();
+                }
+                this.nanos += System.nanoTime() - start;
+                if (this.crc != null) {
+                    writeTrailer();
+                }
+                this.out.close();
+            } finally {
+                this.deflater.end();
+            }
+            if (this.recordOnClose) {
+                BYTES_IN.add(this.bytesIn);
+                BYTES_OUT.add(this.bytesOut);
+                COMPRESS_NANOS.add(this.nanos);
+            }
+        }
+
+        private void writeOut(int n) throws IOException {
+            if (n > 0) {
+                this.out.write(this.buffer, 0, n);
+                this.bytesOut += n;
+            }
+        }
+
+        // CRC32 와 원본 길이(mod 2^32), 리틀엔디안
+        private void writeTrailer() throws IOException {
+            long crcValue = this.crc.getValue();
+            byte[] trailer = new byte[8];
+            for (int i = 0; i < 4; i++) {
+                trailer[i]     = (byte) (crcValue >>> (8 * i));
+                trailer[i + 4] = (byte) (this.bytesIn >>> (8 * i));
+            }
+            this.out.write(trailer);
+            this.bytesOut += trailer.length;
+        }
+    }
+}